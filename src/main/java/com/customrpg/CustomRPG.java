@@ -3,18 +3,30 @@ package com.customrpg;
 import com.customrpg.commands.StatsCommand;
 import com.customrpg.commands.StatsShortcutCommand;
 import com.customrpg.commands.WeaponCommand;
+import com.customrpg.gui.LeaderboardGUI;
 import com.customrpg.gui.StatsGUI;
 import com.customrpg.listeners.MobListener;
 import com.customrpg.listeners.StatsListener;
 import com.customrpg.listeners.WeaponListener;
 import com.customrpg.listeners.SkillTriggerListener;
 import com.customrpg.managers.ConfigManager;
+import com.customrpg.managers.ConfigWatcher;
+import com.customrpg.managers.CooldownService;
+import com.customrpg.managers.HeldWeaponCache;
 import com.customrpg.managers.MobManager;
 import com.customrpg.managers.PlayerStatsManager;
 import com.customrpg.managers.WeaponManager;
+import com.customrpg.weaponSkills.managers.BuffManager;
+import com.customrpg.weaponSkills.managers.DotManager;
 import com.customrpg.weaponSkills.managers.SkillManager;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * CustomRPG - Main plugin class
  *
@@ -34,13 +46,27 @@ public class CustomRPG extends JavaPlugin {
 
     private ConfigManager configManager;
     private WeaponManager weaponManager;
+    private HeldWeaponCache heldWeaponCache;
     private MobManager mobManager;
     private PlayerStatsManager statsManager;
     private StatsGUI statsGUI;
+    private LeaderboardGUI leaderboardGUI;
+
+    // 全插件共用的冷卻（技能、被動、提示節流）
+    private CooldownService cooldownService;
+
+    // 增益 / 減益（任何 LivingEntity）
+    private BuffManager buffManager;
+
+    // 持續傷害（燃燒 / 中毒 / 流血）
+    private DotManager dotManager;
 
     // New skill system
     private SkillManager newSkillManager;
 
+    // Optional config hot reload (settings.hot-reload)
+    private ConfigWatcher configWatcher;
+
     /**
      * Called when the plugin is enabled
      * Initializes all managers, registers listeners and commands
@@ -60,6 +86,9 @@ public class CustomRPG extends JavaPlugin {
         // Register commands
         registerCommands();
 
+        // Watch config/ for edits if enabled
+        startConfigWatcher();
+
         getLogger().info("CustomRPG has been enabled successfully!");
         getLogger().info("Version: " + getDescription().getVersion());
         getLogger().info("=================================");
@@ -75,13 +104,30 @@ public class CustomRPG extends JavaPlugin {
         getLogger().info("   CustomRPG Plugin Stopping");
         getLogger().info("=================================");
 
+        if (configWatcher != null) {
+            configWatcher.stop();
+            configWatcher = null;
+        }
+
         // 儲存所有玩家數據
         if (statsManager != null) {
             statsManager.saveAllStats();
             getLogger().info("- All player stats saved");
         }
 
-        // New skill system cooldowns are in-memory; stopping the plugin clears them.
+        // Cooldowns / buffs / DoTs are in-memory; stopping the plugin clears them.
+        if (dotManager != null) {
+            dotManager.shutdown();
+            dotManager = null;
+        }
+        if (buffManager != null) {
+            buffManager.shutdown();
+            buffManager = null;
+        }
+        if (cooldownService != null) {
+            cooldownService.shutdown();
+            cooldownService = null;
+        }
 
         // Cleanup managers
         configManager = null;
@@ -100,14 +146,25 @@ public class CustomRPG extends JavaPlugin {
     private void initializeManagers() {
         getLogger().info("Initializing managers...");
 
+        // ConfigManager parses all files in parallel and joins before returning,
+        // so WeaponManager / MobManager always compile against a complete config set
+        long configStart = System.nanoTime();
         configManager = new ConfigManager(this);
-        getLogger().info("- ConfigManager initialized");
+        long weaponStart = System.nanoTime();
+        getLogger().info("- ConfigManager initialized (" + ConfigManager.formatMillis(weaponStart - configStart) + ")");
 
         weaponManager = new WeaponManager(this, configManager);
-        getLogger().info("- WeaponManager initialized with " + weaponManager.getWeaponCount() + " weapons");
+        long mobStart = System.nanoTime();
+        getLogger().info("- WeaponManager initialized with " + weaponManager.getWeaponCount() + " weapons ("
+                + ConfigManager.formatMillis(mobStart - weaponStart) + ")");
+
+        heldWeaponCache = new HeldWeaponCache(weaponManager);
 
         mobManager = new MobManager(this, configManager);
-        getLogger().info("- MobManager initialized with " + mobManager.getMobTypeCount() + " custom mob types");
+        long mobEnd = System.nanoTime();
+        getLogger().info("- MobManager initialized with " + mobManager.getMobTypeCount() + " custom mob types ("
+                + ConfigManager.formatMillis(mobEnd - mobStart) + ")");
+        getLogger().info("- Content loaded in " + ConfigManager.formatMillis(mobEnd - configStart));
 
         statsManager = new PlayerStatsManager(this);
         getLogger().info("- PlayerStatsManager initialized");
@@ -115,19 +172,29 @@ public class CustomRPG extends JavaPlugin {
         statsGUI = new StatsGUI(statsManager);
         getLogger().info("- StatsGUI initialized");
 
+        leaderboardGUI = new LeaderboardGUI(statsManager);
+        getLogger().info("- LeaderboardGUI initialized");
+
+        cooldownService = new CooldownService(this);
+        getLogger().info("- CooldownService initialized");
+
         // ===== New skill system (manager/service pattern) =====
-        com.customrpg.weaponSkills.managers.CooldownManager cooldownManager = new com.customrpg.weaponSkills.managers.CooldownManager();
-        com.customrpg.weaponSkills.managers.BuffManager buffManager = new com.customrpg.weaponSkills.managers.BuffManager();
+        FileConfiguration mainConfig = configManager.getConfig("config/config.yml");
+        buffManager = new BuffManager(this, mainConfig == null ? null : mainConfig.getConfigurationSection("buffs"));
         com.customrpg.weaponSkills.managers.DamageManager damageManager = new com.customrpg.weaponSkills.managers.DamageManager();
 
-        // 注入 PlayerStatsManager 到 DamageManager
+        // 注入 PlayerStatsManager / BuffManager 到 DamageManager
         damageManager.setStatsManager(statsManager);
+        damageManager.setBuffManager(buffManager);
+
+        dotManager = new DotManager(this, damageManager, statsManager, buffManager,
+                mainConfig == null ? null : mainConfig.getConfigurationSection("dot"));
 
         com.customrpg.weaponSkills.util.AoEUtil aoeUtil = new com.customrpg.weaponSkills.util.AoEUtil();
         com.customrpg.weaponSkills.util.ParticleUtil particleUtil = new com.customrpg.weaponSkills.util.ParticleUtil();
         com.customrpg.weaponSkills.util.SoundUtil soundUtil = new com.customrpg.weaponSkills.util.SoundUtil();
 
-        newSkillManager = new SkillManager(weaponManager, cooldownManager, damageManager, buffManager, aoeUtil, particleUtil, soundUtil);
+        newSkillManager = new SkillManager(weaponManager, cooldownService, damageManager, buffManager, dotManager, aoeUtil, particleUtil, soundUtil);
 
         // auto-register weapon skills from config/weapons/skills/*.yml
         newSkillManager.registerSkillsFromConfig(configManager.getAllWeaponSkills());
@@ -135,13 +202,92 @@ public class CustomRPG extends JavaPlugin {
         getLogger().info("- New SkillManager initialized with " + newSkillManager.getRegisteredSkillIds().size() + " skills");
     }
 
+    /**
+     * Start the config watcher when settings.hot-reload.enabled is true
+     */
+    private void startConfigWatcher() {
+        FileConfiguration mainConfig = configManager.getConfig("config/config.yml");
+        if (mainConfig == null || !mainConfig.getBoolean("settings.hot-reload.enabled", false)) {
+            return;
+        }
+
+        long debounceMillis = mainConfig.getLong("settings.hot-reload.debounce-ms", 500L);
+        configWatcher = new ConfigWatcher(this, debounceMillis, this::applyConfigChanges);
+        try {
+            configWatcher.start();
+            getLogger().info("- Config hot reload enabled (debounce " + debounceMillis + "ms)");
+        } catch (IOException ex) {
+            getLogger().warning("- Failed to start config hot reload: " + ex.getMessage());
+            configWatcher = null;
+        }
+    }
+
+    /**
+     * Apply a batch of changed config files (runs on the watcher thread)
+     *
+     * Only the changed files are reparsed; weapons and mobs recompile on this thread via
+     * snapshot swaps, skill registration is handed to the main thread.
+     * @param paths Changed paths relative to the data folder
+     */
+    private void applyConfigChanges(Set<String> paths) {
+        ConfigManager.ConfigChange change = configManager.reloadChangedConfigs(paths);
+        if (change.isEmpty()) {
+            return;
+        }
+
+        weaponManager.reloadWeapons(change);
+        if (change.files().contains("config/config.yml")) {
+            statsManager.reloadExperienceCurve();
+            // buffs / dot 只在主執行緒使用
+            FileConfiguration mainConfig = configManager.getConfig("config/config.yml");
+            ConfigurationSection buffSettings = mainConfig == null ? null : mainConfig.getConfigurationSection("buffs");
+            ConfigurationSection dotSettings = mainConfig == null ? null : mainConfig.getConfigurationSection("dot");
+            getServer().getScheduler().runTask(this, () -> {
+                buffManager.reloadSettings(buffSettings);
+                dotManager.reloadSettings(dotSettings);
+            });
+        }
+        if (change.touchesMobs()) {
+            mobManager.reloadMobTypes();
+        }
+
+        if (!change.skillTemplates().isEmpty()) {
+            Map<String, Map<String, Object>> templates = configManager.getAllWeaponSkills();
+            getServer().getScheduler().runTask(this, () -> {
+                for (String skillId : change.skillTemplates()) {
+                    Map<String, Object> template = templates.get(skillId);
+                    if (template == null) {
+                        newSkillManager.unregisterSkill(skillId);
+                    } else {
+                        newSkillManager.registerSkillsFromConfig(Map.of(skillId, template));
+                    }
+                }
+            });
+        }
+    }
+
     /**
      * Register all event listeners
      */
     private void registerListeners() {
         getLogger().info("Registering event listeners...");
 
-        getServer().getPluginManager().registerEvents(new WeaponListener(this, weaponManager, statsManager), this);
+        getServer().getPluginManager().registerEvents(heldWeaponCache, this);
+        getLogger().info("- HeldWeaponCache registered");
+
+        getServer().getPluginManager().registerEvents(cooldownService, this);
+        getLogger().info("- CooldownService registered");
+
+        getServer().getPluginManager().registerEvents(buffManager, this);
+        getLogger().info("- BuffManager registered");
+
+        getServer().getPluginManager().registerEvents(dotManager, this);
+        getLogger().info("- DotManager registered");
+
+        getServer().getPluginManager().registerEvents(
+                new WeaponListener(this, weaponManager, heldWeaponCache, statsManager, cooldownService, buffManager,
+                        dotManager),
+                this);
         getLogger().info("- WeaponListener registered");
 
         // SkillListener (legacy) 已由 SkillTriggerListener 接管
@@ -149,7 +295,7 @@ public class CustomRPG extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new MobListener(this, mobManager, statsManager), this);
         getLogger().info("- MobListener registered");
 
-        getServer().getPluginManager().registerEvents(new SkillTriggerListener(newSkillManager), this);
+        getServer().getPluginManager().registerEvents(new SkillTriggerListener(newSkillManager, heldWeaponCache), this);
         getLogger().info("- SkillTriggerListener registered");
 
         getServer().getPluginManager().registerEvents(new StatsListener(this, statsManager), this);
@@ -157,6 +303,9 @@ public class CustomRPG extends JavaPlugin {
 
         getServer().getPluginManager().registerEvents(statsGUI, this);
         getLogger().info("- StatsGUI registered");
+
+        getServer().getPluginManager().registerEvents(leaderboardGUI, this);
+        getLogger().info("- LeaderboardGUI registered");
     }
 
     /**
@@ -175,7 +324,7 @@ public class CustomRPG extends JavaPlugin {
 
         org.bukkit.command.PluginCommand rpgCommand = getCommand("rpg");
         if (rpgCommand != null) {
-            StatsCommand statsCommand = new StatsCommand(this, statsManager, statsGUI);
+            StatsCommand statsCommand = new StatsCommand(this, statsManager, statsGUI, leaderboardGUI);
             rpgCommand.setExecutor(statsCommand);
             rpgCommand.setTabCompleter(statsCommand);
             getLogger().info("- /rpg command registered");
@@ -217,4 +366,20 @@ public class CustomRPG extends JavaPlugin {
     public MobManager getMobManager() {
         return mobManager;
     }
+
+    /**
+     * Get the PlayerStatsManager instance
+     * @return PlayerStatsManager instance
+     */
+    public PlayerStatsManager getStatsManager() {
+        return statsManager;
+    }
+
+    /**
+     * Get the shared CooldownService instance
+     * @return CooldownService instance
+     */
+    public CooldownService getCooldownService() {
+        return cooldownService;
+    }
 }
@@ -1,11 +1,17 @@
 package com.customrpg.commands;
 
 import com.customrpg.CustomRPG;
+import com.customrpg.gui.LeaderboardGUI;
 import com.customrpg.gui.StatsGUI;
+import com.customrpg.managers.CooldownService;
+import com.customrpg.managers.PlayerStatsBulkJob;
 import com.customrpg.managers.PlayerStatsManager;
+import com.customrpg.players.Leaderboard;
 import com.customrpg.players.PlayerStats;
+import com.customrpg.players.StatsTransform;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -24,6 +30,10 @@ import java.util.UUID;
  * - /rpg stats [玩家] - 查看玩家數據
  * - /rpg setstat <玩家> <屬性> <數值> - 設定玩家數據
  * - /rpg reload - 重新載入玩家數據
+ * - /rpg cache - 查看玩家數據快取統計
+ * - /rpg cd [玩家] - 查看冷卻中的技能 / 被動
+ * - /rpg top [類別] [數量] - 查看排行榜（/rpg top gui [類別] 開啟介面）
+ * - /rpg bulk <reset|respec|set> [--dry-run] - 對所有玩家（含離線）的批次工作
  *
  * 屬性：strength, magic, agility, vitality, defense
  */
@@ -32,11 +42,13 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
     private final CustomRPG plugin;
     private final PlayerStatsManager statsManager;
     private final StatsGUI statsGUI;
+    private final LeaderboardGUI leaderboardGUI;
 
-    public StatsCommand(CustomRPG plugin, PlayerStatsManager statsManager, StatsGUI statsGUI) {
+    public StatsCommand(CustomRPG plugin, PlayerStatsManager statsManager, StatsGUI statsGUI, LeaderboardGUI leaderboardGUI) {
         this.plugin = plugin;
         this.statsManager = statsManager;
         this.statsGUI = statsGUI;
+        this.leaderboardGUI = leaderboardGUI;
     }
 
     @Override
@@ -67,6 +79,18 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
             case "setlevel" -> {
                 return handleSetLevel(sender, args);
             }
+            case "cache" -> {
+                return handleCache(sender);
+            }
+            case "cd", "cooldowns" -> {
+                return handleCooldowns(sender, args);
+            }
+            case "top" -> {
+                return handleTop(sender, args);
+            }
+            case "bulk" -> {
+                return handleBulk(sender, args);
+            }
             default -> {
                 sendHelp(sender);
                 return true;
@@ -98,7 +122,21 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
         if (args.length >= 2) {
             target = Bukkit.getPlayer(args[1]);
             if (target == null) {
-                sender.sendMessage(ChatColor.RED + "找不到玩家: " + args[1]);
+                // 離線玩家：背景讀取，不阻塞主執行緒
+                OfflinePlayer offline = Bukkit.getOfflinePlayerIfCached(args[1]);
+                if (offline == null) {
+                    sender.sendMessage(ChatColor.RED + "找不到玩家: " + args[1]);
+                    return true;
+                }
+                String name = offline.getName() != null ? offline.getName() : args[1];
+                statsManager.getStatsAsync(offline.getUniqueId()).whenComplete((stats, error) ->
+                        Bukkit.getScheduler().runTask(plugin, () -> {
+                            if (error != null) {
+                                sender.sendMessage(ChatColor.RED + "無法讀取玩家數據: " + name);
+                            } else {
+                                sendStats(sender, name + " (離線)", stats);
+                            }
+                        }));
                 return true;
             }
         } else {
@@ -109,21 +147,22 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
             target = (Player) sender;
         }
 
-        PlayerStats stats = statsManager.getStats(target);
+        sendStats(sender, target.getName(), statsManager.getStats(target).snapshot());
+        return true;
+    }
 
-        sender.sendMessage(ChatColor.GOLD + "========== " + target.getName() + " 的數據 ==========");
-        sender.sendMessage(ChatColor.YELLOW + "等級 Level: " + ChatColor.WHITE + stats.getLevel());
-        sender.sendMessage(ChatColor.YELLOW + "經驗 Exp: " + ChatColor.WHITE + stats.getExp() + " / " + statsManager.getRequiredExp(stats.getLevel()));
-        sender.sendMessage(ChatColor.YELLOW + "屬性點數 Points: " + ChatColor.WHITE + stats.getStatPoints());
+    private void sendStats(CommandSender sender, String name, PlayerStats.Snapshot stats) {
+        sender.sendMessage(ChatColor.GOLD + "========== " + name + " 的數據 ==========");
+        sender.sendMessage(ChatColor.YELLOW + "等級 Level: " + ChatColor.WHITE + stats.level());
+        sender.sendMessage(ChatColor.YELLOW + "經驗 Exp: " + ChatColor.WHITE + statsManager.formatExp(stats));
+        sender.sendMessage(ChatColor.YELLOW + "屬性點數 Points: " + ChatColor.WHITE + stats.statPoints());
         sender.sendMessage(ChatColor.GRAY + "-------------------------------------");
-        sender.sendMessage(ChatColor.YELLOW + "物理攻擊 (Strength): " + ChatColor.WHITE + stats.getStrength());
-        sender.sendMessage(ChatColor.AQUA + "魔法攻擊 (Magic): " + ChatColor.WHITE + stats.getMagic());
-        sender.sendMessage(ChatColor.GREEN + "敏捷 (Agility): " + ChatColor.WHITE + stats.getAgility());
-        sender.sendMessage(ChatColor.RED + "生命力 (Vitality): " + ChatColor.WHITE + stats.getVitality());
-        sender.sendMessage(ChatColor.GRAY + "防禦 (Defense): " + ChatColor.WHITE + stats.getDefense());
+        sender.sendMessage(ChatColor.YELLOW + "物理攻擊 (Strength): " + ChatColor.WHITE + stats.strength());
+        sender.sendMessage(ChatColor.AQUA + "魔法攻擊 (Magic): " + ChatColor.WHITE + stats.magic());
+        sender.sendMessage(ChatColor.GREEN + "敏捷 (Agility): " + ChatColor.WHITE + stats.agility());
+        sender.sendMessage(ChatColor.RED + "生命力 (Vitality): " + ChatColor.WHITE + stats.vitality());
+        sender.sendMessage(ChatColor.GRAY + "防禦 (Defense): " + ChatColor.WHITE + stats.defense());
         sender.sendMessage(ChatColor.GOLD + "=====================================");
-
-        return true;
     }
 
     /**
@@ -160,7 +199,10 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        statsManager.addExp(target, value);
+        if (!statsManager.addExp(target, value)) {
+            sender.sendMessage(ChatColor.RED + target.getName() + " 已達等級上限，無法再獲得經驗值");
+            return true;
+        }
         sender.sendMessage(ChatColor.GREEN + "✓ 已給予 " + target.getName() + " " + value + " 經驗值");
 
         return true;
@@ -201,8 +243,7 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
         }
 
         PlayerStats stats = statsManager.getStats(target);
-        stats.setLevel(level);
-        stats.setExp(0); // Reset exp when manually setting level
+        stats.update(s -> s.withLevel(level).withExp(0)); // Reset exp when manually setting level
 
         // Update max health
         statsManager.updateMaxHealth(target);
@@ -306,6 +347,228 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    /**
+     * 查看玩家數據快取統計
+     * 用法: /rpg cache
+     */
+    private boolean handleCache(CommandSender sender) {
+        if (!sender.hasPermission("customrpg.admin")) {
+            sender.sendMessage(ChatColor.RED + "你沒有權限使用此指令！");
+            return true;
+        }
+
+        PlayerStatsManager.CacheStats cache = statsManager.getCacheStats();
+        long lookups = cache.hits() + cache.misses();
+        double hitRate = lookups == 0 ? 0.0 : cache.hits() * 100.0 / lookups;
+
+        sender.sendMessage(ChatColor.GOLD + "========== 玩家數據快取 ==========");
+        sender.sendMessage(ChatColor.YELLOW + "快取筆數: " + ChatColor.WHITE + cache.size()
+                + ChatColor.GRAY + " (線上 " + cache.pinned() + " / 離線 " + (cache.size() - cache.pinned()) + ")");
+        sender.sendMessage(ChatColor.YELLOW + "命中: " + ChatColor.WHITE + cache.hits()
+                + ChatColor.GRAY + " / 未命中: " + ChatColor.WHITE + cache.misses()
+                + ChatColor.GRAY + String.format(" (%.1f%%)", hitRate));
+        sender.sendMessage(ChatColor.YELLOW + "淘汰: " + ChatColor.WHITE + cache.evictions());
+        sender.sendMessage(ChatColor.GOLD + "=================================");
+        return true;
+    }
+
+    /**
+     * 查看冷卻中的技能 / 被動
+     * 用法: /rpg cd [玩家]
+     */
+    private boolean handleCooldowns(CommandSender sender, String[] args) {
+        Player target;
+        if (args.length >= 2) {
+            if (!sender.hasPermission("customrpg.admin")) {
+                sender.sendMessage(ChatColor.RED + "你沒有權限使用此指令！");
+                return true;
+            }
+            target = Bukkit.getPlayer(args[1]);
+            if (target == null) {
+                sender.sendMessage(ChatColor.RED + "找不到玩家: " + args[1]);
+                return true;
+            }
+        } else {
+            if (!(sender instanceof Player)) {
+                sender.sendMessage(ChatColor.RED + "控制台必須指定玩家名稱！");
+                return true;
+            }
+            target = (Player) sender;
+        }
+
+        List<CooldownService.ActiveCooldown> active = plugin.getCooldownService().getActiveCooldowns(target.getUniqueId());
+        sender.sendMessage(ChatColor.GOLD + "========== " + target.getName() + " 的冷卻 ==========");
+        if (active.isEmpty()) {
+            sender.sendMessage(ChatColor.GRAY + "沒有冷卻中的項目");
+        }
+        for (CooldownService.ActiveCooldown cooldown : active) {
+            sender.sendMessage(ChatColor.YELLOW + "[" + cooldown.category().getDisplayName() + "] "
+                    + ChatColor.WHITE + cooldown.name()
+                    + ChatColor.GRAY + String.format(" %.1f 秒", cooldown.remainingTicks() / 20.0));
+        }
+        return true;
+    }
+
+    /**
+     * 查看排行榜
+     * 用法: /rpg top [類別] [數量] | /rpg top gui [類別] | /rpg top rebuild
+     */
+    private boolean handleTop(CommandSender sender, String[] args) {
+        if (args.length >= 2 && args[1].equalsIgnoreCase("rebuild")) {
+            if (!sender.hasPermission("customrpg.admin")) {
+                sender.sendMessage(ChatColor.RED + "你沒有權限使用此指令！");
+                return true;
+            }
+            boolean started = statsManager.rebuildLeaderboard(count ->
+                    sender.sendMessage(ChatColor.GREEN + "✓ 排行榜重建完成，共 " + count + " 位玩家"));
+            sender.sendMessage(started ? ChatColor.YELLOW + "排行榜重建中..." : ChatColor.YELLOW + "排行榜已在重建中，請稍候");
+            return true;
+        }
+
+        boolean openGui = args.length >= 2 && args[1].equalsIgnoreCase("gui");
+        int categoryArg = openGui ? 2 : 1;
+
+        Leaderboard.Category category = Leaderboard.Category.LEVEL;
+        if (args.length > categoryArg) {
+            category = Leaderboard.Category.fromName(args[categoryArg]);
+            if (category == null) {
+                sender.sendMessage(ChatColor.RED + "未知的排行類別: " + args[categoryArg]);
+                sender.sendMessage(ChatColor.GRAY + "類別: level, strength, magic, agility, vitality, defense");
+                return true;
+            }
+        }
+
+        if (openGui) {
+            if (!(sender instanceof Player player)) {
+                sender.sendMessage(ChatColor.RED + "只有玩家可以使用 GUI！");
+                return true;
+            }
+            leaderboardGUI.openLeaderboardGUI(player, category);
+            return true;
+        }
+
+        int count = 10;
+        if (args.length >= 3) {
+            try {
+                count = Math.max(1, Math.min(100, Integer.parseInt(args[2])));
+            } catch (NumberFormatException e) {
+                sender.sendMessage(ChatColor.RED + "無效的數量: " + args[2]);
+                return true;
+            }
+        }
+
+        Leaderboard leaderboard = statsManager.getLeaderboard();
+        sender.sendMessage(ChatColor.GOLD + "========== " + category.getDisplayName() + "排行榜 ==========");
+        int rank = 1;
+        for (Leaderboard.Entry entry : leaderboard.getTop(category, 1, count)) {
+            OfflinePlayer player = Bukkit.getOfflinePlayer(entry.uuid());
+            String name = player.getName() != null ? player.getName() : entry.uuid().toString().substring(0, 8);
+            String value = category == Leaderboard.Category.LEVEL
+                    ? "Lv." + entry.level() + ChatColor.GRAY + " (" + entry.exp() + " exp)"
+                    : String.valueOf(entry.score(category));
+            sender.sendMessage(ChatColor.YELLOW + "#" + rank + " " + ChatColor.WHITE + name + ChatColor.GRAY + " - " + ChatColor.AQUA + value);
+            rank++;
+        }
+        if (rank == 1) {
+            sender.sendMessage(ChatColor.GRAY + "目前沒有資料");
+        }
+
+        if (sender instanceof Player player) {
+            int ownRank = leaderboard.getRank(player.getUniqueId(), category);
+            sender.sendMessage(ChatColor.GRAY + "-------------------------------------");
+            sender.sendMessage(ChatColor.YELLOW + "你的名次: " + ChatColor.WHITE
+                    + (ownRank > 0 ? "#" + ownRank + " / " + leaderboard.size() : "尚未上榜"));
+        }
+        sender.sendMessage(ChatColor.GOLD + "=====================================");
+        return true;
+    }
+
+    /**
+     * 對所有玩家（含離線）的批次工作
+     * 用法: /rpg bulk <reset|respec|set <屬性> <數值>> [--dry-run] | /rpg bulk <status|cancel|resume>
+     */
+    private boolean handleBulk(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("customrpg.admin")) {
+            sender.sendMessage(ChatColor.RED + "你沒有權限使用此指令！");
+            return true;
+        }
+        if (args.length < 2) {
+            sendBulkUsage(sender);
+            return true;
+        }
+
+        PlayerStatsBulkJob job = statsManager.getBulkJob();
+        switch (args[1].toLowerCase()) {
+            case "status" -> {
+                if (job == null) {
+                    sender.sendMessage(ChatColor.GRAY + "目前沒有批次工作");
+                } else {
+                    for (String line : job.describe()) {
+                        sender.sendMessage(ChatColor.YELLOW + line);
+                    }
+                }
+                return true;
+            }
+            case "cancel" -> {
+                if (job == null || !job.isActive()) {
+                    sender.sendMessage(ChatColor.GRAY + "目前沒有執行中的批次工作");
+                } else {
+                    job.cancel();
+                    sender.sendMessage(ChatColor.YELLOW + "批次工作停止中，已讀取的部分寫完後結束（可用 /rpg bulk resume 接續）");
+                }
+                return true;
+            }
+            case "resume" -> {
+                PlayerStatsBulkJob.Checkpoint checkpoint = statsManager.getBulkCheckpoint();
+                if (checkpoint == null) {
+                    sender.sendMessage(ChatColor.RED + "沒有可以接續的批次工作");
+                    return true;
+                }
+                StatsTransform transform = StatsTransform.parse(checkpoint.operation().split(" "), statsManager.getExperienceCurve());
+                if (transform == null) {
+                    sender.sendMessage(ChatColor.RED + "無法解析 checkpoint 中的工作: " + checkpoint.operation());
+                    return true;
+                }
+                startBulk(sender, transform, false, checkpoint);
+                return true;
+            }
+            default -> {
+                // 操作參數，最後可加 --dry-run
+                boolean dryRun = args[args.length - 1].equalsIgnoreCase("--dry-run");
+                String[] operation = Arrays.copyOfRange(args, 1, dryRun ? args.length - 1 : args.length);
+                StatsTransform transform = StatsTransform.parse(operation, statsManager.getExperienceCurve());
+                if (transform == null) {
+                    sendBulkUsage(sender);
+                    return true;
+                }
+                startBulk(sender, transform, dryRun, null);
+                return true;
+            }
+        }
+    }
+
+    private void startBulk(CommandSender sender, StatsTransform transform, boolean dryRun, PlayerStatsBulkJob.Checkpoint checkpoint) {
+        // 發起者離線後就只記在 log
+        PlayerStatsBulkJob job = statsManager.startBulkJob(transform, dryRun, checkpoint, message -> {
+            if (!(sender instanceof Player player) || player.isOnline()) {
+                sender.sendMessage(ChatColor.YELLOW + message);
+            }
+        });
+        if (job == null) {
+            sender.sendMessage(ChatColor.RED + "已有批次工作執行中（/rpg bulk status）");
+            return;
+        }
+        sender.sendMessage(ChatColor.GREEN + "✓ 批次工作開始: " + transform.getSpec() + (dryRun ? " (dry-run，不會寫入)" : "")
+                + (checkpoint != null ? ChatColor.GRAY + "（接續，之前已處理 " + checkpoint.processed() + " 位）" : ""));
+    }
+
+    private void sendBulkUsage(CommandSender sender) {
+        sender.sendMessage(ChatColor.YELLOW + "/rpg bulk reset [--dry-run]" + ChatColor.GRAY + " - 所有玩家數據回到預設值");
+        sender.sendMessage(ChatColor.YELLOW + "/rpg bulk respec [--dry-run]" + ChatColor.GRAY + " - 依目前的升級設定重算屬性並退回點數");
+        sender.sendMessage(ChatColor.YELLOW + "/rpg bulk set <屬性> <數值> [--dry-run]" + ChatColor.GRAY + " - 設定所有玩家的某項數據");
+        sender.sendMessage(ChatColor.YELLOW + "/rpg bulk <status|cancel|resume>" + ChatColor.GRAY + " - 查看 / 停止 / 接續批次工作");
+    }
+
     private void sendHelp(CommandSender sender) {
         sender.sendMessage(ChatColor.GOLD + "========== CustomRPG 指令 ==========");
         sender.sendMessage(ChatColor.YELLOW + "/rpg gui" + ChatColor.GRAY + " - 開啟屬性介面");
@@ -314,6 +577,11 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.YELLOW + "/rpg addexp <玩家> <數值>" + ChatColor.GRAY + " - 給予玩家經驗");
         sender.sendMessage(ChatColor.YELLOW + "/rpg setlevel <玩家> <等級>" + ChatColor.GRAY + " - 設定玩家等級");
         sender.sendMessage(ChatColor.YELLOW + "/rpg reload [玩家]" + ChatColor.GRAY + " - 重新載入玩家數據");
+        sender.sendMessage(ChatColor.YELLOW + "/rpg cache" + ChatColor.GRAY + " - 查看玩家數據快取統計");
+        sender.sendMessage(ChatColor.YELLOW + "/rpg cd [玩家]" + ChatColor.GRAY + " - 查看冷卻中的技能 / 被動");
+        sender.sendMessage(ChatColor.YELLOW + "/rpg top [類別] [數量]" + ChatColor.GRAY + " - 查看排行榜");
+        sender.sendMessage(ChatColor.YELLOW + "/rpg top gui [類別]" + ChatColor.GRAY + " - 開啟排行榜介面");
+        sender.sendMessage(ChatColor.YELLOW + "/rpg bulk" + ChatColor.GRAY + " - 對所有玩家（含離線）的批次工作");
         sender.sendMessage(ChatColor.GRAY + "屬性: strength, magic, agility, vitality, defense, level, exp, points");
         sender.sendMessage(ChatColor.GOLD + "====================================");
     }
@@ -323,7 +591,22 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
         List<String> completions = new ArrayList<>();
 
         if (args.length == 1) {
-            completions.addAll(Arrays.asList("gui", "stats", "setstat", "reload", "addexp", "setlevel"));
+            completions.addAll(Arrays.asList("gui", "stats", "setstat", "reload", "addexp", "setlevel", "cache", "cd", "top", "bulk"));
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("top")) {
+            // 排行類別補全
+            completions.addAll(Arrays.asList("gui", "rebuild", "level", "strength", "magic", "agility", "vitality", "defense"));
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("top") && args[1].equalsIgnoreCase("gui")) {
+            completions.addAll(Arrays.asList("level", "strength", "magic", "agility", "vitality", "defense"));
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("bulk")) {
+            completions.addAll(Arrays.asList("reset", "respec", "set", "status", "cancel", "resume"));
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("bulk")) {
+            if (args[1].equalsIgnoreCase("set")) {
+                completions.addAll(Arrays.asList("strength", "magic", "agility", "vitality", "defense", "level", "exp", "points"));
+            } else if (args[1].equalsIgnoreCase("reset") || args[1].equalsIgnoreCase("respec")) {
+                completions.add("--dry-run");
+            }
+        } else if (args.length == 5 && args[0].equalsIgnoreCase("bulk") && args[1].equalsIgnoreCase("set")) {
+            completions.add("--dry-run");
         } else if (args.length == 2) {
             // 玩家名稱補全
             for (Player player : Bukkit.getOnlinePlayers()) {
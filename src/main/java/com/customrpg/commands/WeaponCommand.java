@@ -12,6 +12,8 @@ import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
 
 /**
  * WeaponCommand - Command handler for giving custom weapons
@@ -28,6 +30,7 @@ public class WeaponCommand implements CommandExecutor, TabCompleter {
 
     private final CustomRPG plugin;
     private final WeaponManager weaponManager;
+    private final AtomicBoolean reloading = new AtomicBoolean(false);
 
     /**
      * Constructor for WeaponCommand
@@ -111,10 +114,37 @@ public class WeaponCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        plugin.getConfigManager().reloadAllConfigs();
-        plugin.getWeaponManager().reloadWeapons();
+        if (!reloading.compareAndSet(false, true)) {
+            sender.sendMessage(ChatColor.YELLOW + "A reload is already in progress, please wait.");
+            return;
+        }
+
+        sender.sendMessage(ChatColor.YELLOW + "Reloading configs...");
+
+        // Parse and compile off the main thread; each manager swaps in its new registry atomically,
+        // so weapons in use keep working until the new data is ready.
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            boolean success = false;
+            try {
+                plugin.getConfigManager().reloadAllConfigs();
+                plugin.getWeaponManager().reloadWeapons();
+                plugin.getStatsManager().reloadExperienceCurve();
+                success = true;
+            } catch (Exception ex) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to reload configs; keeping previous configuration", ex);
+            } finally {
+                reloading.set(false);
+            }
 
-        sender.sendMessage(ChatColor.GREEN + "Configs reloaded! Weapons refreshed.");
+            boolean reloaded = success;
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (reloaded) {
+                    sender.sendMessage(ChatColor.GREEN + "Configs reloaded! Weapons refreshed.");
+                } else {
+                    sender.sendMessage(ChatColor.RED + "Reload failed, previous configuration kept. See console for details.");
+                }
+            });
+        });
     }
 
     /**
@@ -0,0 +1,184 @@
+package com.customrpg.gui;
+
+import com.customrpg.managers.PlayerStatsManager;
+import com.customrpg.players.Leaderboard;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.SkullMeta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LeaderboardGUI - 排行榜介面
+ *
+ * 6x9 箱子介面：
+ * Row 1-5: 前 45 名（玩家頭顱）
+ * Row 6: 類別切換按鈕（等級、五項屬性）+ 自己的名次
+ */
+public class LeaderboardGUI implements Listener {
+
+    private final PlayerStatsManager statsManager;
+    private static final String GUI_TITLE_PREFIX = ChatColor.DARK_PURPLE + "排行榜 - ";
+
+    private static final int TOP_SIZE = 45;
+    private static final int CATEGORY_SLOT_START = 45;
+    private static final int OWN_RANK_SLOT = 53;
+
+    // 與 StatsGUI 的屬性圖示一致
+    private static final Material[] CATEGORY_ICONS = {
+            Material.NETHER_STAR,          // LEVEL
+            Material.IRON_SWORD,           // STRENGTH
+            Material.EXPERIENCE_BOTTLE,    // MAGIC
+            Material.BOW,                  // AGILITY
+            Material.POPPY,                // VITALITY
+            Material.DIAMOND_CHESTPLATE    // DEFENSE
+    };
+
+    public LeaderboardGUI(PlayerStatsManager statsManager) {
+        this.statsManager = statsManager;
+    }
+
+    /**
+     * 開啟排行榜 GUI
+     */
+    public void openLeaderboardGUI(Player player, Leaderboard.Category category) {
+        Inventory gui = Bukkit.createInventory(null, 54, GUI_TITLE_PREFIX + category.getDisplayName());
+        Leaderboard leaderboard = statsManager.getLeaderboard();
+
+        // Row 1-5: 前 45 名
+        int rank = 1;
+        for (Leaderboard.Entry entry : leaderboard.getTop(category, 1, TOP_SIZE)) {
+            gui.setItem(rank - 1, createRankItem(rank, entry, category));
+            rank++;
+        }
+
+        // Row 6: 類別按鈕
+        Leaderboard.Category[] categories = Leaderboard.Category.values();
+        for (int i = 0; i < categories.length; i++) {
+            gui.setItem(CATEGORY_SLOT_START + i, createCategoryButton(categories[i], categories[i] == category));
+        }
+
+        // 自己的名次
+        gui.setItem(OWN_RANK_SLOT, createOwnRankItem(player, leaderboard, category));
+
+        player.openInventory(gui);
+    }
+
+    /**
+     * 創建排名物品（玩家頭顱）
+     */
+    private ItemStack createRankItem(int rank, Leaderboard.Entry entry, Leaderboard.Category category) {
+        ItemStack item = new ItemStack(Material.PLAYER_HEAD);
+        ItemMeta meta = item.getItemMeta();
+
+        if (meta != null) {
+            OfflinePlayer owner = Bukkit.getOfflinePlayer(entry.uuid());
+            if (meta instanceof SkullMeta skullMeta) {
+                skullMeta.setOwningPlayer(owner);
+            }
+
+            ChatColor rankColor = switch (rank) {
+                case 1 -> ChatColor.GOLD;
+                case 2 -> ChatColor.WHITE;
+                case 3 -> ChatColor.RED;
+                default -> ChatColor.YELLOW;
+            };
+            String name = owner.getName() != null ? owner.getName() : entry.uuid().toString().substring(0, 8);
+            meta.setDisplayName(rankColor + "#" + rank + " " + ChatColor.WHITE + name);
+
+            List<String> lore = new ArrayList<>();
+            lore.add(ChatColor.GOLD + "等級: " + ChatColor.WHITE + entry.level());
+            if (category == Leaderboard.Category.LEVEL) {
+                lore.add(ChatColor.AQUA + "經驗: " + ChatColor.WHITE + entry.exp());
+            } else {
+                lore.add(ChatColor.YELLOW + category.getDisplayName() + ": " + ChatColor.WHITE + entry.score(category));
+            }
+
+            meta.setLore(lore);
+            item.setItemMeta(meta);
+        }
+
+        return item;
+    }
+
+    /**
+     * 創建類別按鈕
+     */
+    private ItemStack createCategoryButton(Leaderboard.Category category, boolean selected) {
+        ItemStack item = new ItemStack(CATEGORY_ICONS[category.ordinal()]);
+        ItemMeta meta = item.getItemMeta();
+
+        if (meta != null) {
+            meta.setDisplayName((selected ? ChatColor.GREEN + "▶ " : ChatColor.GOLD.toString()) + category.getDisplayName() + "排行");
+
+            List<String> lore = new ArrayList<>();
+            lore.add(ChatColor.GRAY + (selected ? "目前顯示中" : "點擊切換"));
+
+            meta.setLore(lore);
+            item.setItemMeta(meta);
+        }
+
+        return item;
+    }
+
+    /**
+     * 創建自己的名次物品
+     */
+    private ItemStack createOwnRankItem(Player player, Leaderboard leaderboard, Leaderboard.Category category) {
+        ItemStack item = new ItemStack(Material.BOOK);
+        ItemMeta meta = item.getItemMeta();
+
+        if (meta != null) {
+            meta.setDisplayName(ChatColor.LIGHT_PURPLE + "▣ 我的名次 ▣");
+
+            int rank = leaderboard.getRank(player.getUniqueId(), category);
+            List<String> lore = new ArrayList<>();
+            lore.add("");
+            if (rank > 0) {
+                lore.add(ChatColor.YELLOW + category.getDisplayName() + "排行: " + ChatColor.WHITE + "#" + rank
+                        + ChatColor.GRAY + " / " + leaderboard.size());
+            } else {
+                lore.add(ChatColor.GRAY + "尚未上榜");
+            }
+
+            meta.setLore(lore);
+            item.setItemMeta(meta);
+        }
+
+        return item;
+    }
+
+    /**
+     * 處理 GUI 點擊事件
+     */
+    @EventHandler
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (!(event.getWhoClicked() instanceof Player player)) {
+            return;
+        }
+
+        // 檢查是否為排行榜 GUI
+        if (!event.getView().getTitle().startsWith(GUI_TITLE_PREFIX)) {
+            return;
+        }
+
+        event.setCancelled(true); // 防止拿取物品
+
+        int slot = event.getRawSlot();
+        Leaderboard.Category[] categories = Leaderboard.Category.values();
+        int index = slot - CATEGORY_SLOT_START;
+        if (index >= 0 && index < categories.length) {
+            openLeaderboardGUI(player, categories[index]);
+        }
+    }
+}
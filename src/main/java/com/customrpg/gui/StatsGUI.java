@@ -63,7 +63,7 @@ public class StatsGUI implements Listener {
                 "每點減免 0.5% 傷害"));
 
         // Center slot: Stat Points Display
-        gui.setItem(8, createStatPointsDisplay(stats.getStatPoints(), stats.getLevel(), stats.getExp(), statsManager.getRequiredExp(stats.getLevel())));
+        gui.setItem(8, createStatPointsDisplay(stats.snapshot()));
 
         // Row 2: 灰色玻璃板
         ItemStack glassPane = createGlassPane();
@@ -120,7 +120,7 @@ public class StatsGUI implements Listener {
     /**
      * 創建屬性點數顯示物品
      */
-    private ItemStack createStatPointsDisplay(int statPoints, int level, long exp, long requiredExp) {
+    private ItemStack createStatPointsDisplay(PlayerStats.Snapshot stats) {
         ItemStack item = new ItemStack(Material.NETHER_STAR);
         ItemMeta meta = item.getItemMeta();
 
@@ -129,10 +129,10 @@ public class StatsGUI implements Listener {
 
             List<String> lore = new ArrayList<>();
             lore.add("");
-            lore.add(ChatColor.GOLD + "等級: " + ChatColor.WHITE + level);
-            lore.add(ChatColor.AQUA + "經驗: " + ChatColor.WHITE + exp + " / " + requiredExp);
+            lore.add(ChatColor.GOLD + "等級: " + ChatColor.WHITE + stats.level());
+            lore.add(ChatColor.AQUA + "經驗: " + ChatColor.WHITE + statsManager.formatExp(stats));
             lore.add("");
-            lore.add(ChatColor.GREEN + "可用屬性點數: " + ChatColor.YELLOW + statPoints);
+            lore.add(ChatColor.GREEN + "可用屬性點數: " + ChatColor.YELLOW + stats.statPoints());
             lore.add("");
             lore.add(ChatColor.GRAY + "點擊下方按鈕來分配屬性點數");
 
@@ -227,50 +227,49 @@ public class StatsGUI implements Listener {
             return;
         }
 
-        // 檢查玩家是否有足夠的屬性點數
         PlayerStats stats = statsManager.getStats(player);
-
-        if (stats.getStatPoints() < amount) {
-            player.sendMessage(ChatColor.RED + "❌ 屬性點數不足！需要 " + amount + " 點，你只有 " + stats.getStatPoints() + " 點");
+        int stat = statIndex;
+        boolean[] enough = new boolean[1];
+
+        // 檢查點數、加屬性、扣點數在同一次 CAS 完成
+        PlayerStats.Snapshot after = stats.update(s -> {
+            enough[0] = s.statPoints() >= amount;
+            if (!enough[0]) {
+                return s;
+            }
+            PlayerStats.Snapshot spent = s.withStatPoints(s.statPoints() - amount);
+            return switch (stat) {
+                case 0 -> spent.withStrength(s.strength() + amount);
+                case 1 -> spent.withMagic(s.magic() + amount);
+                case 2 -> spent.withAgility(s.agility() + amount);
+                case 3 -> spent.withVitality(s.vitality() + amount);
+                default -> spent.withDefense(s.defense() + amount);
+            };
+        });
+
+        if (!enough[0]) {
+            player.sendMessage(ChatColor.RED + "❌ 屬性點數不足！需要 " + amount + " 點，你只有 " + after.statPoints() + " 點");
             player.playSound(player.getLocation(), org.bukkit.Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
             return;
         }
 
-        String statName = "";
-
-        switch (statIndex) {
-            case 0 -> {
-                stats.setStrength(stats.getStrength() + amount);
-                statName = "Strength";
-            }
-            case 1 -> {
-                stats.setMagic(stats.getMagic() + amount);
-                statName = "Magic";
-            }
-            case 2 -> {
-                stats.setAgility(stats.getAgility() + amount);
-                statName = "Agility";
-            }
-            case 3 -> {
-                stats.setVitality(stats.getVitality() + amount);
-                statName = "Vitality";
-                // 更新最大血量
-                statsManager.updateMaxHealth(player);
-            }
-            case 4 -> {
-                stats.setDefense(stats.getDefense() + amount);
-                statName = "Defense";
-            }
+        String statName = switch (statIndex) {
+            case 0 -> "Strength";
+            case 1 -> "Magic";
+            case 2 -> "Agility";
+            case 3 -> "Vitality";
+            default -> "Defense";
+        };
+        if (statIndex == 3) {
+            // 更新最大血量
+            statsManager.updateMaxHealth(player);
         }
 
-        // 扣除屬性點數
-        stats.setStatPoints(stats.getStatPoints() - amount);
-
         // 儲存數據
         statsManager.saveStats(player);
 
         // 發送訊息
-        player.sendMessage(ChatColor.GREEN + "✓ " + statName + " +" + amount + "！ (剩餘點數: " + stats.getStatPoints() + ")");
+        player.sendMessage(ChatColor.GREEN + "✓ " + statName + " +" + amount + "！ (剩餘點數: " + after.statPoints() + ")");
         player.playSound(player.getLocation(), org.bukkit.Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 1.0f, 1.0f);
 
         // 刷新 GUI
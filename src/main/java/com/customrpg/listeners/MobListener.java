@@ -3,19 +3,29 @@ package com.customrpg.listeners;
 import com.customrpg.CustomRPG;
 import com.customrpg.managers.MobManager;
 import com.customrpg.managers.PlayerStatsManager;
-import org.bukkit.ChatColor;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.GameMode;
 import org.bukkit.Location;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.*;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.entity.ProjectileLaunchEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.projectiles.ProjectileSource;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.UUID;
 
 /**
  * MobListener - Handles custom mob behavior events
@@ -27,6 +37,10 @@ import java.util.Random;
  * - Snow Zombie: Throws snowballs periodically
  * - Fire Skeleton: Shoots fire arrows
  * - Giant Slime: Splits into smaller slimes on death
+ *
+ * 擊殺經驗不會每隻怪立刻發放：同一 tick 內的擊殺先按玩家累加，下一個 tick 一次發放
+ * （一次 addExp / 升級判定 / action bar 訊息）。開啟 leveling.exp-share 時，
+ * 在同一次發放中把經驗平分給擊殺者附近的玩家。
  */
 public class MobListener implements Listener {
 
@@ -35,6 +49,10 @@ public class MobListener implements Listener {
     private final PlayerStatsManager statsManager;
     private final Random random;
 
+    // 本 tick 累積的擊殺經驗 (killer uuid -> exp)
+    private final Map<UUID, Long> pendingExp = new LinkedHashMap<>();
+    private boolean expFlushScheduled;
+
     /**
      * Constructor for MobListener
      * @param plugin Main plugin instance
@@ -122,14 +140,99 @@ public class MobListener implements Listener {
 
             // 給予自製怪物的經驗值
             if (mobData.getExp() > 0) {
-                statsManager.addExp(killer, mobData.getExp());
-                killer.sendMessage(ChatColor.YELLOW + "獲得 " + mobData.getExp() + " 經驗值");
+                queueExp(killer, mobData.getExp());
             }
         } else {
             // 如果是普通怪物，給予 2 點經驗值
-            statsManager.addExp(killer, 2);
-            killer.sendMessage(ChatColor.YELLOW + "獲得 2 經驗值");
+            queueExp(killer, 2);
+        }
+    }
+
+    /**
+     * 累加擊殺經驗，本 tick 結束後統一發放
+     */
+    private void queueExp(Player killer, long amount) {
+        pendingExp.merge(killer.getUniqueId(), amount, Long::sum);
+        if (!expFlushScheduled) {
+            expFlushScheduled = true;
+            plugin.getServer().getScheduler().runTask(plugin, this::flushExp);
+        }
+    }
+
+    /**
+     * 擊殺者在發放前離線：先發放，否則下一個 tick 已找不到玩家
+     * LOWEST：在 StatsListener 儲存並卸載數據之前
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        if (pendingExp.containsKey(event.getPlayer().getUniqueId())) {
+            flushExp();
+        }
+    }
+
+    /**
+     * 發放累積的經驗：每位玩家只呼叫一次 addExp 並顯示一次 action bar
+     */
+    private void flushExp() {
+        expFlushScheduled = false;
+        if (pendingExp.isEmpty()) {
+            return;
+        }
+
+        FileConfiguration mainConfig = plugin.getConfigManager().getConfig("config/config.yml");
+        boolean share = mainConfig != null && mainConfig.getBoolean("leveling.exp-share.enabled", false);
+        double radius = mainConfig == null ? 16.0 : mainConfig.getDouble("leveling.exp-share.radius", 16.0);
+
+        // recipient uuid -> exp，分享時多位擊殺者的份額也會合併
+        Map<UUID, Long> rewards = new LinkedHashMap<>();
+        for (Map.Entry<UUID, Long> entry : pendingExp.entrySet()) {
+            Player killer = plugin.getServer().getPlayer(entry.getKey());
+            if (killer == null) {
+                // 離線時 onPlayerQuit 已先發放，照理不會發生
+                plugin.getLogger().warning("擊殺者已離線，未發放 " + entry.getValue() + " 經驗值: " + entry.getKey());
+                continue;
+            }
+
+            List<Player> recipients = share ? getShareRecipients(killer, radius) : List.of(killer);
+            long amount = entry.getValue();
+            long portion = amount / recipients.size();
+            for (Player recipient : recipients) {
+                rewards.merge(recipient.getUniqueId(), portion, Long::sum);
+            }
+            // 除不盡的部分給擊殺者
+            rewards.merge(killer.getUniqueId(), amount % recipients.size(), Long::sum);
+        }
+        pendingExp.clear();
+
+        for (Map.Entry<UUID, Long> reward : rewards.entrySet()) {
+            Player player = plugin.getServer().getPlayer(reward.getKey());
+            long amount = reward.getValue();
+            if (player == null || amount <= 0) {
+                continue;
+            }
+            if (!statsManager.addExp(player, amount)) {
+                continue; // 已滿級
+            }
+            player.sendActionBar(Component.text("獲得 " + amount + " 經驗值", NamedTextColor.YELLOW));
+        }
+    }
+
+    /**
+     * 擊殺者與附近一起分經驗的玩家（擊殺者排第一）
+     */
+    private List<Player> getShareRecipients(Player killer, double radius) {
+        List<Player> recipients = new ArrayList<>();
+        recipients.add(killer);
+
+        double radiusSquared = radius * radius;
+        for (Entity entity : killer.getNearbyEntities(radius, radius, radius)) {
+            if (entity instanceof Player other && !other.isDead()
+                    && other.getGameMode() != GameMode.SPECTATOR
+                    && other.getLocation().distanceSquared(killer.getLocation()) <= radiusSquared) {
+                recipients.add(other);
+            }
         }
+        return recipients;
     }
 
     /**
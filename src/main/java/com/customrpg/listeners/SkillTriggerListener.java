@@ -1,5 +1,7 @@
 package com.customrpg.listeners;
 
+import com.customrpg.managers.HeldWeaponCache;
+import com.customrpg.managers.WeaponManager;
 import com.customrpg.weaponSkills.SkillTriggerType;
 import com.customrpg.weaponSkills.managers.SkillManager;
 import org.bukkit.Material;
@@ -18,9 +20,11 @@ import org.bukkit.inventory.ItemStack;
 public class SkillTriggerListener implements Listener {
 
     private final SkillManager skillManager;
+    private final HeldWeaponCache heldWeapons;
 
-    public SkillTriggerListener(SkillManager skillManager) {
+    public SkillTriggerListener(SkillManager skillManager, HeldWeaponCache heldWeapons) {
         this.skillManager = skillManager;
+        this.heldWeapons = heldWeapons;
     }
 
     @EventHandler
@@ -42,7 +46,12 @@ public class SkillTriggerListener implements Listener {
             return;
         }
 
-        boolean handled = skillManager.tryCastWeaponSkill(player, trigger, item);
+        WeaponManager.WeaponData weaponData = heldWeapons.getMainHandWeapon(player);
+        if (weaponData == null) {
+            return;
+        }
+
+        boolean handled = skillManager.tryCastWeaponSkill(player, trigger, item, weaponData);
         if (handled) {
             event.setCancelled(true);
         }
@@ -3,19 +3,26 @@ package com.customrpg.listeners;
 import com.customrpg.CustomRPG;
 import com.customrpg.managers.PlayerStatsManager;
 import com.customrpg.players.PlayerStats;
+import org.bukkit.ChatColor;
 import org.bukkit.entity.Arrow;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.io.IOException;
+import java.util.logging.Level;
+
 /**
  * StatsListener - 處理玩家數據相關事件
  *
  * 功能：
+ * - AsyncPlayerPreLoginEvent: 在背景預先載入玩家數據（進服時不在主執行緒讀檔）
  * - PlayerJoinEvent: 載入玩家數據並應用 Vitality 到最大血量
  * - PlayerQuitEvent: 儲存玩家數據
  * - EntityDamageByEntityEvent:
@@ -38,6 +45,35 @@ public class StatsListener implements Listener {
         this.statsManager = statsManager;
     }
 
+    /**
+     * 登入前在背景執行緒預先載入數據
+     * MONITOR：只在確定允許登入後才載入，被拒絕的連線不會留在快取
+     * 讀取失敗時拒絕登入，避免玩家以預設數據進服並覆蓋原本的存檔
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        try {
+            statsManager.preloadStats(event.getUniqueId());
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "無法讀取玩家數據，拒絕登入: " + event.getName(), e);
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER,
+                    ChatColor.RED + "無法讀取你的玩家數據，請稍後再試或聯絡管理員");
+        }
+    }
+
+    /**
+     * 預載後仍被拒絕登入（白名單、滿人等）時釋放快取
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLoginDenied(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            statsManager.unloadStats(event.getPlayer().getUniqueId());
+        }
+    }
+
     /**
      * 玩家加入伺服器時載入數據
      */
@@ -45,7 +81,7 @@ public class StatsListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
 
-        // 載入玩家數據 (會自動快取)
+        // 取得玩家數據 (通常已在登入前預載)
         PlayerStats stats = statsManager.getStats(player);
 
         // 應用 Vitality 到最大血量
@@ -1,8 +1,15 @@
 package com.customrpg.listeners;
 
 import com.customrpg.CustomRPG;
+import com.customrpg.managers.CooldownService;
+import com.customrpg.managers.HeldWeaponCache;
 import com.customrpg.managers.PassiveEffectManager;
 import com.customrpg.managers.WeaponManager;
+import com.customrpg.weaponSkills.managers.BuffManager;
+import com.customrpg.weaponSkills.managers.DamageManager;
+import com.customrpg.weaponSkills.managers.DotManager;
+import com.customrpg.weapons.WeaponElement;
+import com.customrpg.weapons.WeaponProfile;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Particle;
@@ -23,10 +30,7 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.util.Vector;
 
 import java.util.Locale;
-import java.util.Map;
 import java.util.Random;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * WeaponListener - Handles custom weapon attack events
@@ -44,11 +48,14 @@ public class WeaponListener implements Listener {
 
     private final CustomRPG plugin;
     private final WeaponManager weaponManager;
+    private final HeldWeaponCache heldWeapons;
     private final Random random;
     private final PassiveEffectManager passiveEffectManager;
     private final com.customrpg.managers.PlayerStatsManager statsManager;
 
-    private final Map<UUID, Map<String, Long>> passiveCooldownNotify = new ConcurrentHashMap<>();
+    private final CooldownService cooldowns;
+    private final BuffManager buffs;
+    private final DotManager dots;
 
     // 這個用來判斷「最後一下是否為玩家造成」
     // （EntityDeathEvent 的 getKiller 在某些情況會是 null，例如環境傷害）
@@ -58,15 +65,24 @@ public class WeaponListener implements Listener {
      * 
      * @param plugin        Main plugin instance
      * @param weaponManager WeaponManager instance
+     * @param heldWeapons   Per-player main-hand weapon cache
      * @param statsManager  PlayerStatsManager instance
+     * @param cooldowns     Shared cooldown service
+     * @param buffs         Buff manager (stat modifiers read in combat)
+     * @param dots          Damage-over-time engine (burn / poison / bleed)
      */
-    public WeaponListener(CustomRPG plugin, WeaponManager weaponManager,
-                         com.customrpg.managers.PlayerStatsManager statsManager) {
+    public WeaponListener(CustomRPG plugin, WeaponManager weaponManager, HeldWeaponCache heldWeapons,
+                         com.customrpg.managers.PlayerStatsManager statsManager, CooldownService cooldowns,
+                         BuffManager buffs, DotManager dots) {
         this.plugin = plugin;
         this.weaponManager = weaponManager;
+        this.heldWeapons = heldWeapons;
         this.statsManager = statsManager;
+        this.cooldowns = cooldowns;
+        this.buffs = buffs;
+        this.dots = dots;
         this.random = new Random();
-        this.passiveEffectManager = new PassiveEffectManager();
+        this.passiveEffectManager = new PassiveEffectManager(cooldowns, buffs);
     }
 
     /**
@@ -81,23 +97,23 @@ public class WeaponListener implements Listener {
             return;
         }
 
+        // 技能傷害已在 DamageManager 算好（Magic / 倍率 / 暴擊），不再走一次近戰流程
+        if (DamageManager.isApplyingSkillDamage()) {
+            return;
+        }
+
         Player player = (Player) event.getDamager();
-        ItemStack weapon = player.getInventory().getItemInMainHand();
 
         // 取得玩家屬性（無論是否使用自訂武器都需要）
         com.customrpg.players.PlayerStats playerStats = statsManager.getStats(player);
 
-        // 檢查是否為自訂武器
-        String weaponKey = weaponManager.getWeaponKey(weapon);
-        WeaponManager.WeaponData weaponData = null;
-
-        if (weaponKey != null) {
-            weaponData = weaponManager.getWeaponData(weaponKey);
-        }
+        // 檢查是否為自訂武器（主手快取，換手時才重新解析）
+        WeaponManager.WeaponData heldWeapon = heldWeapons.getMainHandWeapon(player);
+        WeaponProfile profile = heldWeapon != null ? heldWeapon.getProfile() : null;
 
         // === 處理自訂武器的等級需求 ===
-        if (weaponData != null && playerStats.getLevel() < weaponData.getMinLevel()) {
-            player.sendMessage(ChatColor.RED + "你必須達到等級 " + weaponData.getMinLevel() + " 才能使用此武器！");
+        if (profile != null && playerStats.getLevel() < profile.getMinLevel()) {
+            player.sendMessage(ChatColor.RED + "你必須達到等級 " + profile.getMinLevel() + " 才能使用此武器！");
             player.playSound(player.getLocation(), org.bukkit.Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
             event.setCancelled(true);
             return;
@@ -107,8 +123,8 @@ public class WeaponListener implements Listener {
         double baseDamage = event.getDamage();
 
         // 如果有自訂武器且設定了基礎傷害，則覆蓋
-        if (weaponData != null) {
-            double baseDamageOverride = weaponData.getDoubleExtra("base-damage", 0.0);
+        if (profile != null) {
+            double baseDamageOverride = profile.getBaseDamage();
             if (baseDamageOverride > 0.0) {
                 baseDamage = baseDamageOverride;
             }
@@ -121,23 +137,32 @@ public class WeaponListener implements Listener {
 
         // === 2) Damage multiplier ===
         double damageMultiplier = 1.0;
-        if (weaponData != null) {
-            damageMultiplier = weaponData.getDamageMultiplier();
+        if (profile != null) {
+            damageMultiplier = profile.getDamageMultiplier();
         }
         double damageAfterMultiplier = baseDamage * damageMultiplier;
 
+        // 增益 / 減益：攻擊者的傷害加成 + 目標的受傷加成
+        double buffDamagePercent = buffs.getStat(player, BuffManager.Stat.DAMAGE_PERCENT);
+        if (event.getEntity() instanceof LivingEntity victim) {
+            buffDamagePercent += buffs.getStat(victim, BuffManager.Stat.DAMAGE_TAKEN_PERCENT);
+        }
+        if (buffDamagePercent != 0.0) {
+            damageAfterMultiplier *= Math.max(0.0, 1.0 + buffDamagePercent / 100.0);
+        }
+
         // === 3) Crit ===
         double critChancePercent = 0.0;
         double critDamageMultiplier = 1.0;
 
         // 從自訂武器取得暴擊屬性
-        if (weaponData != null) {
-            critChancePercent = weaponData.getDoubleExtra("crit-chance", 0.0);
-            critDamageMultiplier = weaponData.getDoubleExtra("crit-damage-multiplier", 0.0);
+        if (profile != null) {
+            critChancePercent = profile.getCritChance();
+            critDamageMultiplier = profile.getCritDamageMultiplier();
         }
 
-        // 套用「被動增益」的暴擊率加成
-        double bonusCrit = passiveEffectManager.getBonusCritChancePercent(player);
+        // 套用增益的暴擊率加成（例如擊殺被動）
+        double bonusCrit = buffs.getStat(player, BuffManager.Stat.CRIT_CHANCE);
         if (bonusCrit > 0.0) {
             critChancePercent += bonusCrit;
         }
@@ -166,8 +191,8 @@ public class WeaponListener implements Listener {
         }
 
         // === 4) 額外擊退推力（僅限自訂武器） ===
-        if (weaponData != null) {
-            double extraKnockback = weaponData.getDoubleExtra("knockback", 0.0);
+        if (profile != null) {
+            double extraKnockback = profile.getKnockback();
             if (extraKnockback > 0 && event.getEntity() instanceof LivingEntity) {
                 Vector dir = event.getEntity().getLocation().toVector().subtract(player.getLocation().toVector())
                         .normalize();
@@ -177,7 +202,7 @@ public class WeaponListener implements Listener {
             }
 
             // === 5) 特殊效果（僅限自訂武器） ===
-            applySpecialEffect(player, event.getEntity(), weaponData, event);
+            applySpecialEffect(player, event.getEntity(), profile, event);
         }
     }
 
@@ -194,7 +219,7 @@ public class WeaponListener implements Listener {
             return;
         }
 
-        double mult = weaponData.getDoubleExtra("durability-cost-multiplier", 1.0);
+        double mult = weaponData.getProfile().getDurabilityCostMultiplier();
         if (mult <= 0) {
             event.setCancelled(true);
             return;
@@ -209,37 +234,43 @@ public class WeaponListener implements Listener {
      * 
      * @param attacker   The attacking player
      * @param victim     The victim entity
-     * @param weaponData The weapon data
+     * @param profile    The compiled weapon profile
      * @param event      The damage event (needed for Armor Pierce)
      */
     private void applySpecialEffect(Player attacker, org.bukkit.entity.Entity victim,
-            WeaponManager.WeaponData weaponData, EntityDamageByEntityEvent event) {
+            WeaponProfile profile, EntityDamageByEntityEvent event) {
         // 1. Mechanics
         // Backstab
-        if (weaponData.getBooleanExtra("backstab-enabled", false)) {
-            applyBackstabEffect(attacker, victim, weaponData);
+        if (profile.isBackstabEnabled()) {
+            applyBackstabEffect(attacker, victim, profile);
         }
 
         // Armor Pierce
-        double pierce = weaponData.getDoubleExtra("armor-pierce", 0.0);
+        double pierce = profile.getArmorPierce();
         if (pierce > 0.0 && event != null) {
             applyArmorPierce(attacker, victim, pierce, event);
         }
 
         // Life Steal
-        double lifeSteal = weaponData.getDoubleExtra("life-steal", 0.0);
+        double lifeSteal = profile.getLifeSteal();
         if (lifeSteal > 0.0) {
             applyLifeSteal(attacker, lifeSteal, event.getFinalDamage());
         }
 
+        // Bleed
+        double bleedChance = profile.getBleedChance();
+        if (bleedChance > 0.0 && victim instanceof LivingEntity livingVictim && random.nextDouble() < bleedChance) {
+            dots.apply(attacker, livingVictim, DotManager.DotType.BLEED,
+                    profile.getBleedDamagePerSecond(), profile.getBleedDurationTicks());
+        }
+
         // AOE (Not fully implemented in plan, but good to have placeholder or simple
         // logic)
         // double aoe = weaponData.getDoubleExtra("aoe-radius", 0.0);
 
         // 2. Elements
-        String elementType = String.valueOf(weaponData.getExtra().getOrDefault("element-type", "NONE")).toUpperCase();
-        if (!elementType.equals("NONE")) {
-            applyElementEffect(attacker, victim, elementType, weaponData);
+        if (profile.getElement() != WeaponElement.NONE) {
+            applyElementEffect(attacker, victim, profile);
         }
     }
 
@@ -280,26 +311,22 @@ public class WeaponListener implements Listener {
         attacker.setHealth(Math.min(maxHealth, attacker.getHealth() + heal));
     }
 
-    private void applyElementEffect(Player attacker, org.bukkit.entity.Entity victim, String elementType,
-            WeaponManager.WeaponData weaponData) {
-        switch (elementType) {
-            case "FIRE":
-            case "BURN":
-                applyBurnEffect(attacker, victim, weaponData);
+    private void applyElementEffect(Player attacker, org.bukkit.entity.Entity victim, WeaponProfile profile) {
+        switch (profile.getElement()) {
+            case BURN:
+                applyBurnEffect(attacker, victim, profile);
                 break;
-            case "LIGHTNING":
-            case "THUNDER":
-                applyLightningEffect(attacker, victim, weaponData);
+            case LIGHTNING:
+                applyLightningEffect(attacker, victim, profile);
                 break;
-            case "ICE":
-            case "FREEZE":
-                applyIceEffect(attacker, victim, weaponData);
+            case ICE:
+                applyIceEffect(attacker, victim, profile);
                 break;
-            case "WATER":
-                applyWaterEffect(attacker, victim, weaponData);
+            case WATER:
+                applyWaterEffect(attacker, victim, profile);
                 break;
-            case "POISON":
-                applyPoisonEffect(attacker, victim, weaponData);
+            case POISON:
+                applyPoisonEffect(attacker, victim, profile);
                 break;
             default:
                 break;
@@ -311,19 +338,13 @@ public class WeaponListener implements Listener {
      * 
      * @param attacker   The attacking player
      * @param victim     The victim entity
-     * @param weaponData The weapon data
+     * @param profile    The compiled weapon profile
      */
-    private void applyBackstabEffect(Player attacker, org.bukkit.entity.Entity victim,
-            WeaponManager.WeaponData weaponData) {
+    private void applyBackstabEffect(Player attacker, org.bukkit.entity.Entity victim, WeaponProfile profile) {
         if (!(victim instanceof LivingEntity)) {
             return;
         }
 
-        boolean backstabEnabled = weaponData.getBooleanExtra("backstab-enabled", true);
-        if (!backstabEnabled) {
-            return;
-        }
-
         // 計算玩家跟敵對玩家的面對方向
         LivingEntity livingVictim = (LivingEntity) victim;
 
@@ -334,21 +355,20 @@ public class WeaponListener implements Listener {
 
         // dotProduct > 0.5 是完全背對，改成0.3讓背刺比較好觸發
         if (dotProduct > 0.3) {
-            double multiplier = weaponData.getDoubleExtra("backstab-multiplier", 1.0);
+            double multiplier = profile.getBackstabMultiplier();
             double bonusDamage = 4.0 * Math.max(0.0, multiplier);
             livingVictim.damage(bonusDamage);
 
             // 視覺：直接依 yml 內容決定（目前只做 enchanted_hit）
-            String particleName = String.valueOf(weaponData.getExtra().getOrDefault("backstab-particle", ""));
-            if (particleName != null && particleName.equalsIgnoreCase("enchanted_hit")) {
+            if (profile.isBackstabEnchantedHit()) {
                 victim.getWorld().spawnParticle(Particle.ENCHANTED_HIT, victim.getLocation().add(0, 1.0, 0), 20, 0.3, 0.6,
                         0.3, 0.0);
             }
 
             // 音效：直接用 yml 提供的 sound key 字串播放
-            String soundKey = String.valueOf(weaponData.getExtra().getOrDefault("backstab-sound", ""));
-            if (soundKey != null && !soundKey.isBlank()) {
-                attacker.getWorld().playSound(victim.getLocation(), soundKey.trim().toLowerCase(), 1.0f, 1.0f);
+            String soundKey = profile.getBackstabSound();
+            if (soundKey != null) {
+                attacker.getWorld().playSound(victim.getLocation(), soundKey, 1.0f, 1.0f);
             } else {
                 attacker.getWorld().playSound(victim.getLocation(), "entity.player.attack.crit", 1.0f, 0.8f);
             }
@@ -358,20 +378,20 @@ public class WeaponListener implements Listener {
     }
 
     /**
-     * Apply burn/fire effect (sets target on fire)
+     * Apply burn/fire effect (burn DoT, scaled by the attacker's Magic)
      * 
      * @param attacker   The attacking player
      * @param victim     The victim entity
-     * @param weaponData The weapon data
+     * @param profile    The compiled weapon profile
      */
     private void applyBurnEffect(Player attacker, org.bukkit.entity.Entity victim,
-            WeaponManager.WeaponData weaponData) {
+            WeaponProfile profile) {
         if (!(victim instanceof LivingEntity)) {
             return;
         }
 
-        int durationTicks = weaponData.getIntExtra("burn-duration-ticks", 100);
-        victim.setFireTicks(Math.max(0, durationTicks));
+        int durationTicks = profile.getBurnDurationTicks();
+        dots.apply(attacker, (LivingEntity) victim, DotManager.DotType.BURN, profile.getBurnDamagePerSecond(), durationTicks);
 
         attacker.sendMessage(ChatColor.GOLD + "🔥 目標燃燒中! (" + durationTicks + " ticks)\n");
         attacker.getWorld().playSound(attacker.getLocation(), "entity.blaze.shoot", 1.0f, 1.0f);
@@ -382,11 +402,11 @@ public class WeaponListener implements Listener {
      * 
      * @param attacker   The attacking player
      * @param victim     The victim entity
-     * @param weaponData The weapon data
+     * @param profile    The compiled weapon profile
      */
     private void applyLightningEffect(Player attacker, org.bukkit.entity.Entity victim,
-            WeaponManager.WeaponData weaponData) {
-        double chance = weaponData.getDoubleExtra("lightning-chance", 0.3);
+            WeaponProfile profile) {
+        double chance = profile.getLightningChance();
         if (random.nextDouble() < chance) {
             Location strikeLocation = victim.getLocation();
             victim.getWorld().strikeLightning(strikeLocation);
@@ -399,21 +419,21 @@ public class WeaponListener implements Listener {
      *
      * @param attacker   The attacking player
      * @param victim     The victim entity
-     * @param weaponData The weapon data
+     * @param profile    The compiled weapon profile
      */
     private void applyIceEffect(Player attacker, org.bukkit.entity.Entity victim,
-            WeaponManager.WeaponData weaponData) {
+            WeaponProfile profile) {
         if (!(victim instanceof LivingEntity)) {
             return;
         }
 
-        double chance = weaponData.getDoubleExtra("ice-chance", 0.3);
+        double chance = profile.getIceChance();
         if (random.nextDouble() >= chance) {
             return;
         }
 
         LivingEntity livingVictim = (LivingEntity) victim;
-        int durationTicks = weaponData.getIntExtra("ice-duration-ticks", 40); // 預設 2 秒 (40 ticks)
+        int durationTicks = profile.getIceDurationTicks(); // 預設 2 秒 (40 ticks)
 
         // 凍結效果：使用緩速 10 級 + 挖掘疲勞來模擬凍結
         livingVictim.addPotionEffect(new org.bukkit.potion.PotionEffect(
@@ -439,17 +459,17 @@ public class WeaponListener implements Listener {
      *
      * @param attacker   The attacking player
      * @param victim     The victim entity
-     * @param weaponData The weapon data
+     * @param profile    The compiled weapon profile
      */
     private void applyWaterEffect(Player attacker, org.bukkit.entity.Entity victim,
-            WeaponManager.WeaponData weaponData) {
+            WeaponProfile profile) {
         if (!(victim instanceof LivingEntity)) {
             return;
         }
 
         LivingEntity livingVictim = (LivingEntity) victim;
-        int durationTicks = weaponData.getIntExtra("water-duration-ticks", 60); // 預設 3 秒
-        int amplifier = weaponData.getIntExtra("water-slowness-level", 1); // 預設緩速 II (amplifier 1 = level 2)
+        int durationTicks = profile.getWaterDurationTicks(); // 預設 3 秒
+        int amplifier = profile.getWaterSlownessLevel(); // 預設緩速 II (amplifier 1 = level 2)
 
         // 套用緩速效果
         livingVictim.addPotionEffect(new org.bukkit.potion.PotionEffect(
@@ -471,28 +491,26 @@ public class WeaponListener implements Listener {
      *
      * @param attacker   The attacking player
      * @param victim     The victim entity
-     * @param weaponData The weapon data
+     * @param profile    The compiled weapon profile
      */
     private void applyPoisonEffect(Player attacker, org.bukkit.entity.Entity victim,
-            WeaponManager.WeaponData weaponData) {
+            WeaponProfile profile) {
         if (!(victim instanceof LivingEntity)) {
             return;
         }
 
         LivingEntity livingVictim = (LivingEntity) victim;
-        int durationTicks = weaponData.getIntExtra("poison-duration-ticks", 100); // 預設 5 秒
-        int amplifier = weaponData.getIntExtra("poison-level", 1); // 預設中毒 II
+        int durationTicks = profile.getPoisonDurationTicks(); // 預設 5 秒
+        int amplifier = profile.getPoisonLevel(); // 預設中毒 II
 
-        // 套用中毒效果（造成持續傷害）
-        livingVictim.addPotionEffect(new org.bukkit.potion.PotionEffect(
-                org.bukkit.potion.PotionEffectType.POISON, durationTicks, amplifier, false, true));
+        // 中毒（持續傷害，隨攻擊者 Magic 提升）
+        dots.apply(attacker, livingVictim, DotManager.DotType.POISON, profile.getPoisonDamagePerSecond(), durationTicks);
 
-        // 套用虛弱效果來模擬裝甲減少（減少傷害輸出，但主要是中毒本身）
-        // 或者使用凋零效果來穿透裝甲造成傷害
-        int armorReductionLevel = weaponData.getIntExtra("poison-armor-reduction-level", 0);
+        // 裝甲減少：每級受到傷害 +10%
+        int armorReductionLevel = profile.getPoisonArmorReductionLevel();
         if (armorReductionLevel > 0) {
-            livingVictim.addPotionEffect(new org.bukkit.potion.PotionEffect(
-                    org.bukkit.potion.PotionEffectType.WITHER, durationTicks, armorReductionLevel - 1, false, true));
+            buffs.apply(livingVictim, BuffManager.BuffType.VULNERABLE, armorReductionLevel * 10.0, durationTicks,
+                    attacker.getUniqueId());
         }
 
         // 視覺效果：毒性粒子
@@ -521,38 +539,29 @@ public class WeaponListener implements Listener {
             return;
         }
 
-        ItemStack weapon = killer.getInventory().getItemInMainHand();
-        String weaponKey = weaponManager.getWeaponKey(weapon);
-        if (weaponKey == null) {
-            return;
-        }
-
-        WeaponManager.WeaponData weaponData = weaponManager.getWeaponData(weaponKey);
+        WeaponManager.WeaponData weaponData = heldWeapons.getMainHandWeapon(killer);
         if (weaponData == null) {
             return;
         }
 
         // 讀取被動設定
-        String passiveEffect = String.valueOf(weaponData.getExtra().getOrDefault("passive-effect", ""));
-        if (passiveEffect == null || passiveEffect.isBlank()) {
+        WeaponProfile.Passive passive = weaponData.getProfile().getPassive();
+        if (passive == null) {
             return;
         }
 
-        String passiveName = String.valueOf(weaponData.getExtra().getOrDefault("passive-name", ""));
-        if (passiveName == null || passiveName.isBlank()) {
-            passiveName = passiveEffect;
-        }
+        String passiveName = passive.getName();
 
         // 只先做這個測試效果
-        if (!passiveEffect.equalsIgnoreCase("kill_crit_boost")) {
+        if (passive.getEffect() != WeaponProfile.Passive.Effect.KILL_CRIT_BOOST) {
             return;
         }
 
         // 不同武器/不同被動各自獨立冷卻
-        String cooldownKey = buildPassiveCooldownKey(weaponKey, passiveEffect);
+        String cooldownKey = passive.getCooldownKey();
 
         // 冷卻（ticks）
-        int cooldownTicks = weaponData.getIntExtra("passive-cooldown-ticks", 0);
+        int cooldownTicks = passive.getCooldownTicks();
         if (cooldownTicks > 0 && passiveEffectManager.isOnCooldown(killer, cooldownKey)) {
             if (shouldNotifyCooldown(killer, cooldownKey)) {
                 int remainingTicks = passiveEffectManager.getRemainingCooldownTicks(killer, cooldownKey);
@@ -563,15 +572,11 @@ public class WeaponListener implements Listener {
             return;
         }
 
-        double value = weaponData.getDoubleExtra("passive-value", 0.0);
-        int durationTicks = weaponData.getIntExtra("passive-duration-ticks", 200);
+        double value = passive.getValue();
+        int durationTicks = passive.getDurationTicks();
 
-        // chance：支援 0~1 或 0~100
-        double chance = weaponData.getDoubleExtra("passive-chance", 1.0);
-        if (chance > 1.0) {
-            chance = chance / 100.0;
-        }
-        chance = Math.max(0.0, Math.min(1.0, chance));
+        // chance：載入時已正規化為 0~1
+        double chance = passive.getChance();
 
         if (random.nextDouble() > chance) {
             return;
@@ -587,28 +592,8 @@ public class WeaponListener implements Listener {
                 + (cooldownTicks > 0 ? (" CD " + cooldownTicks + "ticks") : ""));
     }
 
-    private String buildPassiveCooldownKey(String weaponKey, String passiveEffect) {
-        String w = weaponKey == null ? "" : weaponKey.trim().toLowerCase();
-        String p = passiveEffect == null ? "" : passiveEffect.trim().toLowerCase();
-        if (w.isEmpty()) {
-            return p;
-        }
-        if (p.isEmpty()) {
-            return w;
-        }
-        return w + ":" + p;
-    }
-
     private boolean shouldNotifyCooldown(Player player, String passiveKey) {
-        long now = System.currentTimeMillis();
-        java.util.Map<String, Long> perPlayer = passiveCooldownNotify.computeIfAbsent(player.getUniqueId(),
-                k -> new java.util.concurrent.ConcurrentHashMap<>());
-        String key = passiveKey == null ? "" : passiveKey.trim().toLowerCase();
-        long last = perPlayer.getOrDefault(key, 0L);
-        if (now - last < 1000L) {
-            return false;
-        }
-        perPlayer.put(key, now);
-        return true;
+        // 同一個被動的「冷卻中」提示每秒最多一次
+        return cooldowns.tryStart(player, cooldowns.keyId(CooldownService.Category.NOTIFY, passiveKey), 20L);
     }
 }
@@ -0,0 +1,328 @@
+package com.customrpg.managers;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+/**
+ * ConfigCache - Binary snapshot of parsed config files
+ *
+ * Stores the parsed YAML tree of every config file together with its fingerprint
+ * (path, size, mtime, content hash). On the next load, files whose fingerprint is unchanged
+ * are rebuilt from the snapshot instead of going through SnakeYAML.
+ *
+ * The snapshot is ignored as a whole (full parse) when the magic, format version or
+ * payload checksum does not match.
+ */
+public final class ConfigCache {
+
+    private static final int MAGIC = 0x43525047; // "CRPG"
+    private static final int FORMAT_VERSION = 1;
+
+    // value tags
+    private static final byte T_NULL = 0;
+    private static final byte T_STRING = 1;
+    private static final byte T_INT = 2;
+    private static final byte T_LONG = 3;
+    private static final byte T_DOUBLE = 4;
+    private static final byte T_BOOLEAN = 5;
+    private static final byte T_LIST = 6;
+    private static final byte T_MAP = 7;
+
+    /**
+     * One cached file
+     * @param path Relative path (e.g. config/weapons/types/example.yml)
+     * @param size File size in bytes
+     * @param lastModified File mtime in millis
+     * @param hash CRC32C of the file content
+     * @param tree Parsed content (nested maps for sections, lists as-is)
+     */
+    public record Entry(String path, long size, long lastModified, long hash, Map<String, Object> tree) {
+
+        /**
+         * @return true if this entry was built from exactly this file content
+         */
+        public boolean matches(long size, long lastModified, long hash) {
+            return this.size == size && this.lastModified == lastModified && this.hash == hash;
+        }
+    }
+
+    private ConfigCache() {
+    }
+
+    /**
+     * Hash file content for the fingerprint
+     * @param content Raw file bytes
+     * @return CRC32C of the content
+     */
+    public static long hash(byte[] content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content, 0, content.length);
+        return crc.getValue();
+    }
+
+    /**
+     * Capture a parsed config as a cacheable tree
+     * @param config Parsed configuration
+     * @return Tree of plain values, or null if it contains values the cache cannot encode
+     */
+    public static Map<String, Object> capture(ConfigurationSection config) {
+        Map<String, Object> tree = toTree(config);
+        return isEncodable(tree) ? tree : null;
+    }
+
+    /**
+     * Rebuild a configuration from a cached tree (same shape YamlConfiguration produces when parsing)
+     * @param tree Cached tree
+     * @return New YamlConfiguration
+     */
+    @SuppressWarnings("unchecked")
+    public static YamlConfiguration restore(Map<String, Object> tree) {
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<String, Object> e : tree.entrySet()) {
+            if (e.getValue() instanceof Map) {
+                config.createSection(e.getKey(), (Map<String, Object>) e.getValue());
+            } else {
+                config.set(e.getKey(), e.getValue());
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Read a snapshot file
+     * @param file Snapshot file
+     * @return path -> entry; empty if the file is missing, stale or corrupt
+     * @throws IOException if the snapshot is unreadable or fails validation
+     */
+    public static Map<String, Entry> read(File file) throws IOException {
+        if (!file.isFile()) {
+            return Collections.emptyMap();
+        }
+
+        byte[] payload;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("bad magic");
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("format version " + version + " != " + FORMAT_VERSION);
+            }
+            long checksum = in.readLong();
+            int length = in.readInt();
+            payload = new byte[length];
+            in.readFully(payload);
+
+            CRC32 crc = new CRC32();
+            crc.update(payload, 0, payload.length);
+            if (crc.getValue() != checksum) {
+                throw new IOException("checksum mismatch");
+            }
+        }
+
+        Map<String, Entry> entries = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = readString(in);
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                long hash = in.readLong();
+                @SuppressWarnings("unchecked")
+                Map<String, Object> tree = (Map<String, Object>) readValue(in);
+                entries.put(path, new Entry(path, size, lastModified, hash, tree));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Write a snapshot file (temp file + rename, so a crash never leaves a half-written snapshot)
+     * @param file Snapshot file
+     * @param entries Entries to store
+     * @throws IOException on write failure
+     */
+    public static void write(File file, List<Entry> entries) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(payloadBytes)) {
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                writeString(out, entry.path());
+                out.writeLong(entry.size());
+                out.writeLong(entry.lastModified());
+                out.writeLong(entry.hash());
+                writeValue(out, entry.tree());
+            }
+        }
+        byte[] payload = payloadBytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        ByteArrayOutputStream fileBytes = new ByteArrayOutputStream(payload.length + 20);
+        try (DataOutputStream out = new DataOutputStream(fileBytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(crc.getValue());
+            out.writeInt(payload.length);
+            out.write(payload);
+        }
+
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Failed to create directory: " + dir.getPath());
+        }
+
+        Path target = file.toPath();
+        Path tmp = target.resolveSibling(file.getName() + ".tmp");
+        Files.write(tmp, fileBytes.toByteArray());
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // ===== tree conversion =====
+
+    private static Map<String, Object> toTree(ConfigurationSection section) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (String key : section.getKeys(false)) {
+            Object value = section.get(key);
+            map.put(key, value instanceof ConfigurationSection child ? toTree(child) : value);
+        }
+        return map;
+    }
+
+    private static boolean isEncodable(Object value) {
+        if (value == null || value instanceof String || value instanceof Integer || value instanceof Long
+                || value instanceof Double || value instanceof Boolean) {
+            return true;
+        }
+        if (value instanceof List<?> list) {
+            for (Object item : list) {
+                if (!isEncodable(item)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                if (!(e.getKey() instanceof String) || !isEncodable(e.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // ===== binary encoding =====
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(T_NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(T_STRING);
+            writeString(out, s);
+        } else if (value instanceof Integer i) {
+            out.writeByte(T_INT);
+            out.writeInt(i);
+        } else if (value instanceof Long l) {
+            out.writeByte(T_LONG);
+            out.writeLong(l);
+        } else if (value instanceof Double d) {
+            out.writeByte(T_DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(T_BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof List<?> list) {
+            out.writeByte(T_LIST);
+            out.writeInt(list.size());
+            for (Object item : list) {
+                writeValue(out, item);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(T_MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                writeString(out, (String) e.getKey());
+                writeValue(out, e.getValue());
+            }
+        } else {
+            throw new IOException("Unsupported value type: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case T_NULL:
+                return null;
+            case T_STRING:
+                return readString(in);
+            case T_INT:
+                return in.readInt();
+            case T_LONG:
+                return in.readLong();
+            case T_DOUBLE:
+                return in.readDouble();
+            case T_BOOLEAN:
+                return in.readBoolean();
+            case T_LIST: {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case T_MAP: {
+                int size = in.readInt();
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    String key = readString(in);
+                    map.put(key, readValue(in));
+                }
+                return map;
+            }
+            default:
+                throw new IOException("Unknown value tag: " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
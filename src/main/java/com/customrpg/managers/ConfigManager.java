@@ -1,34 +1,119 @@
 package com.customrpg.managers;
 
 import com.customrpg.CustomRPG;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
 
 /**
  * ConfigManager - Manages multiple configuration files
  *
  * This class handles loading and accessing configuration files from the configs/ directory.
  * It supports nested folder structures like configs/weapons/swords.yml
+ *
+ * All loaded files are held in one immutable snapshot. A reload builds a complete new
+ * snapshot and publishes it with a single volatile write, so readers on any thread
+ * always see either the old or the new configuration, never a partial one.
+ *
+ * Parsed files are kept in a binary cache (cache/config.bin, see {@link ConfigCache});
+ * a file whose size, mtime and content hash are unchanged is rebuilt from the cache
+ * instead of being parsed again.
+ *
+ * {@link #reloadChangedConfigs(Collection)} reparses only the given files (used by the
+ * {@link ConfigWatcher}) and reports what changed, so dependents can recompile selectively.
  */
 public class ConfigManager {
 
+    private static final String MAIN_CONFIG = "config/config.yml";
+    private static final String CACHE_FILE = "cache/config.bin";
+    private static final String WEAPON_TYPES_DIR = "config/weapons/types/";
+    private static final String WEAPON_SKILLS_DIR = "config/weapons/skills/";
+    private static final String MOB_TYPES_DIR = "config/mobs/types/";
+
+    // Directories scanned for *.yml, in load order
+    private static final List<String> CONFIG_DIRECTORIES = List.of(
+            "config/weapons/types",
+            "config/weapons/skills",
+            "config/mobs/types",
+            "config/mobs/skills",
+            "config/skills"
+    );
+
     private final CustomRPG plugin;
-    private final Map<String, FileConfiguration> configs;
+    private volatile ConfigSnapshot snapshot;
+
+    /**
+     * Immutable view of every loaded config file plus the derived skill template index
+     * @param configs relative path -> parsed file
+     * @param weaponSkillTemplates skillId -> 技能模板（每次載入只建一次，武器合併時直接查表）
+     * @param cacheEntries relative path -> cache entry of the loaded file (what cache/config.bin holds)
+     */
+    private record ConfigSnapshot(Map<String, FileConfiguration> configs,
+                                  Map<String, Map<String, Object>> weaponSkillTemplates,
+                                  Map<String, ConfigCache.Entry> cacheEntries) {}
+
+    /**
+     * What an incremental reload changed
+     * @param files Relative paths that were reparsed or removed
+     * @param skillTemplates Weapon skill ids whose template was added, removed or modified
+     */
+    public record ConfigChange(Set<String> files, Set<String> skillTemplates) {
+
+        public boolean isEmpty() {
+            return files.isEmpty();
+        }
+
+        public boolean touchesWeapons() {
+            return !skillTemplates.isEmpty() || files.stream().anyMatch(f -> f.startsWith(WEAPON_TYPES_DIR));
+        }
+
+        public boolean touchesMobs() {
+            return files.stream().anyMatch(f -> f.startsWith(MOB_TYPES_DIR));
+        }
+    }
+
+    /**
+     * Result of loading one file
+     * @param config Parsed configuration
+     * @param cacheEntry Entry to store in the next cache snapshot (null = not cacheable)
+     * @param fromCache true if the file was rebuilt from the cache instead of parsed
+     */
+    private record LoadedConfig(FileConfiguration config, ConfigCache.Entry cacheEntry, boolean fromCache) {}
 
     public ConfigManager(CustomRPG plugin) {
         this.plugin = plugin;
-        this.configs = new HashMap<>();
-        loadAllConfigs();
+        this.snapshot = loadAllConfigs();
     }
 
     /**
      * Load all configuration files from config/ directory
+     *
+     * Does not touch the published snapshot; safe to call off the main thread.
+     * @return A fully populated snapshot
      */
-    private void loadAllConfigs() {
+    private ConfigSnapshot loadAllConfigs() {
         // Create config directory structure
         File configDir = new File(plugin.getDataFolder(), "config");
         File weaponsDir = new File(configDir, "weapons");
@@ -64,25 +149,180 @@ public class ConfigManager {
         ensureDefaultConfigExists("config/mobs/skills/skill1.yml");
         ensureDefaultConfigExists("config/skills/example.yml");
 
-        // Load main config
-        loadConfig("config/config.yml");
+        Map<String, FileConfiguration> configs = new LinkedHashMap<>();
+        Map<String, ConfigCache.Entry> cached = readConfigCache();
+        Map<String, ConfigCache.Entry> cacheEntries = new HashMap<>();
+        int cacheHits = 0;
+        long scanStart = System.nanoTime();
+        long parseStart;
+        long templateStart;
+
+        // Scanning and YAML parsing are independent per directory/file, so fan them out
+        // on virtual threads and join once, in a fixed order, before anything is compiled.
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<String>>> scans = new ArrayList<>();
+            for (String directory : CONFIG_DIRECTORIES) {
+                scans.add(executor.submit(() -> scanDirectory(directory)));
+            }
 
-        // Load weapon type configs from config/weapons/types/
-        loadConfigsFromDirectory("config/weapons/types");
+            // Load main config first, then directories in declaration order
+            List<String> paths = new ArrayList<>();
+            paths.add(MAIN_CONFIG);
+            for (int i = 0; i < scans.size(); i++) {
+                List<String> found = await(scans.get(i), CONFIG_DIRECTORIES.get(i));
+                if (found != null) {
+                    paths.addAll(found);
+                }
+            }
 
-        // Load weapon skill configs from config/weapons/skills/
-        loadConfigsFromDirectory("config/weapons/skills");
+            parseStart = System.nanoTime();
+            List<Future<LoadedConfig>> parses = new ArrayList<>(paths.size());
+            for (String path : paths) {
+                parses.add(executor.submit(() -> loadConfig(path, cached.get(path))));
+            }
+
+            for (int i = 0; i < paths.size(); i++) {
+                LoadedConfig loaded = await(parses.get(i), paths.get(i));
+                if (loaded != null) {
+                    configs.put(paths.get(i), loaded.config());
+                    if (loaded.cacheEntry() != null) {
+                        cacheEntries.put(paths.get(i), loaded.cacheEntry());
+                    }
+                    if (loaded.fromCache()) {
+                        cacheHits++;
+                    }
+                    plugin.getLogger().info("Loaded config: " + paths.get(i) + (loaded.fromCache() ? " (cached)" : ""));
+                }
+            }
+            templateStart = System.nanoTime();
+        }
 
-        // Load mob type configs from config/mobs/types/
-        loadConfigsFromDirectory("config/mobs/types");
+        // Build the weapon skill template index once; weapon merging looks templates up from here
+        Map<String, Map<String, Object>> weaponSkillTemplates = buildWeaponSkillTemplates(configs);
+
+        // Only rewrite the cache when something actually changed on disk
+        if (cacheHits != cacheEntries.size() || cacheEntries.size() != cached.size()) {
+            writeConfigCache(cacheEntries.values());
+        }
+
+        long end = System.nanoTime();
+        plugin.getLogger().info("Loaded " + configs.size() + " configuration file(s) ("
+                + cacheHits + " from cache) in "
+                + formatMillis(end - scanStart) + " (scan " + formatMillis(parseStart - scanStart)
+                + ", parse " + formatMillis(templateStart - parseStart)
+                + ", skill templates " + formatMillis(end - templateStart) + ")");
+
+        return new ConfigSnapshot(Collections.unmodifiableMap(configs), weaponSkillTemplates,
+                Collections.unmodifiableMap(cacheEntries));
+    }
+
+    /**
+     * Reparse only the given files and publish a new snapshot
+     *
+     * Files that no longer exist are dropped; files whose content is unchanged are skipped.
+     * Unchanged files keep their already parsed configuration. Safe to call from an async task.
+     * @param relativePaths Paths relative to the plugin data folder (e.g. "config/weapons/types/swords.yml")
+     * @return What changed (empty if nothing did)
+     */
+    public synchronized ConfigChange reloadChangedConfigs(Collection<String> relativePaths) {
+        long start = System.nanoTime();
+        ConfigSnapshot current = snapshot;
+        Map<String, FileConfiguration> configs = new HashMap<>(current.configs());
+        Map<String, ConfigCache.Entry> cacheEntries = new HashMap<>(current.cacheEntries());
+        Set<String> changed = new LinkedHashSet<>();
+
+        for (String path : relativePaths) {
+            if (!isConfigPath(path)) {
+                continue;
+            }
+
+            if (!new File(plugin.getDataFolder(), path).isFile()) {
+                if (configs.remove(path) != null) {
+                    cacheEntries.remove(path);
+                    changed.add(path);
+                    plugin.getLogger().info("Unloaded config: " + path);
+                }
+                continue;
+            }
+
+            LoadedConfig loaded = loadConfig(path, cacheEntries.get(path));
+            if (loaded == null || loaded.fromCache()) {
+                continue;
+            }
+            configs.put(path, loaded.config());
+            if (loaded.cacheEntry() != null) {
+                cacheEntries.put(path, loaded.cacheEntry());
+            } else {
+                cacheEntries.remove(path);
+            }
+            changed.add(path);
+            plugin.getLogger().info("Reloaded config: " + path);
+        }
+
+        if (changed.isEmpty()) {
+            return new ConfigChange(Set.of(), Set.of());
+        }
+
+        // Keep the full-load order so later files still override earlier ones the same way
+        Map<String, FileConfiguration> ordered = new LinkedHashMap<>();
+        configs.keySet().stream()
+                .sorted(Comparator.comparingInt(ConfigManager::loadOrder).thenComparing(Comparator.naturalOrder()))
+                .forEach(path -> ordered.put(path, configs.get(path)));
+
+        Map<String, Map<String, Object>> weaponSkillTemplates = current.weaponSkillTemplates();
+        Set<String> changedTemplates = new LinkedHashSet<>();
+        if (changed.stream().anyMatch(path -> path.startsWith(WEAPON_SKILLS_DIR))) {
+            Map<String, Map<String, Object>> previous = weaponSkillTemplates;
+            weaponSkillTemplates = buildWeaponSkillTemplates(ordered);
+
+            Set<String> ids = new LinkedHashSet<>(previous.keySet());
+            ids.addAll(weaponSkillTemplates.keySet());
+            for (String id : ids) {
+                if (!Objects.equals(previous.get(id), weaponSkillTemplates.get(id))) {
+                    changedTemplates.add(id);
+                }
+            }
+        }
+
+        writeConfigCache(cacheEntries.values());
+        snapshot = new ConfigSnapshot(Collections.unmodifiableMap(ordered), weaponSkillTemplates,
+                Collections.unmodifiableMap(cacheEntries));
+
+        plugin.getLogger().info("Reloaded " + changed.size() + " changed configuration file(s) in "
+                + formatMillis(System.nanoTime() - start));
+        return new ConfigChange(Collections.unmodifiableSet(changed), Collections.unmodifiableSet(changedTemplates));
+    }
 
-        // Load mob skill configs from config/mobs/skills/
-        loadConfigsFromDirectory("config/mobs/skills");
+    /**
+     * @return true if the path is a file the full load would pick up
+     */
+    private static boolean isConfigPath(String relativePath) {
+        return loadOrder(relativePath) < Integer.MAX_VALUE;
+    }
 
-        // Load skill configs from config/skills/
-        loadConfigsFromDirectory("config/skills");
+    /**
+     * Position of a file in the full-load order: main config first, then CONFIG_DIRECTORIES in order
+     * @return Order index, or Integer.MAX_VALUE if the path is not a loaded config file
+     */
+    private static int loadOrder(String relativePath) {
+        if (MAIN_CONFIG.equals(relativePath)) {
+            return 0;
+        }
+        int slash = relativePath.lastIndexOf('/');
+        if (slash < 0 || !relativePath.endsWith(".yml")) {
+            return Integer.MAX_VALUE;
+        }
+        int index = CONFIG_DIRECTORIES.indexOf(relativePath.substring(0, slash));
+        return index < 0 ? Integer.MAX_VALUE : index + 1;
+    }
 
-        plugin.getLogger().info("Loaded " + configs.size() + " configuration file(s)");
+    /**
+     * Format a nanosecond duration for load-time logs
+     * @param nanos Duration in nanoseconds
+     * @return e.g. "12.3ms"
+     */
+    public static String formatMillis(long nanos) {
+        return String.format(java.util.Locale.ROOT, "%.1fms", nanos / 1_000_000.0);
     }
 
     private void ensureDefaultConfigExists(String relativePath) {
@@ -107,28 +347,81 @@ public class ConfigManager {
     }
 
     /**
-     * Load all yml files from a directory
+     * Wait for a loader task, logging instead of failing the whole load
+     * @param future The task
+     * @param what Path being loaded (for the log message)
+     * @return The task result, or null if it failed
+     */
+    private <T> T await(Future<T> future, String what) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            plugin.getLogger().warning("Interrupted while loading: " + what);
+        } catch (ExecutionException ex) {
+            plugin.getLogger().log(Level.WARNING, "Failed to load: " + what, ex.getCause());
+        }
+        return null;
+    }
+
+    /**
+     * List all yml files in a directory
      * @param relativePath Path relative to plugin data folder
+     * @return Relative paths of the yml files, sorted by name
      */
-    private void loadConfigsFromDirectory(String relativePath) {
+    private List<String> scanDirectory(String relativePath) {
         File dir = new File(plugin.getDataFolder(), relativePath);
         if (!dir.exists() || !dir.isDirectory()) {
-            return;
+            return List.of();
         }
 
-        File[] files = dir.listFiles((d, name) -> name.endsWith(".yml"));
-        if (files != null) {
-            for (File file : files) {
-                loadConfig(relativePath + "/" + file.getName());
-            }
+        String[] names = dir.list((d, name) -> name.endsWith(".yml"));
+        if (names == null) {
+            return List.of();
+        }
+
+        Arrays.sort(names);
+        List<String> paths = new ArrayList<>(names.length);
+        for (String name : names) {
+            paths.add(relativePath + "/" + name);
+        }
+        return paths;
+    }
+
+    /**
+     * Read the compiled-config cache
+     * @return path -> cache entry; empty if there is no usable cache (forces a full parse)
+     */
+    private Map<String, ConfigCache.Entry> readConfigCache() {
+        File cacheFile = new File(plugin.getDataFolder(), CACHE_FILE);
+        try {
+            return ConfigCache.read(cacheFile);
+        } catch (IOException ex) {
+            plugin.getLogger().info("Config cache is stale or unreadable (" + ex.getMessage() + "), parsing all files");
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Write the compiled-config cache; failures only cost a full parse on the next load
+     * @param entries Entries of every cacheable file that was loaded
+     */
+    private void writeConfigCache(Collection<ConfigCache.Entry> entries) {
+        File cacheFile = new File(plugin.getDataFolder(), CACHE_FILE);
+        try {
+            ConfigCache.write(cacheFile, new ArrayList<>(entries));
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Failed to write config cache: " + ex.getMessage());
         }
     }
 
     /**
      * Load a specific configuration file
      * @param relativePath Path relative to plugin data folder (e.g., "config/weapons/types/example.yml")
+     * @param cachedEntry Cache entry from the previous load, or null
+     * @return Loaded configuration, or null if the file is unavailable
      */
-    private void loadConfig(String relativePath) {
+    private LoadedConfig loadConfig(String relativePath, ConfigCache.Entry cachedEntry) {
         File configFile = new File(plugin.getDataFolder(), relativePath);
 
         // Save default file from resources if it doesn't exist
@@ -144,18 +437,45 @@ public class ConfigManager {
             } catch (IllegalArgumentException ex) {
                 // resource 不存在於 jar 內
                 plugin.getLogger().warning("Could not find default config in resources: " + relativePath);
-                return;
+                return null;
             } catch (Exception ex) {
                 plugin.getLogger().severe("Failed to create config file: " + relativePath);
                 plugin.getLogger().severe(ex.getMessage());
-                return;
+                return null;
             }
         }
 
+        byte[] content;
+        try {
+            content = Files.readAllBytes(configFile.toPath());
+        } catch (IOException ex) {
+            plugin.getLogger().severe("Cannot read config file: " + relativePath + " - " + ex.getMessage());
+            return null;
+        }
+
+        long size = content.length;
+        long lastModified = configFile.lastModified();
+        long hash = ConfigCache.hash(content);
+
+        // Unchanged since the last load: rebuild from the cache, skip YAML parsing
+        if (cachedEntry != null && cachedEntry.matches(size, lastModified, hash)) {
+            return new LoadedConfig(ConfigCache.restore(cachedEntry.tree()), cachedEntry, true);
+        }
+
         // Load the configuration
-        FileConfiguration config = YamlConfiguration.loadConfiguration(configFile);
-        configs.put(relativePath, config);
-        plugin.getLogger().info("Loaded config: " + relativePath);
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(new String(content, StandardCharsets.UTF_8));
+        } catch (InvalidConfigurationException ex) {
+            // 與 YamlConfiguration.loadConfiguration 相同：記錄錯誤並回傳空設定（不寫入快取）
+            plugin.getLogger().log(Level.SEVERE, "Cannot load " + relativePath, ex);
+            return new LoadedConfig(config, null, false);
+        }
+
+        Map<String, Object> tree = ConfigCache.capture(config);
+        ConfigCache.Entry entry = tree == null ? null
+                : new ConfigCache.Entry(relativePath, size, lastModified, hash, tree);
+        return new LoadedConfig(config, entry, false);
     }
 
     /**
@@ -164,7 +484,7 @@ public class ConfigManager {
      * @return FileConfiguration, or null if not found
      */
     public FileConfiguration getConfig(String relativePath) {
-        return configs.get(relativePath);
+        return snapshot.configs().get(relativePath);
     }
 
     /**
@@ -172,10 +492,34 @@ public class ConfigManager {
      * @return Map of weapon key to configuration section data
      */
     public Map<String, Map<String, Object>> getAllWeapons() {
+        return buildWeapons(null);
+    }
+
+    /**
+     * Get the weapons defined in some weapon type files (for incremental recompiles)
+     * @param configPaths Relative paths under config/weapons/types/
+     * @return Map of weapon key to configuration section data; each entry has "source-file"
+     */
+    public Map<String, Map<String, Object>> getWeapons(Collection<String> configPaths) {
+        return buildWeapons(configPaths);
+    }
+
+    /**
+     * Merge weapon configs with their skill templates
+     * @param onlyPaths Restrict to these files, or null for every weapon type file
+     */
+    private Map<String, Map<String, Object>> buildWeapons(Collection<String> onlyPaths) {
+        // read the snapshot once so configs and templates always come from the same load
+        ConfigSnapshot current = snapshot;
+        Map<String, FileConfiguration> configs = current.configs();
+        Map<String, Map<String, Object>> weaponSkillTemplates = current.weaponSkillTemplates();
         Map<String, Map<String, Object>> allWeapons = new HashMap<>();
 
         for (String configPath : configs.keySet()) {
-            if (!configPath.startsWith("config/weapons/types/")) {
+            if (!configPath.startsWith(WEAPON_TYPES_DIR)) {
+                continue;
+            }
+            if (onlyPaths != null && !onlyPaths.contains(configPath)) {
                 continue;
             }
 
@@ -235,6 +579,11 @@ public class ConfigManager {
                     extra.put("backstab-enabled", config.getBoolean(key + ".special.backstab-enabled", false));
                     extra.put("backstab-multiplier", config.getDouble(key + ".special.backstab-multiplier", 1.0));
 
+                    // 流血（任何元素都可搭配）
+                    extra.put("bleed-chance", config.getDouble(key + ".special.bleed-chance", 0.0));
+                    extra.put("bleed-damage-per-second", config.getDouble(key + ".special.bleed-damage-per-second", 1.0));
+                    extra.put("bleed-duration-ticks", config.getInt(key + ".special.bleed-duration-ticks", 60));
+
                     // 視覺/音效（支援新位置：special.effects.*，並向下相容舊的 effects.*）
                     extra.put("backstab-sound", config.getString(key + ".special.effects.backstab-sound",
                             config.getString(key + ".effects.backstab-sound", "")));
@@ -243,6 +592,7 @@ public class ConfigManager {
 
                     // 元素效果參數
                     extra.put("burn-duration-ticks", config.getInt(key + ".element.duration-ticks", 100));
+                    extra.put("burn-damage-per-second", config.getDouble(key + ".element.burn-damage-per-second", 1.0));
                     extra.put("lightning-chance", config.getDouble(key + ".element.lightning-chance", 0.3));
 
                     // 冰霜元素參數
@@ -257,6 +607,9 @@ public class ConfigManager {
                     extra.put("poison-duration-ticks", config.getInt(key + ".element.poison-duration-ticks", 100));
                     extra.put("poison-level", config.getInt(key + ".element.poison-level", 1));
                     extra.put("poison-armor-reduction-level", config.getInt(key + ".element.poison-armor-reduction-level", 1));
+                    if (config.contains(key + ".element.poison-damage-per-second")) {
+                        extra.put("poison-damage-per-second", config.getDouble(key + ".element.poison-damage-per-second"));
+                    }
 
                     // 【被動效果】（測試版）
                     // passive.effect: 例如 "kill_crit_boost"
@@ -281,9 +634,8 @@ public class ConfigManager {
                     };
 
                     if (!skillName.isEmpty()) {
-                        Map<String, Map<String, Object>> weaponSkills = getAllWeaponSkills();
-                        if (weaponSkills.containsKey(skillName)) {
-                            Map<String, Object> skillTemplate = weaponSkills.get(skillName);
+                        Map<String, Object> skillTemplate = weaponSkillTemplates.get(skillName);
+                        if (skillTemplate != null) {
 
                             // 1) 先放模板預設值
                             String templateTrigger = String.valueOf(skillTemplate.getOrDefault("trigger", "RIGHT_CLICK"));
@@ -446,6 +798,7 @@ public class ConfigManager {
                     weaponData.put("lore", config.getStringList(key + ".lore"));
                 }
 
+                weaponData.put("source-file", configPath);
                 allWeapons.put(key, weaponData);
             }
         }
@@ -506,6 +859,7 @@ public class ConfigManager {
      * @return Map of skill key to configuration section data
      */
     public Map<String, Map<String, Object>> getAllSkills() {
+        Map<String, FileConfiguration> configs = snapshot.configs();
         Map<String, Map<String, Object>> allSkills = new HashMap<>();
 
         // Load from all skill config files in config/skills/
@@ -532,11 +886,12 @@ public class ConfigManager {
      * @return Map of mob key to configuration section data
      */
     public Map<String, Map<String, Object>> getAllMobs() {
+        Map<String, FileConfiguration> configs = snapshot.configs();
         Map<String, Map<String, Object>> allMobs = new HashMap<>();
 
         // Load from all mob type config files in config/mobs/types/
         for (String configPath : configs.keySet()) {
-            if (configPath.startsWith("config/mobs/types/")) {
+            if (configPath.startsWith(MOB_TYPES_DIR)) {
                 FileConfiguration config = configs.get(configPath);
                 for (String key : config.getKeys(false)) {
                     Map<String, Object> mobData = new HashMap<>();
@@ -555,14 +910,24 @@ public class ConfigManager {
 
     /**
      * Get all weapon skill configurations
-     * @return Map of weapon skill key to configuration section data
+     *
+     * The index is built once per (re)load, so this is a cheap lookup.
+     * @return Read-only map of weapon skill key to configuration section data
      */
     public Map<String, Map<String, Object>> getAllWeaponSkills() {
+        return snapshot.weaponSkillTemplates();
+    }
+
+    /**
+     * Parse every config/weapons/skills/*.yml into the skill template index (single pass)
+     * @return Read-only map of weapon skill key to configuration section data
+     */
+    private Map<String, Map<String, Object>> buildWeaponSkillTemplates(Map<String, FileConfiguration> configs) {
         Map<String, Map<String, Object>> allWeaponSkills = new HashMap<>();
 
         // Load from all weapon skill config files in config/weapons/skills/
         for (String configPath : configs.keySet()) {
-            if (configPath.startsWith("config/weapons/skills/")) {
+            if (configPath.startsWith(WEAPON_SKILLS_DIR)) {
                 FileConfiguration config = configs.get(configPath);
                 for (String key : config.getKeys(false)) {
                     Map<String, Object> skillData = new HashMap<>();
@@ -594,12 +959,14 @@ public class ConfigManager {
                     skillData.put("name", config.getString(key + ".name", key));
                     skillData.put("effect", config.getString(key + ".effect", ""));
 
-                    allWeaponSkills.put(key, skillData);
+                    if (allWeaponSkills.put(key, Collections.unmodifiableMap(skillData)) != null) {
+                        plugin.getLogger().warning("Duplicate weapon skill '" + key + "' in " + configPath + " overrides an earlier definition");
+                    }
                 }
             }
         }
 
-        return allWeaponSkills;
+        return Collections.unmodifiableMap(allWeaponSkills);
     }
 
     /**
@@ -607,6 +974,7 @@ public class ConfigManager {
      * @return Map of mob skill key to configuration section data
      */
     public Map<String, Map<String, Object>> getAllMobSkills() {
+        Map<String, FileConfiguration> configs = snapshot.configs();
         Map<String, Map<String, Object>> allMobSkills = new HashMap<>();
 
         // Load from all mob skill config files in config/mobs/skills/
@@ -629,10 +997,13 @@ public class ConfigManager {
 
     /**
      * Reload all configuration files
+     *
+     * Builds a new snapshot first and swaps it in afterwards; the previous configuration
+     * stays visible until the swap. Safe to call from an async task.
      */
-    public void reloadAllConfigs() {
-        configs.clear();
-        loadAllConfigs();
+    public synchronized void reloadAllConfigs() {
+        ConfigSnapshot next = loadAllConfigs();
+        snapshot = next;
         plugin.getLogger().info("Reloaded all configuration files");
     }
 
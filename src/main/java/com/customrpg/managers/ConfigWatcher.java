@@ -0,0 +1,180 @@
+package com.customrpg.managers;
+
+import com.customrpg.CustomRPG;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * ConfigWatcher - Watches plugins/CustomRPG/config/** for edits
+ *
+ * Collects changed *.yml paths and hands them over in one batch once no new event
+ * arrived for the debounce period (editors often write a file several times per save).
+ * The callback runs on the watcher thread, never on the server main thread.
+ */
+public class ConfigWatcher {
+
+    private final CustomRPG plugin;
+    private final Path configRoot;
+    private final long debounceMillis;
+    private final Consumer<Set<String>> onChange;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * @param plugin Main plugin instance
+     * @param debounceMillis Quiet period before a batch of changes is applied
+     * @param onChange Receives changed paths relative to the data folder (e.g. "config/weapons/types/swords.yml")
+     */
+    public ConfigWatcher(CustomRPG plugin, long debounceMillis, Consumer<Set<String>> onChange) {
+        this.plugin = plugin;
+        this.configRoot = plugin.getDataFolder().toPath().resolve("config");
+        this.debounceMillis = Math.max(50L, debounceMillis);
+        this.onChange = onChange;
+    }
+
+    /**
+     * Register the config tree and start the watcher thread
+     * @throws IOException if the watch service cannot be created
+     */
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        registerTree(configRoot);
+
+        thread = new Thread(this::run, "CustomRPG-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop watching; pending (not yet debounced) changes are dropped
+     */
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+                // closing anyway
+            }
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        Set<String> pending = new LinkedHashSet<>();
+        long deadline = 0L;
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key;
+                if (pending.isEmpty()) {
+                    key = watchService.take();
+                } else {
+                    long wait = deadline - System.currentTimeMillis();
+                    key = wait > 0 ? watchService.poll(wait, TimeUnit.MILLISECONDS) : null;
+                }
+
+                if (key == null) {
+                    // quiet period elapsed: apply the batch
+                    Set<String> batch = new LinkedHashSet<>(pending);
+                    pending.clear();
+                    apply(batch);
+                    continue;
+                }
+
+                collect(key, pending);
+                deadline = System.currentTimeMillis() + debounceMillis;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            // stopped
+        }
+    }
+
+    private void collect(WatchKey key, Set<String> pending) {
+        Path dir = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // events were lost: re-check every file (unchanged ones are skipped by fingerprint)
+                addAllFiles(pending);
+                continue;
+            }
+            if (dir == null) {
+                continue;
+            }
+
+            Path child = dir.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                registerTree(child);
+                addAllFiles(pending);
+                continue;
+            }
+            if (child.getFileName().toString().endsWith(".yml")) {
+                pending.add(toRelativePath(child));
+            }
+        }
+
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    private void apply(Set<String> batch) {
+        try {
+            onChange.accept(batch);
+        } catch (Exception ex) {
+            plugin.getLogger().log(Level.SEVERE, "Hot reload failed; previous configuration is kept", ex);
+        }
+    }
+
+    private void registerTree(Path root) {
+        try (Stream<Path> dirs = Files.walk(root)) {
+            dirs.filter(Files::isDirectory).forEach(dir -> {
+                try {
+                    WatchKey key = dir.register(watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY,
+                            StandardWatchEventKinds.ENTRY_DELETE);
+                    directories.put(key, dir);
+                } catch (IOException ex) {
+                    plugin.getLogger().warning("Failed to watch directory: " + dir + " - " + ex.getMessage());
+                }
+            });
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Failed to watch directory: " + root + " - " + ex.getMessage());
+        }
+    }
+
+    private void addAllFiles(Set<String> pending) {
+        try (Stream<Path> files = Files.walk(configRoot)) {
+            files.filter(p -> p.getFileName().toString().endsWith(".yml"))
+                    .forEach(p -> pending.add(toRelativePath(p)));
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Failed to scan config directory: " + ex.getMessage());
+        }
+    }
+
+    private String toRelativePath(Path file) {
+        return "config/" + configRoot.relativize(file).toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,439 @@
+package com.customrpg.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * CooldownService - 全插件共用的冷卻引擎
+ *
+ * 取代原本各自一套的 CooldownUtil（舊技能）、weaponSkills CooldownManager（武器技能）、
+ * PassiveEffectManager 的被動冷卻與 WeaponListener 的冷卻提示節流。
+ *
+ * - 冷卻依 {@link Category} 分命名空間，key 第一次使用時轉成 int id（{@link #keyId(Category, String)}）
+ * - 每位玩家一個 long[]，readyAt[id] = 可以再次使用的 server tick（0 = 沒有冷卻）；
+ *   以 id 查詢 / 套用不建立字串、不 boxing。以 tick 計時，伺服器 lag 時冷卻跟著遊戲時間走
+ * - 玩家離線時沒有冷卻中的項目就立即釋放；還有的話保留（重新登入不會重置冷卻），
+ *   最後一個冷卻到期時由 timing wheel 釋放
+ * - Hashed timing wheel：套用冷卻時在到期 tick 的槽位記一筆，每 tick 只處理當前槽位，
+ *   已到期的清掉（O(到期數)）；讓 {@link #getActiveCooldowns(UUID)}（指令、HUD）只列出真正在冷卻中的
+ *
+ * Main thread only.
+ */
+public class CooldownService implements Listener {
+
+    /**
+     * 冷卻的命名空間
+     */
+    public enum Category {
+        // 新技能系統：每把武器 + 技能
+        WEAPON_SKILL("weapon_skill", "武器技能"),
+        // 舊技能系統 (config/skills)
+        SKILL("skill", "技能"),
+        // 武器被動
+        PASSIVE("passive", "被動"),
+        // 訊息提示節流（例如「冷卻中」不要每次都講）
+        NOTIFY("notify", "提示");
+
+        private final String id;
+        private final String displayName;
+
+        Category(String id, String displayName) {
+            this.id = id;
+            this.displayName = displayName;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * 一筆冷卻中的項目（查詢用）
+     * @param category Namespace
+     * @param name Key within the namespace
+     * @param remainingTicks Ticks until ready (always > 0)
+     */
+    public record ActiveCooldown(Category category, String name, long remainingTicks) {}
+
+    /**
+     * 一位玩家的冷卻
+     */
+    private static final class Session {
+        private final UUID uuid;
+        private final int slot;
+        private long[] readyAt = new long[INITIAL_CAPACITY];
+        // readyAt 中非 0 的數量
+        private int active;
+        // 玩家已離線，active 歸 0 時釋放
+        private boolean offline;
+
+        Session(UUID uuid, int slot) {
+            this.uuid = uuid;
+            this.slot = slot;
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+    // 槽位數（ticks），2 的次方；更長的冷卻在同一槽位多等幾圈
+    private static final int WHEEL_SIZE = 1024;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final Map<UUID, Session> sessions = new HashMap<>();
+    // session slot -> session（wheel 記的是 slot，離線後為 null，slot 之後重用）
+    private Session[] sessionTable = new Session[64];
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int nextSlot;
+
+    // key 轉 id：每個命名空間一張表，反查用 keyCategory / keyName
+    private final Map<Category, Map<String, Integer>> keyIds = new EnumMap<>(Category.class);
+    private Category[] keyCategory = new Category[64];
+    private String[] keyName = new String[64];
+    private int keyCount;
+    // weaponKey -> skillId -> id（用呼叫端的字串直接查，不串接）
+    private final Map<String, Map<String, Integer>> weaponSkillIds = new HashMap<>();
+
+    // timing wheel：每個槽位是 (session slot << 32 | key id) 的 long 陣列
+    private final long[][] wheel = new long[WHEEL_SIZE][];
+    private final int[] wheelSizes = new int[WHEEL_SIZE];
+    private long lastSweptTick;
+    private final BukkitTask sweepTask;
+
+    public CooldownService(Plugin plugin) {
+        for (Category category : Category.values()) {
+            keyIds.put(category, new HashMap<>());
+        }
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new long[8];
+        }
+        this.lastSweptTick = now();
+        this.sweepTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::sweep, 1L, 1L);
+    }
+
+    /**
+     * @return Current server tick
+     */
+    public static long now() {
+        return Bukkit.getCurrentTick();
+    }
+
+    /**
+     * @param millis Duration in milliseconds
+     * @return Duration in ticks (rounded up)
+     */
+    public static long toTicks(long millis) {
+        return millis <= 0 ? 0L : (millis + 49L) / 50L;
+    }
+
+    // ===== key ids =====
+
+    /**
+     * 取得（第一次時建立）key 的 id
+     * @param category Namespace
+     * @param name Key (trimmed, case-insensitive)
+     * @return Id for the id-based methods, or -1 if the key is blank
+     */
+    public int keyId(Category category, String name) {
+        String key = name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) {
+            return -1;
+        }
+        Map<String, Integer> ids = keyIds.get(category);
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+
+        int newId = keyCount++;
+        if (newId >= keyName.length) {
+            keyName = Arrays.copyOf(keyName, keyName.length * 2);
+            keyCategory = Arrays.copyOf(keyCategory, keyCategory.length * 2);
+        }
+        keyName[newId] = key;
+        keyCategory[newId] = category;
+        ids.put(key, newId);
+        return newId;
+    }
+
+    /**
+     * 武器技能冷卻的 id（每把武器 + 技能各自獨立）；已查過的組合只是兩次 map 查詢
+     * @param weaponKey Weapon key
+     * @param skillId Skill id
+     * @return Cooldown id
+     */
+    public int weaponSkillId(String weaponKey, String skillId) {
+        Map<String, Integer> perWeapon = weaponSkillIds.get(weaponKey);
+        if (perWeapon != null) {
+            Integer id = perWeapon.get(skillId);
+            if (id != null) {
+                return id;
+            }
+        }
+        int id = keyId(Category.WEAPON_SKILL, weaponKey + ":" + skillId);
+        weaponSkillIds.computeIfAbsent(weaponKey, unused -> new HashMap<>()).put(skillId, id);
+        return id;
+    }
+
+    // ===== id 版本（熱路徑） =====
+
+    /**
+     * @return true if the key is not on cooldown
+     */
+    public boolean isReady(Player player, int keyId) {
+        if (player == null || keyId < 0) {
+            return false;
+        }
+        return readyAt(player.getUniqueId(), keyId) <= now();
+    }
+
+    /**
+     * 開始冷卻（已在冷卻中則以這次為準）
+     * @param ticks Cooldown length in ticks
+     */
+    public void start(Player player, int keyId, long ticks) {
+        if (player == null || keyId < 0 || ticks <= 0) {
+            return;
+        }
+        Session session = sessions.get(player.getUniqueId());
+        if (session == null) {
+            session = openSession(player.getUniqueId());
+        }
+        if (keyId >= session.readyAt.length) {
+            session.readyAt = Arrays.copyOf(session.readyAt, Math.max(keyId + 1, session.readyAt.length * 2));
+        }
+
+        long readyAt = now() + ticks;
+        if (session.readyAt[keyId] == 0L) {
+            session.active++;
+        }
+        session.readyAt[keyId] = readyAt;
+        schedule(readyAt, ((long) session.slot << 32) | keyId);
+    }
+
+    /**
+     * 不在冷卻中就開始冷卻（節流用）
+     * @return true if the key was ready (and is now on cooldown)
+     */
+    public boolean tryStart(Player player, int keyId, long ticks) {
+        if (!isReady(player, keyId)) {
+            return false;
+        }
+        start(player, keyId, ticks);
+        return true;
+    }
+
+    /**
+     * @return Remaining cooldown in ticks, 0 if ready
+     */
+    public long getRemainingTicks(Player player, int keyId) {
+        if (player == null || keyId < 0) {
+            return 0L;
+        }
+        return Math.max(0L, readyAt(player.getUniqueId(), keyId) - now());
+    }
+
+    private long readyAt(UUID uuid, int keyId) {
+        Session session = sessions.get(uuid);
+        if (session == null || keyId >= session.readyAt.length) {
+            return 0L;
+        }
+        return session.readyAt[keyId];
+    }
+
+    // ===== 字串版本 =====
+
+    public boolean isReady(Player player, Category category, String name) {
+        return isReady(player, keyId(category, name));
+    }
+
+    public void start(Player player, Category category, String name, long ticks) {
+        start(player, keyId(category, name), ticks);
+    }
+
+    public long getRemainingTicks(Player player, Category category, String name) {
+        return getRemainingTicks(player, keyId(category, name));
+    }
+
+    // ===== 查詢（指令 / HUD） =====
+
+    /**
+     * @param uuid Player UUID
+     * @return Everything the player currently has on cooldown, soonest first
+     */
+    public List<ActiveCooldown> getActiveCooldowns(UUID uuid) {
+        Session session = sessions.get(uuid);
+        if (session == null || session.active == 0) {
+            return List.of();
+        }
+        long now = now();
+        List<ActiveCooldown> result = new ArrayList<>(session.active);
+        long[] readyAt = session.readyAt;
+        for (int id = 0; id < readyAt.length; id++) {
+            if (readyAt[id] > now) {
+                result.add(new ActiveCooldown(keyCategory[id], keyName[id], readyAt[id] - now));
+            }
+        }
+        result.sort((a, b) -> Long.compare(a.remainingTicks(), b.remainingTicks()));
+        return result;
+    }
+
+    /**
+     * @return Number of players with cooldown data (including offline players with running cooldowns)
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    // ===== 清除 =====
+
+    /**
+     * 清除一位玩家的所有冷卻
+     */
+    public void clearPlayer(UUID uuid) {
+        Session session = sessions.remove(uuid);
+        if (session != null) {
+            // wheel 中指向這個 slot 的紀錄之後處理時會被略過或無害地清掉
+            sessionTable[session.slot] = null;
+            freeSlots.push(session.slot);
+        }
+    }
+
+    /**
+     * 清除某個命名空間的所有冷卻
+     */
+    public void clearCategory(Category category) {
+        List<UUID> released = new ArrayList<>();
+        for (Session session : sessions.values()) {
+            for (int id = 0; id < session.readyAt.length && id < keyCount; id++) {
+                if (keyCategory[id] == category && session.readyAt[id] != 0L) {
+                    session.readyAt[id] = 0L;
+                    session.active--;
+                }
+            }
+            if (session.offline && session.active == 0) {
+                released.add(session.uuid);
+            }
+        }
+        for (UUID uuid : released) {
+            clearPlayer(uuid);
+        }
+    }
+
+    /**
+     * 關服時呼叫
+     */
+    public void shutdown() {
+        sweepTask.cancel();
+        sessions.clear();
+        Arrays.fill(sessionTable, null);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        Session session = sessions.get(event.getPlayer().getUniqueId());
+        if (session == null) {
+            return;
+        }
+        if (session.active == 0) {
+            clearPlayer(session.uuid);
+        } else {
+            // 冷卻繼續計時，重新登入不會重置
+            session.offline = true;
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        Session session = sessions.get(event.getPlayer().getUniqueId());
+        if (session != null) {
+            session.offline = false;
+        }
+    }
+
+    // ===== timing wheel =====
+
+    private Session openSession(UUID uuid) {
+        Integer free = freeSlots.poll();
+        int slot = free != null ? free : nextSlot++;
+        if (slot >= sessionTable.length) {
+            sessionTable = Arrays.copyOf(sessionTable, sessionTable.length * 2);
+        }
+        Session session = new Session(uuid, slot);
+        sessionTable[slot] = session;
+        sessions.put(uuid, session);
+        return session;
+    }
+
+    private void schedule(long tick, long entry) {
+        int bucket = (int) (tick & WHEEL_MASK);
+        int size = wheelSizes[bucket];
+        if (size == wheel[bucket].length) {
+            wheel[bucket] = Arrays.copyOf(wheel[bucket], size * 2);
+        }
+        wheel[bucket][size] = entry;
+        wheelSizes[bucket] = size + 1;
+    }
+
+    /**
+     * 每 tick：處理上次之後經過的槽位（正常只有一個）
+     */
+    private void sweep() {
+        long now = now();
+        long from = Math.max(lastSweptTick + 1, now - WHEEL_SIZE + 1);
+        for (long tick = from; tick <= now; tick++) {
+            sweepBucket((int) (tick & WHEEL_MASK), now);
+        }
+        lastSweptTick = now;
+    }
+
+    private void sweepBucket(int bucket, long now) {
+        long[] entries = wheel[bucket];
+        int size = wheelSizes[bucket];
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            long entry = entries[i];
+            Session session = sessionTable[(int) (entry >>> 32)];
+            int keyId = (int) entry;
+            if (session == null || keyId >= session.readyAt.length) {
+                continue;
+            }
+            long readyAt = session.readyAt[keyId];
+            if (readyAt == 0L) {
+                continue;
+            }
+            if (readyAt <= now) {
+                session.readyAt[keyId] = 0L;
+                if (--session.active == 0 && session.offline) {
+                    // 離線玩家的最後一個冷卻到期
+                    clearPlayer(session.uuid);
+                }
+            } else if ((readyAt & WHEEL_MASK) == bucket) {
+                // 比一圈長的冷卻（或在同一槽位重新開始的），下一圈再看
+                entries[kept++] = entry;
+            }
+            // 其他：冷卻已被重新開始，新的到期時間在別的槽位有自己的紀錄
+        }
+        wheelSizes[bucket] = kept;
+    }
+}
@@ -0,0 +1,138 @@
+package com.customrpg.managers;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * HeldWeaponCache - 每位玩家主手武器的解析結果快取
+ *
+ * getItemMeta() 每次都會複製整份 meta，戰鬥/互動事件又很頻繁，
+ * 所以主手武器只在「可能換手」時重新解析：切換快捷欄、副手交換、
+ * 背包點擊/拖曳、撿起、丟棄、物品損壞時清掉該玩家的快取。
+ *
+ * 另外記錄解析當下的材質與武器表版本，材質不同或武器重載後也會重新解析，
+ * 避免指令 / 其他插件直接改背包時拿到舊資料。
+ *
+ * Main thread only (Bukkit events).
+ */
+public class HeldWeaponCache implements Listener {
+
+    private final WeaponManager weaponManager;
+    private final Map<UUID, Entry> cache = new HashMap<>();
+
+    /**
+     * @param material Main-hand material when resolved
+     * @param registryVersion WeaponManager registry version when resolved
+     * @param weapon Resolved weapon, or null if the item is not a custom weapon
+     */
+    private record Entry(Material material, int registryVersion, WeaponManager.WeaponData weapon) {}
+
+    public HeldWeaponCache(WeaponManager weaponManager) {
+        this.weaponManager = weaponManager;
+    }
+
+    /**
+     * Get the custom weapon in the player's main hand
+     * @param player Player
+     * @return WeaponData, or null if the main hand holds no custom weapon
+     */
+    public WeaponManager.WeaponData getMainHandWeapon(Player player) {
+        ItemStack item = player.getInventory().getItemInMainHand();
+        Material material = item.getType();
+        int version = weaponManager.getRegistryVersion();
+
+        Entry entry = cache.get(player.getUniqueId());
+        if (entry != null && entry.material() == material && entry.registryVersion() == version) {
+            return entry.weapon();
+        }
+
+        WeaponManager.WeaponData weapon = null;
+        if (weaponManager.isWeaponMaterial(material)) {
+            String weaponKey = weaponManager.getWeaponKey(item);
+            if (weaponKey != null) {
+                weapon = weaponManager.getWeaponData(weaponKey);
+            }
+        }
+
+        cache.put(player.getUniqueId(), new Entry(material, version, weapon));
+        return weapon;
+    }
+
+    /**
+     * Drop the cached main-hand weapon of a player
+     * @param player Player
+     */
+    public void invalidate(Player player) {
+        cache.remove(player.getUniqueId());
+    }
+
+    // ===== invalidation =====
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onSwapHand(PlayerSwapHandItemsEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            invalidate(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            invalidate(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPickup(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            invalidate(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDrop(PlayerDropItemEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        invalidate(event.getPlayer());
+    }
+}
@@ -8,6 +8,7 @@ import org.bukkit.entity.LivingEntity;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.NamespacedKey;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,11 +23,13 @@ import java.util.Map;
  * - Snow Zombie: Throws snowballs
  * - Fire Skeleton: Shoots fire arrows
  * - Giant Slime: Extra large, splits on death
+ *
+ * The mob registry is an immutable map replaced as a whole on reload (volatile swap).
  */
 public class MobManager {
 
     private final CustomRPG plugin;
-    private final Map<String, MobData> mobTypes;
+    private volatile Map<String, MobData> mobTypes;
     private final NamespacedKey customMobKey;
     private final ConfigManager configManager;
 
@@ -38,20 +41,21 @@ public class MobManager {
     public MobManager(CustomRPG plugin, ConfigManager configManager) {
         this.plugin = plugin;
         this.configManager = configManager;
-        this.mobTypes = new HashMap<>();
         this.customMobKey = new NamespacedKey(plugin, "custom_mob_type");
-        loadMobTypes();
+        this.mobTypes = loadMobTypes();
     }
 
     /**
      * Load all custom mob types from config/mobs/types/ folder
+     * @return Immutable map of mob key to MobData
      */
-    private void loadMobTypes() {
+    private Map<String, MobData> loadMobTypes() {
         Map<String, Map<String, Object>> allMobs = configManager.getAllMobs();
+        Map<String, MobData> mobTypes = new HashMap<>();
 
         if (allMobs.isEmpty()) {
             plugin.getLogger().warning("No mobs found in config/mobs/types/ folder");
-            return;
+            return Collections.unmodifiableMap(mobTypes);
         }
 
         for (Map.Entry<String, Map<String, Object>> entry : allMobs.entrySet()) {
@@ -71,6 +75,17 @@ public class MobManager {
             mobTypes.put(mobKey, mobData);
             plugin.getLogger().info("Loaded custom mob: " + mobData.getName());
         }
+        return Collections.unmodifiableMap(mobTypes);
+    }
+
+    /**
+     * Rebuild mob types from the current config snapshot (no file parsing involved)
+     *
+     * Safe to call from an async task.
+     */
+    public void reloadMobTypes() {
+        Map<String, MobData> next = loadMobTypes();
+        mobTypes = next;
     }
 
     /**
@@ -0,0 +1,538 @@
+package com.customrpg.managers;
+
+import com.customrpg.CustomRPG;
+import com.customrpg.players.PlayerStats;
+import com.customrpg.players.StatsTransform;
+import com.customrpg.storage.PlayerStatsStorage;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * PlayerStatsBulkJob - 對儲存後端中所有玩家（含離線）套用一個 {@link StatsTransform}（/rpg bulk）
+ *
+ * 流程：
+ * - reader：以 PlayerStatsStorage#forEach(after, ...) 依 UUID 順序串流讀取，每 batch-size 筆切成一個 chunk
+ * - workers：固定數量的執行緒平行反序列化並套用轉換
+ * - 主執行緒：由 PlayerStatsManager 與快取協調（快取中的玩家直接改記憶體中的 PlayerStats，
+ *   有尚未寫入的快照則以快照為準），其餘變動排入 writer
+ * - writer：寫完一個 chunk 後推進 checkpoint（所有更早的 chunk 都完成才算），存到 data/bulk-job.yml
+ *
+ * 同時在途的 chunk 數有上限，不論玩家多少，記憶體中只會有固定筆數；主執行緒每個 chunk 只做快取查詢。
+ * 中斷（取消、關服、寫入失敗）後可用 /rpg bulk resume 從 checkpoint 接續；dry-run 只統計不寫入，也不存 checkpoint。
+ */
+public class PlayerStatsBulkJob {
+
+    public enum State {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    /**
+     * PlayerStatsManager#applyBulk 的結果
+     */
+    enum Outcome {
+        UNCHANGED,
+        CHANGED,
+        // 快取中的玩家，直接改了記憶體中的數據
+        CHANGED_CACHED,
+        // 掃描開始後這位玩家被一般流程寫入過，讀到的數據可能過期，需要重讀
+        STALE
+    }
+
+    /**
+     * 已存的 checkpoint（data/bulk-job.yml）
+     * @param storage PlayerStatsStorage#getName() the job ran against
+     * @param operation StatsTransform#getSpec()
+     * @param after Last uuid whose chunk was fully written, or null if none yet
+     * @param processed Players processed up to the checkpoint
+     */
+    public record Checkpoint(String storage, String operation, UUID after, long processed) {}
+
+    private record Item(UUID uuid, PlayerStats.Snapshot stored, PlayerStats.Snapshot transformed, long readAt) {}
+
+    private static final class Chunk {
+        private final long seq;
+        private final UUID last;
+        private final int size;
+        // 主執行緒套用 + 每次重讀各算一份，全部完成才算這個 chunk 完成
+        private final AtomicInteger parts = new AtomicInteger(1);
+        // inFlight 名額只歸還一次（完成或被丟棄）
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private volatile boolean failed;
+
+        Chunk(long seq, UUID last, int size) {
+            this.seq = seq;
+            this.last = last;
+            this.size = size;
+        }
+    }
+
+    // forEach 中途停止用，不需要 stack trace
+    private static final class StopScan extends RuntimeException {
+        StopScan() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final long CHECKPOINT_INTERVAL_NANOS = 1_000_000_000L;
+    private static final long READER_JOIN_MILLIS = 2000L;
+
+    private final CustomRPG plugin;
+    private final PlayerStatsManager manager;
+    private final PlayerStatsStorage storage;
+    private final StatsTransform transform;
+    private final boolean dryRun;
+    private final Checkpoint resumeFrom;
+    private final File checkpointFile;
+    private final int batchSize;
+    private final ExecutorService workers;
+    private final Semaphore inFlight;
+    private final Consumer<String> reporter;
+    private final long startedAt = System.currentTimeMillis();
+
+    private final AtomicBoolean stopping = new AtomicBoolean(false);
+    private volatile State state = State.RUNNING;
+    private volatile boolean finished;
+    private volatile String failure;
+    private BukkitTask progressTask;
+    private Thread reader;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder changed = new LongAdder();
+    private final LongAdder changedCached = new LongAdder();
+    private final LongAdder reloaded = new LongAdder();
+
+    // uuid -> 一般流程（非本工作）寫入完成的時間，writer 執行緒記錄
+    private final Map<UUID, Long> writtenAt = new ConcurrentHashMap<>();
+    private volatile long scanStartedAt;
+
+    // reader 執行緒
+    private List<Map.Entry<UUID, Map<String, Object>>> buffer = new ArrayList<>();
+    private long nextSeq;
+
+    // writer 執行緒：checkpoint 與完成判定
+    private final TreeMap<Long, Chunk> completed = new TreeMap<>();
+    private long nextToCommit;
+    private long finishedChunks;
+    private volatile long committedRecords;
+    private long lastCheckpointSave;
+    private volatile UUID checkpoint;
+    private volatile long totalChunks = -1;
+
+    PlayerStatsBulkJob(CustomRPG plugin, PlayerStatsManager manager, PlayerStatsStorage storage, StatsTransform transform,
+                       boolean dryRun, Checkpoint resumeFrom, File checkpointFile, int workerCount, int batchSize,
+                       Consumer<String> reporter) {
+        this.plugin = plugin;
+        this.manager = manager;
+        this.storage = storage;
+        this.transform = transform;
+        this.dryRun = dryRun;
+        this.resumeFrom = resumeFrom;
+        this.checkpointFile = checkpointFile;
+        this.batchSize = batchSize;
+        this.reporter = reporter;
+        this.checkpoint = resumeFrom == null ? null : resumeFrom.after();
+        this.committedRecords = resumeFrom == null ? 0L : resumeFrom.processed();
+
+        AtomicInteger threadId = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                r -> new Thread(r, "CustomRPG-Bulk-" + threadId.incrementAndGet()));
+        // 讀取、轉換、等待主執行緒與寫入中的 chunk 總數上限
+        this.inFlight = new Semaphore(workerCount * 2);
+    }
+
+    /**
+     * 開始掃描（主執行緒呼叫，由 PlayerStatsManager 建立後啟動）
+     */
+    void start() {
+        progressTask = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> report(getProgressLine()), 100L, 100L);
+        reader = new Thread(this::read, "CustomRPG-BulkReader");
+        // 不能擋住 JVM 結束；關服時會中斷並等待它關閉 forEach 的游標
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * 要求停止：不再讀取新的 chunk，已在途的照常寫完（checkpoint 保留，可接續）
+     */
+    public void cancel() {
+        stopping.set(true);
+    }
+
+    /**
+     * 關服時呼叫：停止讀取與轉換，不再回到主執行緒
+     */
+    void shutdown() {
+        stopping.set(true);
+        // 還沒開始轉換就被丟棄的 chunk 不會再回報完成，直接歸還名額
+        List<Runnable> dropped = workers.shutdownNow();
+        if (!dropped.isEmpty()) {
+            inFlight.release(dropped.size());
+        }
+        if (progressTask != null) {
+            progressTask.cancel();
+        }
+
+        Thread thread = reader;
+        if (thread != null && thread.isAlive()) {
+            thread.interrupt();
+            try {
+                thread.join(READER_JOIN_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                plugin.getLogger().warning("批次工作讀取執行緒未在 " + READER_JOIN_MILLIS + "ms 內結束");
+            }
+        }
+    }
+
+    // ===== reader =====
+
+    private void read() {
+        scanStartedAt = System.nanoTime();
+        try {
+            storage.forEach(checkpoint, (uuid, data) -> {
+                if (stopping.get()) {
+                    throw new StopScan();
+                }
+                buffer.add(Map.entry(uuid, data));
+                if (buffer.size() >= batchSize) {
+                    dispatch();
+                }
+            });
+            if (!buffer.isEmpty() && !stopping.get()) {
+                dispatch();
+            }
+        } catch (StopScan e) {
+            // 取消或關服
+        } catch (IOException | RuntimeException e) {
+            // 關服中斷的 I/O 不算失敗
+            if (!stopping.get()) {
+                fail("讀取玩家數據失敗: " + e.getMessage(), e);
+            }
+        } finally {
+            workers.shutdown();
+            long total = nextSeq;
+            manager.runOnWriter(() -> {
+                totalChunks = total;
+                checkFinished();
+            });
+        }
+    }
+
+    private void dispatch() {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StopScan();
+        }
+        List<Map.Entry<UUID, Map<String, Object>>> entries = buffer;
+        buffer = new ArrayList<>(batchSize);
+        Chunk chunk = new Chunk(nextSeq++, entries.get(entries.size() - 1).getKey(), entries.size());
+        workers.execute(() -> transformChunk(chunk, entries));
+    }
+
+    // ===== workers =====
+
+    private void transformChunk(Chunk chunk, List<Map.Entry<UUID, Map<String, Object>>> entries) {
+        List<Item> items = new ArrayList<>(entries.size());
+        try {
+            for (Map.Entry<UUID, Map<String, Object>> entry : entries) {
+                PlayerStats.Snapshot stored = PlayerStats.deserialize(entry.getValue()).snapshot();
+                items.add(new Item(entry.getKey(), stored, transform.apply(stored), scanStartedAt));
+            }
+        } catch (RuntimeException e) {
+            fail("轉換玩家數據失敗: " + e.getMessage(), e);
+            chunk.failed = true;
+            manager.runOnWriter(() -> partDone(chunk));
+            return;
+        }
+        toMainThread(chunk, () -> apply(chunk, items));
+    }
+
+    /**
+     * 排到主執行緒；關服中不會再執行，這個 chunk 直接歸還名額
+     */
+    private void toMainThread(Chunk chunk, Runnable task) {
+        if (plugin.isEnabled()) {
+            try {
+                plugin.getServer().getScheduler().runTask(plugin, task);
+                return;
+            } catch (IllegalStateException e) {
+                // 排程期間插件被停用
+            }
+        }
+        release(chunk);
+    }
+
+    private void release(Chunk chunk) {
+        if (chunk.released.compareAndSet(false, true)) {
+            inFlight.release();
+        }
+    }
+
+    // ===== 主執行緒 =====
+
+    private void apply(Chunk chunk, List<Item> items) {
+        Map<UUID, Map<String, Object>> batch = new HashMap<>();
+        List<UUID> stale = new ArrayList<>();
+        for (Item item : items) {
+            switch (manager.applyBulk(this, item.uuid(), item.stored(), item.transformed(), item.readAt(), batch)) {
+                case CHANGED -> changed.increment();
+                case CHANGED_CACHED -> {
+                    changed.increment();
+                    changedCached.increment();
+                }
+                case STALE -> {
+                    stale.add(item.uuid());
+                    continue;
+                }
+                case UNCHANGED -> {
+                }
+            }
+            processed.increment();
+        }
+
+        if (!stale.isEmpty()) {
+            chunk.parts.incrementAndGet();
+            reload(chunk, stale);
+        }
+        manager.submitBulkWrites(this, dryRun ? Map.of() : batch, () -> partDone(chunk));
+    }
+
+    /**
+     * 重讀掃描後被寫入過的玩家，再回到主執行緒套用
+     */
+    private void reload(Chunk chunk, List<UUID> uuids) {
+        reloaded.add(uuids.size());
+        long readAt = System.nanoTime();
+        List<CompletableFuture<PlayerStats.Snapshot>> futures = new ArrayList<>(uuids.size());
+        for (UUID uuid : uuids) {
+            futures.add(manager.getStatsAsync(uuid));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            if (error != null) {
+                fail("重新讀取玩家數據失敗: " + error.getMessage(), error);
+                chunk.failed = true;
+                manager.runOnWriter(() -> partDone(chunk));
+                return;
+            }
+            List<Item> items = new ArrayList<>(uuids.size());
+            for (int i = 0; i < uuids.size(); i++) {
+                PlayerStats.Snapshot stored = futures.get(i).join();
+                items.add(new Item(uuids.get(i), stored, transform.apply(stored), readAt));
+            }
+            toMainThread(chunk, () -> apply(chunk, items));
+        });
+    }
+
+    // ===== writer 執行緒 =====
+
+    /**
+     * 一般流程寫入完成（writer 執行緒）；之後套用到這些玩家前需要重讀
+     */
+    void noteWritten(Iterable<UUID> uuids) {
+        long now = System.nanoTime();
+        for (UUID uuid : uuids) {
+            writtenAt.put(uuid, now);
+        }
+    }
+
+    boolean writtenSince(UUID uuid, long readAt) {
+        Long written = writtenAt.get(uuid);
+        return written != null && written >= readAt;
+    }
+
+    /**
+     * 本工作的寫入失敗（writer 執行緒）；數據留給一般流程重試，checkpoint 停在這個 chunk 之前
+     */
+    void writeFailed(IOException e) {
+        fail("寫入玩家數據失敗: " + e.getMessage(), e);
+    }
+
+    private void partDone(Chunk chunk) {
+        if (chunk.parts.decrementAndGet() > 0) {
+            return;
+        }
+        release(chunk);
+        finishedChunks++;
+
+        if (!chunk.failed && state != State.FAILED) {
+            completed.put(chunk.seq, chunk);
+            while (!completed.isEmpty() && completed.firstKey() == nextToCommit) {
+                Chunk done = completed.pollFirstEntry().getValue();
+                checkpoint = done.last;
+                committedRecords += done.size;
+                nextToCommit++;
+            }
+            long now = System.nanoTime();
+            if (now - lastCheckpointSave >= CHECKPOINT_INTERVAL_NANOS) {
+                saveCheckpoint();
+                lastCheckpointSave = now;
+            }
+        }
+        checkFinished();
+    }
+
+    private void checkFinished() {
+        if (finished || totalChunks < 0 || finishedChunks < totalChunks) {
+            return;
+        }
+        finished = true;
+        if (state == State.RUNNING) {
+            state = stopping.get() ? State.CANCELLED : State.COMPLETED;
+        }
+        if (state == State.COMPLETED) {
+            if (!dryRun && checkpointFile.exists() && !checkpointFile.delete()) {
+                plugin.getLogger().warning("無法刪除 " + checkpointFile.getName());
+            }
+        } else {
+            saveCheckpoint();
+        }
+
+        if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (progressTask != null) {
+                    progressTask.cancel();
+                }
+                report(getSummaryLine());
+            });
+        }
+    }
+
+    private void saveCheckpoint() {
+        if (dryRun) {
+            return;
+        }
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("storage", storage.getName());
+        config.set("operation", transform.getSpec());
+        config.set("after", checkpoint == null ? null : checkpoint.toString());
+        config.set("processed", committedRecords);
+        config.set("updated", System.currentTimeMillis());
+        try {
+            config.save(checkpointFile);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "無法儲存批次工作 checkpoint", e);
+        }
+    }
+
+    /**
+     * 讀取 checkpoint
+     * @param file data/bulk-job.yml
+     * @return Checkpoint, or null if there is none
+     */
+    static Checkpoint readCheckpoint(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        String operation = config.getString("operation");
+        if (operation == null) {
+            return null;
+        }
+        String after = config.getString("after");
+        UUID uuid;
+        try {
+            uuid = after == null ? null : UUID.fromString(after);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return new Checkpoint(config.getString("storage", ""), operation, uuid, config.getLong("processed", 0L));
+    }
+
+    private void fail(String message, Throwable error) {
+        stopping.set(true);
+        if (state == State.RUNNING) {
+            failure = message;
+            state = State.FAILED;
+            plugin.getLogger().log(Level.WARNING, "批次工作 " + transform.getSpec() + " 失敗", error);
+        }
+    }
+
+    // ===== 進度 =====
+
+    private void report(String message) {
+        plugin.getLogger().info(message);
+        if (reporter != null) {
+            reporter.accept(message);
+        }
+    }
+
+    /**
+     * @return One-line progress for periodic reports
+     */
+    public String getProgressLine() {
+        long elapsed = Math.max(1L, System.currentTimeMillis() - startedAt);
+        long count = processed.sum();
+        return "[bulk] " + transform.getSpec() + (dryRun ? " (dry-run)" : "") + ": 已處理 " + count
+                + " 位，" + (dryRun ? "將變動 " : "變動 ") + changed.sum() + " 位（快取中 " + changedCached.sum() + "），"
+                + (count * 1000L / elapsed) + "/s";
+    }
+
+    private String getSummaryLine() {
+        long seconds = (System.currentTimeMillis() - startedAt) / 1000L;
+        String result = switch (state) {
+            case COMPLETED -> "完成";
+            case CANCELLED -> "已取消（可用 /rpg bulk resume 接續）";
+            case FAILED -> "失敗: " + failure + "（可用 /rpg bulk resume 接續）";
+            case RUNNING -> "進行中";
+        };
+        return "[bulk] " + transform.getSpec() + (dryRun ? " (dry-run)" : "") + " " + result + "：處理 " + processed.sum()
+                + " 位，" + (dryRun ? "將變動 " : "變動 ") + changed.sum() + " 位，重讀 " + reloaded.sum() + " 位，耗時 " + seconds + " 秒";
+    }
+
+    /**
+     * @return Status lines for /rpg bulk status
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        lines.add(state == State.RUNNING ? getProgressLine() : getSummaryLine());
+        if (resumeFrom != null) {
+            lines.add("接續自 checkpoint（之前已處理 " + resumeFrom.processed() + " 位）");
+        }
+        if (!dryRun) {
+            lines.add("Checkpoint: " + (checkpoint == null ? "-" : checkpoint) + "（已寫入 " + committedRecords + " 位）");
+        }
+        return lines;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return true until every chunk already read has been applied and written (also while failing or cancelling)
+     */
+    public boolean isActive() {
+        return !finished;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public StatsTransform getTransform() {
+        return transform;
+    }
+}
@@ -1,34 +1,115 @@
 package com.customrpg.managers;
 
 import com.customrpg.CustomRPG;
+import com.customrpg.players.ExperienceCurve;
+import com.customrpg.players.Leaderboard;
 import com.customrpg.players.PlayerStats;
+import com.customrpg.players.StatsTransform;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.attribute.AttributeInstance;
-import org.bukkit.configuration.file.YamlConfiguration;
+import com.customrpg.storage.MappedPlayerStatsStorage;
+import com.customrpg.storage.PlayerStatsJournal;
+import com.customrpg.storage.PlayerStatsMigrator;
+import com.customrpg.storage.PlayerStatsStorage;
+import com.customrpg.storage.SqlitePlayerStatsStorage;
+import com.customrpg.storage.YamlPlayerStatsStorage;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.ChatColor;
 import org.bukkit.Sound;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
 
 /**
  * PlayerStatsManager - 管理玩家數據的讀取、儲存與應用
  *
  * 功能：
- * - 從 YAML 載入玩家數據
- * - 儲存玩家數據至 YAML
+ * - 從儲存後端載入 / 儲存玩家數據（player-data.storage：yaml 或 sqlite，見 com.customrpg.storage）
  * - 應用 Vitality 到玩家最大血量
  * - 快取玩家數據於記憶體
+ *
+ * 寫入採 write-behind：數據變動只會讓 PlayerStats 的 version 增加，由定時任務（player-data.save-interval-seconds）
+ * 對 version 與上次寫入不同的玩家取不可變快照後，交給單一背景 writer 批次寫檔；登出與關服時也會寫入。
+ * 尚未寫完的快照保留在 pendingWrites，重新載入時優先使用，避免讀到舊檔。
+ *
+ * Journal（player-data.journal）：addExp / levelUp / setStat / saveStats（GUI、指令配點）的變動會先記到
+ * append-only 的 PlayerStatsJournal，每 commit-interval-ticks 合併寫入並 force 一次；批次寫入成功後刪掉
+ * 已涵蓋的 journal 檔。當機後重啟時把殘留的 journal 重播回儲存後端。
+ *
+ * 排行榜：{@link Leaderboard} 在每次變動（recordChange / 取快照）時更新，與玩家數據一起寫入
+ * data/leaderboard.dat；檔案遺失或儲存後端改變時，以 PlayerStatsStorage#forEach 串流重建。
+ *
+ * 快取：線上玩家（含 pre-login 預載）固定在快取中；以 UUID 查詢的離線玩家閒置超過
+ * player-data.cache.idle-seconds 或超過 max-offline 筆時，從最久沒用的開始淘汰（有變動的先排入 writer）。
+ * 離線玩家的 PlayerStats 請在取得的當下修改完，不要跨 tick 保留。
+ *
+ * 讀取：玩家在 AsyncPlayerPreLoginEvent 時就先在背景載入（{@link #preloadStats(UUID)}），
+ * 進服時 getStats 直接命中快取；離線玩家查詢請用 {@link #getStatsAsync(UUID)}。
+ *
+ * 批次工作：{@link #startBulkJob} 對儲存後端中所有玩家（含離線）套用 StatsTransform，見 {@link PlayerStatsBulkJob}。
  */
 public class PlayerStatsManager {
 
     private final CustomRPG plugin;
-    private final File playerDataFolder;
-    private final Map<UUID, PlayerStats> statsCache;
+    private final PlayerStatsStorage storage;
+    private final Map<UUID, CacheEntry> statsCache;
+
+    // 離線玩家快取上限
+    private final int cacheMaxOffline;
+    private final long cacheIdleMillis;
+    private final BukkitTask evictTask;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder cacheEvictions = new LongAdder();
+
+    // uuid -> 已排入 writer 但尚未寫完的快照
+    private final Map<UUID, Map<String, Object>> pendingWrites = new ConcurrentHashMap<>();
+    private final ExecutorService writer;
+    private final ExecutorService loader;
+    private final BukkitTask flushTask;
+
+    // 排行榜索引（主執行緒），重建完成時整個換掉
+    private Leaderboard leaderboard;
+    private final File leaderboardFile;
+    private final AtomicBoolean rebuildingLeaderboard = new AtomicBoolean(false);
+
+    // 升級經驗表（config.yml leveling），重載時整個換掉
+    private volatile ExperienceCurve experienceCurve;
+
+    // 每次成功寫入儲存後端 +1（背景預載用來判斷讀到的數據是否已過期）
+    private final AtomicLong storageWrites = new AtomicLong();
+
+    // 批次工作（/rpg bulk），同時只有一個；保留最後一個供 /rpg bulk status 查詢
+    private volatile PlayerStatsBulkJob bulkJob;
+    private final File bulkCheckpointFile;
+
+    // null = journal 停用或無法開啟
+    private final PlayerStatsJournal journal;
+    private final BukkitTask commitTask;
+    // 寫入失敗的快照（writer 執行緒專用），併入下一批重試
+    private final Map<UUID, Map<String, Object>> failedWrites = new HashMap<>();
 
     // 配置：每點 Vitality 增加多少血量 (預設 2.0)
     private static final double HP_PER_VITALITY = 2.0;
@@ -36,14 +117,239 @@ public class PlayerStatsManager {
     // 基礎最大血量 (預設 20.0)
     private static final double BASE_MAX_HEALTH = 20.0;
 
+    /**
+     * 快取中的一位玩家；pinned（線上）的不會被淘汰
+     */
+    private static final class CacheEntry {
+        private final PlayerStats stats;
+        private volatile boolean pinned;
+        private volatile long lastAccess;
+
+        CacheEntry(PlayerStats stats, boolean pinned) {
+            this.stats = stats;
+            this.pinned = pinned;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 快取統計（/rpg cache）
+     * @param hits Lookups served from the cache
+     * @param misses Lookups that loaded from storage
+     * @param evictions Offline entries evicted
+     * @param size Entries currently cached
+     * @param pinned Entries pinned by online players
+     */
+    public record CacheStats(long hits, long misses, long evictions, int size, int pinned) {}
+
     public PlayerStatsManager(CustomRPG plugin) {
         this.plugin = plugin;
-        this.playerDataFolder = new File(plugin.getDataFolder(), "data/players");
         this.statsCache = new ConcurrentHashMap<>();
+        this.storage = openStorage();
+
+        FileConfiguration mainConfig = mainConfig();
+        this.cacheMaxOffline = Math.max(1, mainConfig == null ? 500 : mainConfig.getInt("player-data.cache.max-offline", 500));
+        this.cacheIdleMillis = Math.max(1L, mainConfig == null ? 300L : mainConfig.getLong("player-data.cache.idle-seconds", 300L)) * 1000L;
+        reloadExperienceCurve();
+
+        // 單一 writer：同一玩家的寫入保持先後順序
+        this.writer = Executors.newSingleThreadExecutor(r -> new Thread(r, "CustomRPG-StatsWriter"));
+        this.loader = Executors.newVirtualThreadPerTaskExecutor();
+
+        this.leaderboardFile = new File(plugin.getDataFolder(), "data/leaderboard.dat");
+        this.bulkCheckpointFile = new File(plugin.getDataFolder(), "data/bulk-job.yml");
+        loadLeaderboard();
 
-        // 確保資料夾存在
-        if (!playerDataFolder.exists()) {
-            playerDataFolder.mkdirs();
+        this.journal = openJournal();
+        if (journal != null) {
+            replayJournal();
+            long commitTicks = Math.max(1L, readJournalCommitTicks());
+            this.commitTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::commitJournal, commitTicks, commitTicks);
+        } else {
+            this.commitTask = null;
+        }
+
+        long intervalTicks = Math.max(1L, readSaveIntervalSeconds()) * 20L;
+        this.flushTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::flushDirtyStats, intervalTicks, intervalTicks);
+        this.evictTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::evictOfflineStats, 100L, 100L);
+    }
+
+    private FileConfiguration mainConfig() {
+        return plugin.getConfigManager() == null ? null : plugin.getConfigManager().getConfig("config/config.yml");
+    }
+
+    private long readSaveIntervalSeconds() {
+        FileConfiguration mainConfig = mainConfig();
+        return mainConfig == null ? 30L : mainConfig.getLong("player-data.save-interval-seconds", 30L);
+    }
+
+    private long readJournalCommitTicks() {
+        FileConfiguration mainConfig = mainConfig();
+        return mainConfig == null ? 20L : mainConfig.getLong("player-data.journal.commit-interval-ticks", 20L);
+    }
+
+    private PlayerStatsJournal openJournal() {
+        FileConfiguration mainConfig = mainConfig();
+        if (mainConfig != null && !mainConfig.getBoolean("player-data.journal.enabled", true)) {
+            return null;
+        }
+        try {
+            return new PlayerStatsJournal(new File(plugin.getDataFolder(), "data/journal"), plugin.getLogger());
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "無法開啟玩家數據 journal，只使用定時批次寫入", e);
+            return null;
+        }
+    }
+
+    /**
+     * 把上次沒正常關服時留下的 journal 重播回儲存後端
+     */
+    private void replayJournal() {
+        Map<UUID, Map<String, Object>> replayed = journal.replay();
+        if (replayed.isEmpty()) {
+            return;
+        }
+        plugin.getLogger().warning("偵測到未完成寫入的玩家數據，從 journal 還原 " + replayed.size() + " 位玩家");
+        // 寫完前讀取會先拿到 pendingWrites 中的版本
+        pendingWrites.putAll(replayed);
+        submitWrites(replayed, true);
+        for (Map.Entry<UUID, Map<String, Object>> entry : replayed.entrySet()) {
+            leaderboard.update(Leaderboard.Entry.of(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    // ===== 排行榜 =====
+
+    /**
+     * 讀取排行榜索引；沒有或不符時在背景重建
+     */
+    private void loadLeaderboard() {
+        if (leaderboardFile.exists()) {
+            try {
+                leaderboard = Leaderboard.read(leaderboardFile, storage.getName());
+                plugin.getLogger().info("排行榜已載入 (" + leaderboard.size() + " 位玩家)");
+                return;
+            } catch (IOException e) {
+                plugin.getLogger().warning("排行榜索引無法使用 (" + e.getMessage() + ")，重新建立中...");
+            }
+        }
+        leaderboard = new Leaderboard();
+        rebuildLeaderboard(null);
+    }
+
+    /**
+     * 取得排行榜（主執行緒使用）
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * 從儲存後端串流重建排行榜（背景讀取，完成後在主執行緒換上）
+     * @param onDone Called on the main thread with the number of ranked players, may be null
+     * @return false if a rebuild is already running
+     */
+    public boolean rebuildLeaderboard(IntConsumer onDone) {
+        if (!rebuildingLeaderboard.compareAndSet(false, true)) {
+            return false;
+        }
+        loader.execute(() -> {
+            Leaderboard rebuilt = new Leaderboard();
+            try {
+                storage.forEach((uuid, data) -> rebuilt.update(Leaderboard.Entry.of(uuid, data)));
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "無法重建排行榜", e);
+                rebuildingLeaderboard.set(false);
+                return;
+            }
+
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                // 掃描期間的變動：尚未寫入的快照與快取中的最新數據
+                for (Map.Entry<UUID, Map<String, Object>> entry : pendingWrites.entrySet()) {
+                    rebuilt.update(Leaderboard.Entry.of(entry.getKey(), entry.getValue()));
+                }
+                for (Map.Entry<UUID, CacheEntry> entry : statsCache.entrySet()) {
+                    rebuilt.update(Leaderboard.Entry.of(entry.getKey(), entry.getValue().stats.snapshot()));
+                }
+                rebuilt.markModified();
+                leaderboard = rebuilt;
+                rebuildingLeaderboard.set(false);
+                plugin.getLogger().info("排行榜重建完成 (" + rebuilt.size() + " 位玩家)");
+                if (onDone != null) {
+                    onDone.accept(rebuilt.size());
+                }
+            });
+        });
+        return true;
+    }
+
+    /**
+     * 排行榜有變動時交給 writer 寫檔（主執行緒呼叫）
+     */
+    private void persistLeaderboard() {
+        List<Leaderboard.Entry> entries = leaderboard.takeSnapshotIfModified();
+        if (entries == null) {
+            return;
+        }
+        String storageName = storage.getName();
+        writer.execute(() -> {
+            try {
+                Leaderboard.write(leaderboardFile, storageName, entries);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "無法儲存排行榜索引", e);
+            }
+        });
+    }
+
+    /**
+     * 依 player-data.storage 建立儲存後端；sqlite / mapped 第一次啟用時會把既有 YAML 數據遷移過去
+     */
+    private PlayerStatsStorage openStorage() {
+        File yamlFolder = new File(plugin.getDataFolder(), "data/players");
+        FileConfiguration mainConfig = mainConfig();
+        String type = mainConfig == null ? "yaml" : mainConfig.getString("player-data.storage", "yaml").toLowerCase();
+
+        if (type.equals("yaml")) {
+            return new YamlPlayerStatsStorage(yamlFolder);
+        }
+
+        PlayerStatsStorage storage = null;
+        try {
+            switch (type) {
+                case "sqlite" -> storage = new SqlitePlayerStatsStorage(new File(plugin.getDataFolder(), "data/players.db"));
+                case "mapped" -> {
+                    MappedPlayerStatsStorage mapped = new MappedPlayerStatsStorage(new File(plugin.getDataFolder(), "data/players.dat"));
+                    if (mapped.getCorruptRecordCount() > 0) {
+                        plugin.getLogger().warning("players.dat 有 " + mapped.getCorruptRecordCount()
+                                + " 筆未完成的寫入（校驗失敗），已丟棄並保留這些玩家前一筆紀錄");
+                    }
+                    storage = mapped;
+                }
+                default -> {
+                    plugin.getLogger().warning("未知的 player-data.storage: " + type + "，改用 yaml");
+                    return new YamlPlayerStatsStorage(yamlFolder);
+                }
+            }
+
+            // 依標記檔決定（不看目標是否為空）：中斷過的遷移整個重做；沒有標記但目標已有數據時只補缺少的玩家
+            if (PlayerStatsMigrator.needsMigration(yamlFolder)) {
+                boolean overwrite = PlayerStatsMigrator.wasInterrupted(yamlFolder) || storage.isEmpty();
+                if (PlayerStatsMigrator.wasInterrupted(yamlFolder)) {
+                    plugin.getLogger().warning("上次的 YAML 玩家數據遷移未完成，重新遷移到 " + storage.getName() + "...");
+                } else {
+                    plugin.getLogger().info("正在將 YAML 玩家數據遷移到 " + storage.getName() + "...");
+                }
+                int migrated = PlayerStatsMigrator.migrate(yamlFolder, storage, overwrite, plugin.getLogger());
+                plugin.getLogger().info("已遷移 " + migrated + " 位玩家數據（原 YAML 檔保留）");
+            }
+            plugin.getLogger().info("玩家數據儲存: " + storage.getName());
+            return storage;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "無法開啟 " + type + " 玩家數據儲存，改用 YAML", e);
+            if (storage != null) {
+                storage.close();
+            }
+            return new YamlPlayerStatsStorage(yamlFolder);
         }
     }
 
@@ -51,79 +357,469 @@ public class PlayerStatsManager {
      * 取得玩家數據 (從快取或載入)
      */
     public PlayerStats getStats(Player player) {
-        return getStats(player.getUniqueId());
+        return getStats(player.getUniqueId(), true);
     }
 
     /**
-     * 取得玩家數據 (透過 UUID)
+     * 取得玩家數據 (透過 UUID)；離線玩家的數據可能之後被淘汰
+     *
+     * 未命中快取時會在呼叫端執行緒同步讀取儲存後端；主執行緒查詢離線玩家請改用 {@link #getStatsAsync(UUID)}。
+     * @throws UncheckedIOException 讀取失敗（不會放進快取，也不會寫回）
      */
     public PlayerStats getStats(UUID uuid) {
-        return statsCache.computeIfAbsent(uuid, this::loadStats);
+        return getStats(uuid, false);
+    }
+
+    private PlayerStats getStats(UUID uuid, boolean online) {
+        CacheEntry entry = statsCache.get(uuid);
+        if (entry != null) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
+            try {
+                entry = loadIntoCache(uuid, online);
+            } catch (IOException e) {
+                throw new UncheckedIOException("無法讀取玩家數據: " + uuid, e);
+            }
+            if (!entry.pinned && statsCache.size() > cacheMaxOffline + plugin.getServer().getOnlinePlayers().size()) {
+                evictOfflineStats();
+            }
+        }
+
+        if (online) {
+            entry.pinned = true;
+        } else if (!entry.pinned) {
+            entry.lastAccess = System.currentTimeMillis();
+        }
+        return entry.stats;
+    }
+
+    /**
+     * 預先載入玩家數據到快取（AsyncPlayerPreLoginEvent 的背景執行緒呼叫，可阻塞）
+     * @throws IOException 讀取失敗；不會放進快取，呼叫端應拒絕登入
+     */
+    public void preloadStats(UUID uuid) throws IOException {
+        CacheEntry existing = statsCache.get(uuid);
+        if (existing != null) {
+            existing.pinned = true;
+            // 釘住之前可能剛被淘汰；此時快照已在 pendingWrites，照一般流程載入
+            if (statsCache.get(uuid) == existing) {
+                return;
+            }
+        }
+        loadIntoCache(uuid, true).pinned = true;
+    }
+
+    /**
+     * 讀取玩家數據並放進快取；已在快取中則回傳現有的
+     *
+     * I/O 在 map 外做，不佔用 ConcurrentHashMap 的 bin lock。放進快取前在 compute 內確認讀取期間
+     * 沒有新的快照排入（例如批次工作）或寫入儲存後端，否則讀到的可能是舊數據，重讀一次。
+     */
+    private CacheEntry loadIntoCache(UUID uuid, boolean pinned) throws IOException {
+        while (true) {
+            long writes = storageWrites.get();
+            // 還在 writer 佇列中的快照比儲存後端新
+            Map<String, Object> pending = pendingWrites.get(uuid);
+            PlayerStats loaded = pending != null ? PlayerStats.deserialize(pending) : loadStored(uuid);
+
+            CacheEntry[] result = new CacheEntry[1];
+            statsCache.compute(uuid, (id, current) -> {
+                if (current != null) {
+                    return result[0] = current;
+                }
+                if (pendingWrites.get(id) != pending || (pending == null && storageWrites.get() != writes)) {
+                    return null;
+                }
+                return result[0] = new CacheEntry(loaded, pinned);
+            });
+            if (result[0] != null) {
+                return result[0];
+            }
+        }
     }
 
     /**
-     * 從檔案載入玩家數據
+     * 淘汰離線玩家的快取：閒置超過 idle-seconds 的全部淘汰，其餘超過 max-offline 時從最久沒用的開始
      */
-    private PlayerStats loadStats(UUID uuid) {
-        File file = new File(playerDataFolder, uuid.toString() + ".yml");
+    private void evictOfflineStats() {
+        long now = System.currentTimeMillis();
+        Map<UUID, Map<String, Object>> batch = new HashMap<>();
+
+        // lastAccess 會變動，先取值再排序
+        record Candidate(UUID uuid, CacheEntry entry, long lastAccess) {}
+        List<Candidate> remaining = new ArrayList<>();
+        for (Map.Entry<UUID, CacheEntry> cached : statsCache.entrySet()) {
+            CacheEntry entry = cached.getValue();
+            if (entry.pinned) {
+                continue;
+            }
+            long lastAccess = entry.lastAccess;
+            if (now - lastAccess >= cacheIdleMillis) {
+                evict(cached.getKey(), entry, batch);
+            } else {
+                remaining.add(new Candidate(cached.getKey(), entry, lastAccess));
+            }
+        }
+
+        int excess = remaining.size() - cacheMaxOffline;
+        if (excess > 0) {
+            remaining.sort(Comparator.comparingLong(Candidate::lastAccess));
+            for (int i = 0; i < excess; i++) {
+                evict(remaining.get(i).uuid(), remaining.get(i).entry(), batch);
+            }
+        }
+        submitWrites(batch, false);
+    }
+
+    private void evict(UUID uuid, CacheEntry entry, Map<UUID, Map<String, Object>> batch) {
+        if (entry.pinned) {
+            return;
+        }
+        // 有變動的先放進 pendingWrites 再移出快取：preloadStats 不論何時查都至少看得到其中一份
+        if (entry.stats.isDirty()) {
+            batch.put(uuid, snapshot(uuid, entry.stats));
+        }
+        if (statsCache.remove(uuid, entry)) {
+            cacheEvictions.increment();
+        }
+        // 沒移除（期間被重新使用）也照樣寫入，快照與快取中的一致
+    }
 
-        if (!file.exists()) {
-            // 如果檔案不存在，回傳預設數據
-            return new PlayerStats();
+    /**
+     * @return Cache hit/miss/eviction counters and current size
+     */
+    public CacheStats getCacheStats() {
+        int pinned = 0;
+        for (CacheEntry entry : statsCache.values()) {
+            if (entry.pinned) {
+                pinned++;
+            }
         }
+        return new CacheStats(cacheHits.sum(), cacheMisses.sum(), cacheEvictions.sum(), statsCache.size(), pinned);
+    }
 
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+    /**
+     * 非阻塞取得玩家數據的唯讀快照
+     *
+     * 已在快取中（線上玩家）直接取目前的快照；否則在背景讀取，不會放進快取。
+     * 完成時不保證在主執行緒（快照不可變，可安全跨執行緒使用）；讀取失敗時以 IOException 異常完成。
+     */
+    public CompletableFuture<PlayerStats.Snapshot> getStatsAsync(UUID uuid) {
+        CacheEntry cached = statsCache.get(uuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.stats.snapshot());
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return loadStats(uuid).snapshot();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, loader);
+    }
 
-        // 讀取數據
-        Map<String, Object> data = new ConcurrentHashMap<>();
-        data.put("strength", config.getInt("stats.strength", 0));
-        data.put("magic", config.getInt("stats.magic", 0));
-        data.put("agility", config.getInt("stats.agility", 0));
-        data.put("vitality", config.getInt("stats.vitality", 0));
-        data.put("defense", config.getInt("stats.defense", 0));
+    /**
+     * 從儲存後端載入玩家數據
+     */
+    private PlayerStats loadStats(UUID uuid) throws IOException {
+        // 還在 writer 佇列中的快照比儲存後端新
+        Map<String, Object> pending = pendingWrites.get(uuid);
+        return pending != null ? PlayerStats.deserialize(pending) : loadStored(uuid);
+    }
 
-        data.put("level", config.getInt("stats.level", 1));
-        data.put("exp", config.getInt("stats.exp", 0));
-        data.put("statPoints", config.getInt("stats.statPoints", 0));
+    /**
+     * 只從儲存後端讀取（不看 pendingWrites）
+     * @throws IOException 讀取失敗；不可當成沒有存檔，否則預設數據會蓋掉原本的紀錄
+     */
+    private PlayerStats loadStored(UUID uuid) throws IOException {
+        Map<String, Object> data = storage.load(uuid);
 
-        return PlayerStats.deserialize(data);
+        // 沒有存檔：回傳預設數據
+        return data == null ? new PlayerStats() : PlayerStats.deserialize(data);
     }
 
     /**
-     * 儲存玩家數據到檔案
+     * 標記玩家數據需要儲存（下一次批次寫入時寫檔，不在主執行緒做 I/O）
      */
     public void saveStats(Player player) {
         saveStats(player.getUniqueId());
     }
 
     /**
-     * 儲存玩家數據到檔案 (透過 UUID)
+     * 標記玩家數據需要儲存 (透過 UUID)
      */
     public void saveStats(UUID uuid) {
-        PlayerStats stats = statsCache.get(uuid);
-        if (stats == null) {
+        CacheEntry entry = statsCache.get(uuid);
+        // setter 已讓 version 增加；沒有變動就不用寫
+        if (entry != null && entry.stats.isDirty()) {
+            recordChange(uuid, entry.stats);
+        }
+    }
+
+    /**
+     * 數據變動後呼叫：更新排行榜，並把玩家目前的數據記到 journal（下一次 group commit 寫檔）
+     */
+    private void recordChange(UUID uuid, PlayerStats stats) {
+        PlayerStats.Snapshot snapshot = stats.snapshot();
+        leaderboard.update(Leaderboard.Entry.of(uuid, snapshot));
+        if (journal != null) {
+            journal.append(uuid, snapshot.serialize());
+        }
+    }
+
+    /**
+     * 把 journal 累積的紀錄交給 writer 寫入（group commit，主執行緒呼叫）
+     */
+    private void commitJournal() {
+        byte[] records = journal.drain();
+        if (records == null) {
             return;
         }
+        writer.execute(() -> {
+            try {
+                journal.write(records);
+            } catch (IOException e) {
+                // 數據仍是 dirty，下一次批次寫入時會存檔
+                plugin.getLogger().log(Level.WARNING, "無法寫入玩家數據 journal", e);
+            }
+        });
+    }
 
-        File file = new File(playerDataFolder, uuid.toString() + ".yml");
-        YamlConfiguration config = new YamlConfiguration();
+    /**
+     * 把所有 dirty 的玩家數據取快照，交給 writer 批次寫入（主執行緒呼叫）
+     */
+    public void flushDirtyStats() {
+        Map<UUID, Map<String, Object>> batch = new HashMap<>();
+        for (Map.Entry<UUID, CacheEntry> entry : statsCache.entrySet()) {
+            PlayerStats stats = entry.getValue().stats;
+            if (stats.isDirty()) {
+                batch.put(entry.getKey(), snapshot(entry.getKey(), stats));
+            }
+        }
+        // 所有 dirty 的玩家都在這一批，成功後之前的 journal 都可以刪掉
+        submitWrites(batch, true);
+        persistLeaderboard();
+    }
 
-        Map<String, Object> data = stats.serialize();
-        config.set("stats.strength", data.get("strength"));
-        config.set("stats.magic", data.get("magic"));
-        config.set("stats.agility", data.get("agility"));
-        config.set("stats.vitality", data.get("vitality"));
-        config.set("stats.defense", data.get("defense"));
+    private Map<String, Object> snapshot(UUID uuid, PlayerStats stats) {
+        PlayerStats.Snapshot snapshot = stats.snapshot();
+        Map<String, Object> data = snapshot.serialize();
+        // 之後若又有變動，version 會不同而再次 dirty
+        stats.markSaved(snapshot.version());
+        pendingWrites.put(uuid, data);
+        // 不經 recordChange 的變動（直接呼叫 setter）也會反映到排行榜
+        leaderboard.update(Leaderboard.Entry.of(uuid, snapshot));
+        return data;
+    }
 
-        config.set("stats.level", data.get("level"));
-        config.set("stats.exp", data.get("exp"));
-        config.set("stats.statPoints", data.get("statPoints"));
+    /**
+     * @param checkpoint true if the batch covers every change logged to the journal so far
+     */
+    private void submitWrites(Map<UUID, Map<String, Object>> batch, boolean checkpoint) {
+        byte[] records = checkpoint && journal != null ? journal.drain() : null;
+        if (batch.isEmpty() && records == null) {
+            return;
+        }
+        writer.execute(() -> writeBatch(batch, records, checkpoint));
+    }
 
+    /**
+     * writer 執行緒：寫入 journal 殘餘紀錄 → 換新 journal 檔 → 寫入儲存後端 → 刪掉已涵蓋的 journal 檔
+     */
+    private void writeBatch(Map<UUID, Map<String, Object>> batch, byte[] records, boolean checkpoint) {
+        long coveredSegment = -1;
+        if (checkpoint && journal != null) {
+            try {
+                if (records != null) {
+                    journal.write(records);
+                }
+                coveredSegment = journal.rotate();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "無法寫入玩家數據 journal", e);
+            }
+        }
+
+        // 之前失敗的快照一起重試；同一玩家以這一批較新的為準
+        failedWrites.putAll(batch);
+        if (failedWrites.isEmpty()) {
+            return;
+        }
         try {
-            config.save(file);
+            storage.saveBatch(failedWrites);
         } catch (IOException e) {
-            plugin.getLogger().warning("無法儲存玩家數據: " + uuid);
-            e.printStackTrace();
+            // 快照留在 pendingWrites 與 failedWrites，下一批或關服時再試；journal 也保留
+            plugin.getLogger().log(Level.WARNING, "無法儲存 " + failedWrites.size() + " 位玩家數據", e);
+            return;
+        }
+        storageWrites.incrementAndGet();
+        PlayerStatsBulkJob job = bulkJob;
+        if (job != null && job.isActive()) {
+            // 在移除 pendingWrites 之前記下，批次工作才不會拿掃描時讀到的舊數據蓋掉
+            job.noteWritten(failedWrites.keySet());
+        }
+        for (Map.Entry<UUID, Map<String, Object>> entry : failedWrites.entrySet()) {
+            // 只移除自己寫的快照；期間若有更新的快照排入則保留
+            pendingWrites.remove(entry.getKey(), entry.getValue());
+        }
+        failedWrites.clear();
+
+        if (coveredSegment >= 0) {
+            journal.deleteThrough(coveredSegment);
+        }
+    }
+
+    // ===== 批次工作 =====
+
+    /**
+     * 開始一個批次工作
+     * @param transform Transform to apply to every stored player
+     * @param dryRun Only count what would change
+     * @param resumeFrom Checkpoint to continue from, or null to start from the beginning
+     * @param reporter Receives progress messages on the main thread, may be null
+     * @return The started job, or null if another job is still running
+     */
+    public PlayerStatsBulkJob startBulkJob(StatsTransform transform, boolean dryRun,
+                                           PlayerStatsBulkJob.Checkpoint resumeFrom, Consumer<String> reporter) {
+        PlayerStatsBulkJob current = bulkJob;
+        if (current != null && current.isActive()) {
+            return null;
+        }
+        FileConfiguration mainConfig = mainConfig();
+        int workers = Math.max(1, mainConfig == null ? 4 : mainConfig.getInt("player-data.bulk.workers", 4));
+        int batchSize = Math.max(1, mainConfig == null ? 500 : mainConfig.getInt("player-data.bulk.batch-size", 500));
+
+        // 先把快取中的變動寫出去，掃描時儲存後端盡量是最新的
+        flushDirtyStats();
+        PlayerStatsBulkJob job = new PlayerStatsBulkJob(plugin, this, storage, transform, dryRun, resumeFrom,
+                bulkCheckpointFile, workers, batchSize, reporter);
+        bulkJob = job;
+        job.start();
+        plugin.getLogger().info("批次工作開始: " + transform.getSpec() + (dryRun ? " (dry-run)" : "")
+                + (resumeFrom != null ? "，接續自 " + resumeFrom.after() : ""));
+        return job;
+    }
+
+    /**
+     * @return The running job, or the last finished one (null if none since startup)
+     */
+    public PlayerStatsBulkJob getBulkJob() {
+        return bulkJob;
+    }
+
+    /**
+     * 讀取上次中斷的批次工作 checkpoint
+     * @return Checkpoint, or null if there is none or it was made with another storage backend
+     */
+    public PlayerStatsBulkJob.Checkpoint getBulkCheckpoint() {
+        PlayerStatsBulkJob.Checkpoint checkpoint = PlayerStatsBulkJob.readCheckpoint(bulkCheckpointFile);
+        if (checkpoint != null && !checkpoint.storage().equals(storage.getName())) {
+            plugin.getLogger().warning("批次工作 checkpoint 是在 " + checkpoint.storage() + " 儲存後端建立的，無法接續");
+            return null;
+        }
+        return checkpoint;
+    }
+
+    /**
+     * 批次工作（主執行緒）：對一位玩家套用轉換，並與快取 / 尚未寫入的快照協調
+     *
+     * 在 statsCache.compute 內決定，與 loadIntoCache 放進快取的 compute 互斥：
+     * 背景預載不會用舊數據蓋掉轉換結果，轉換也不會錯過剛進快取的玩家。
+     * @param stored Stats read from storage at readAt
+     * @param transformed transform.apply(stored), computed by a worker
+     * @param readAt System.nanoTime() before stored was read
+     * @param batch Receives the data to write for players that are not cached
+     */
+    PlayerStatsBulkJob.Outcome applyBulk(PlayerStatsBulkJob job, UUID uuid, PlayerStats.Snapshot stored,
+                                         PlayerStats.Snapshot transformed, long readAt,
+                                         Map<UUID, Map<String, Object>> batch) {
+        StatsTransform transform = job.getTransform();
+        boolean dryRun = job.isDryRun();
+        PlayerStatsBulkJob.Outcome[] outcome = {PlayerStatsBulkJob.Outcome.UNCHANGED};
+        PlayerStats[] cached = new PlayerStats[1];
+        PlayerStats.Snapshot[] result = new PlayerStats.Snapshot[1];
+        boolean[] vitalityChanged = new boolean[1];
+
+        statsCache.compute(uuid, (id, entry) -> {
+            if (entry != null) {
+                // 快取中（線上或最近查詢過）：直接改記憶體中的數據，由一般流程寫入
+                PlayerStats.Snapshot current = entry.stats.snapshot();
+                boolean changed = dryRun ? transform.apply(current) != current : entry.stats.apply(transform);
+                if (changed) {
+                    outcome[0] = PlayerStatsBulkJob.Outcome.CHANGED_CACHED;
+                    cached[0] = dryRun ? null : entry.stats;
+                    vitalityChanged[0] = !dryRun && entry.stats.getVitality() != current.vitality();
+                }
+                return entry;
+            }
+
+            PlayerStats.Snapshot before = stored;
+            PlayerStats.Snapshot after = transformed;
+            Map<String, Object> pending = pendingWrites.get(id);
+            if (pending != null) {
+                // 還沒寫入的快照比掃描讀到的新
+                before = PlayerStats.deserialize(pending).snapshot();
+                after = transform.apply(before);
+            } else if (job.writtenSince(id, readAt)) {
+                outcome[0] = PlayerStatsBulkJob.Outcome.STALE;
+                return null;
+            }
+            if (after != before) {
+                outcome[0] = PlayerStatsBulkJob.Outcome.CHANGED;
+                if (!dryRun) {
+                    Map<String, Object> data = after.serialize();
+                    // 寫完前讀取會先拿到這份
+                    pendingWrites.put(id, data);
+                    batch.put(id, data);
+                    result[0] = after;
+                }
+            }
+            return null;
+        });
+
+        if (cached[0] != null) {
+            recordChange(uuid, cached[0]);
+            // 同 /rpg setstat：線上玩家的血量上限跟著 Vitality 更新
+            Player online = vitalityChanged[0] ? plugin.getServer().getPlayer(uuid) : null;
+            if (online != null && online.isOnline()) {
+                updateMaxHealth(online);
+            }
+        } else if (result[0] != null) {
+            leaderboard.update(Leaderboard.Entry.of(uuid, result[0]));
+        }
+        return outcome[0];
+    }
+
+    /**
+     * 批次工作：把一個 chunk 的變動交給 writer，寫完（或失敗）後在 writer 執行緒呼叫 onDone
+     */
+    void submitBulkWrites(PlayerStatsBulkJob job, Map<UUID, Map<String, Object>> batch, Runnable onDone) {
+        runOnWriter(() -> {
+            if (!batch.isEmpty()) {
+                try {
+                    storage.saveBatch(batch);
+                    storageWrites.incrementAndGet();
+                    for (Map.Entry<UUID, Map<String, Object>> entry : batch.entrySet()) {
+                        pendingWrites.remove(entry.getKey(), entry.getValue());
+                    }
+                } catch (IOException e) {
+                    // 數據還在 pendingWrites，交給一般流程的下一批重試（比 failedWrites 裡之前失敗的新）
+                    failedWrites.putAll(batch);
+                    job.writeFailed(e);
+                }
+            }
+            onDone.run();
+        });
+    }
+
+    /**
+     * 在 writer 執行緒執行（關服後不再接受）
+     */
+    void runOnWriter(Runnable task) {
+        try {
+            writer.execute(task);
+        } catch (RejectedExecutionException e) {
+            // 關服中
         }
     }
 
@@ -166,104 +862,220 @@ public class PlayerStatsManager {
             case "points", "pts" -> stats.setStatPoints(value);
             default -> {
                 plugin.getLogger().warning("未知的數據名稱: " + statName);
-                return;
             }
         }
-
-        // 立即儲存
-        saveStats(uuid);
+        // setter 已標記 dirty，由批次寫入負責儲存
+        recordChange(uuid, stats);
     }
 
     /**
-     * 清除玩家快取 (玩家登出時)
+     * 清除玩家快取 (玩家登出時)；有變動的數據會先排入 writer
      */
     public void unloadStats(UUID uuid) {
-        statsCache.remove(uuid);
+        CacheEntry entry = statsCache.get(uuid);
+        if (entry == null) {
+            return;
+        }
+        // 先放進 pendingWrites 再移出快取（同 evict）
+        Map<UUID, Map<String, Object>> batch = new HashMap<>();
+        if (entry.stats.isDirty()) {
+            batch.put(uuid, snapshot(uuid, entry.stats));
+        }
+        statsCache.remove(uuid, entry);
+        submitWrites(batch, false);
     }
 
     /**
-     * 儲存所有玩家數據
+     * 儲存所有玩家數據 (關服時)：寫入所有變動並等待 writer 完成
      */
     public void saveAllStats() {
-        for (UUID uuid : statsCache.keySet()) {
-            saveStats(uuid);
+        PlayerStatsBulkJob job = bulkJob;
+        if (job != null && job.isActive()) {
+            // 已排入 writer 的 chunk 會照常寫完，之後可從 checkpoint 接續
+            job.shutdown();
+            plugin.getLogger().warning("批次工作 " + job.getTransform().getSpec() + " 因關服中斷，可用 /rpg bulk resume 接續");
+        }
+        flushTask.cancel();
+        evictTask.cancel();
+        if (commitTask != null) {
+            commitTask.cancel();
+        }
+        loader.shutdown();
+        flushDirtyStats();
+
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("玩家數據寫入逾時，仍有 " + pendingWrites.size() + " 筆未完成");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // 寫入失敗的快照最後再試一次
+        if (!pendingWrites.isEmpty()) {
+            try {
+                storage.saveBatch(new HashMap<>(pendingWrites));
+                pendingWrites.clear();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "無法儲存 " + pendingWrites.size() + " 位玩家數據", e);
+            }
         }
+        if (journal != null) {
+            // 全部寫入成功才刪 journal；否則下次啟動時重播
+            journal.close(pendingWrites.isEmpty());
+        }
+        storage.close();
     }
 
     /**
-     * 給予玩家經驗值
+     * 給予玩家經驗值；一次升多級時屬性一次給足，只更新一次血量、通知一次、記錄一次
+     * @return false if the player is at the level cap and the exp was not granted
      */
-    public void addExp(Player player, long amount) {
+    public boolean addExp(Player player, long amount) {
         PlayerStats stats = getStats(player);
-        long currentExp = stats.getExp();
-        long newExp = currentExp + amount;
+        ExperienceCurve curve = experienceCurve;
+        if (curve.isMaxLevel(stats.getLevel())) {
+            return false;
+        }
+        int[] gained = new int[1];
 
-        stats.setExp(newExp);
+        PlayerStats.Snapshot after = stats.update(s -> {
+            if (curve.isMaxLevel(s.level())) {
+                // 滿級：不再給經驗
+                gained[0] = 0;
+                return s;
+            }
+            long currentExp = s.exp();
+            long newExp = amount > 0 && currentExp > Long.MAX_VALUE - amount ? Long.MAX_VALUE : currentExp + amount;
+            PlayerStats.Snapshot settled = settleLevels(curve, s, s.level(), Math.max(0L, newExp));
+            gained[0] = settled.level() - s.level();
+            return settled;
+        });
 
-        checkLevelUp(player);
-        saveStats(player);
+        announceLevelUp(player, curve, after.level(), gained[0]);
+        recordChange(player.getUniqueId(), stats);
+        return true;
     }
 
     /**
-     * 檢查是否升級
+     * 玩家直接升一級（扣除該級所需經驗），剩餘經驗足夠時會繼續升級
      */
-    private void checkLevelUp(Player player) {
+    public void levelUp(Player player) {
         PlayerStats stats = getStats(player);
-        int level = stats.getLevel();
-        long exp = stats.getExp();
-        long requiredExp = getRequiredExp(level);
+        ExperienceCurve curve = experienceCurve;
+        int[] gained = new int[1];
 
-        if (exp >= requiredExp) {
-            levelUp(player);
-        }
+        // 扣除經驗並升級
+        PlayerStats.Snapshot after = stats.update(s -> {
+            if (curve.isMaxLevel(s.level())) {
+                gained[0] = 0;
+                return s;
+            }
+            long exp = Math.max(0L, s.exp() - curve.getRequiredExp(s.level()));
+            PlayerStats.Snapshot settled = settleLevels(curve, s, s.level() + 1, exp);
+            gained[0] = settled.level() - s.level();
+            return settled;
+        });
+
+        announceLevelUp(player, curve, after.level(), gained[0]);
+        recordChange(player.getUniqueId(), stats);
     }
 
     /**
-     * 玩家升級邏輯
+     * 依經驗表算出最終等級（二分搜尋，不逐級遞迴），並一次給予 s.level() 之後所有等級的獎勵
+     *
+     * 等級、經驗、點數與屬性在同一份 Snapshot 裡換上（呼叫端以 PlayerStats#update 一次 CAS）
+     * @param level Level to resolve from (at least s.level())
+     * @param exp Experience at that level
      */
-    public void levelUp(Player player) {
-        PlayerStats stats = getStats(player);
-        int currentLevel = stats.getLevel();
-        long currentExp = stats.getExp();
-        long requiredExp = getRequiredExp(currentLevel);
+    private static PlayerStats.Snapshot settleLevels(ExperienceCurve curve, PlayerStats.Snapshot s, int level, long exp) {
+        ExperienceCurve.Progress progress = curve.resolve(level, exp);
+        PlayerStats.Snapshot settled = s.withLevel(progress.level()).withExp(progress.exp());
 
-        // 扣除經驗並升級
-        stats.setExp(currentExp - requiredExp);
-        stats.setLevel(currentLevel + 1);
+        int gained = progress.level() - s.level();
+        if (gained <= 0) {
+            return settled;
+        }
 
-        // 增加屬性點數 (10 點)
-        stats.setStatPoints(stats.getStatPoints() + 10);
+        // 增加屬性點數
+        long points = (long) gained * curve.getStatPointsPerLevel();
+        settled = settled.withStatPoints(addClamped(settled.statPoints(), points));
 
-        // 自動提升整體屬性 (每升一等全屬性 +1)
-        stats.setStrength(stats.getStrength() + 1);
-        stats.setMagic(stats.getMagic() + 1);
-        stats.setAgility(stats.getAgility() + 1);
-        stats.setVitality(stats.getVitality() + 1);
-        stats.setDefense(stats.getDefense() + 1);
+        // 自動提升整體屬性 (每升一等全屬性 +stats-per-level)
+        long bonus = (long) gained * curve.getStatsPerLevel();
+        if (bonus > 0) {
+            settled = settled.withStrength(addClamped(settled.strength(), bonus))
+                    .withMagic(addClamped(settled.magic(), bonus))
+                    .withAgility(addClamped(settled.agility(), bonus))
+                    .withVitality(addClamped(settled.vitality(), bonus))
+                    .withDefense(addClamped(settled.defense(), bonus));
+        }
+        return settled;
+    }
+
+    /**
+     * 升級後的血量更新、特效與訊息（數據已換上後在主執行緒呼叫）
+     */
+    private void announceLevelUp(Player player, ExperienceCurve curve, int level, int gained) {
+        if (gained <= 0) {
+            return;
+        }
+        long points = (long) gained * curve.getStatPointsPerLevel();
+        long bonus = (long) gained * curve.getStatsPerLevel();
 
         // 更新最大血量
         updateMaxHealth(player);
 
         // 特效與訊息
         player.sendMessage(ChatColor.GOLD + "========================================");
-        player.sendMessage(ChatColor.YELLOW + "  🎉 恭喜升級！你現在是等級 " + ChatColor.AQUA + (currentLevel + 1));
-        player.sendMessage(ChatColor.GREEN + "  獲得 10 點屬性點數！");
-        player.sendMessage(ChatColor.GREEN + "  全屬性自動 +1！");
+        player.sendMessage(ChatColor.YELLOW + "  🎉 恭喜升級！你現在是等級 " + ChatColor.AQUA + level
+                + (gained > 1 ? ChatColor.YELLOW + " (+" + gained + " 級)" : ""));
+        if (points > 0) {
+            player.sendMessage(ChatColor.GREEN + "  獲得 " + points + " 點屬性點數！");
+        }
+        if (bonus > 0) {
+            player.sendMessage(ChatColor.GREEN + "  全屬性自動 +" + bonus + "！");
+        }
         player.sendMessage(ChatColor.GOLD + "========================================");
 
         player.playSound(player.getLocation(), Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.0f);
         player.getWorld().spawnParticle(org.bukkit.Particle.TOTEM_OF_UNDYING, player.getLocation().add(0, 1, 0), 20, 0.5, 0.5, 0.5, 0.1);
+    }
 
-        // 如果還有剩餘經驗值大於下一級需求，繼續升級
-        checkLevelUp(player);
-
-        saveStats(player);
+    private static int addClamped(int value, long delta) {
+        return (int) Math.min(Integer.MAX_VALUE, value + delta);
     }
 
     /**
-     * 取得升級所需經驗值 (等級 * 100)
+     * 取得升級所需經驗值 (依 leveling.exp-curve，預設為 等級 * 100)
      */
     public long getRequiredExp(int level) {
-        return level * 100L;
+        return experienceCurve.getRequiredExp(level);
+    }
+
+    /**
+     * @return Exp progress text ("exp / required", or MAX at the level cap)
+     */
+    public String formatExp(PlayerStats.Snapshot stats) {
+        if (experienceCurve.isMaxLevel(stats.level())) {
+            return "MAX";
+        }
+        return stats.exp() + " / " + experienceCurve.getRequiredExp(stats.level());
+    }
+
+    /**
+     * @return Current experience curve (replaced on reload)
+     */
+    public ExperienceCurve getExperienceCurve() {
+        return experienceCurve;
+    }
+
+    /**
+     * 重新編譯經驗表（config.yml 重載後呼叫）
+     */
+    public void reloadExperienceCurve() {
+        FileConfiguration mainConfig = mainConfig();
+        experienceCurve = ExperienceCurve.fromConfig(mainConfig == null ? null : mainConfig.getConfigurationSection("leveling"));
     }
 }
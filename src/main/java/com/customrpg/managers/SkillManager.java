@@ -1,7 +1,6 @@
 package com.customrpg.managers;
 
 import com.customrpg.CustomRPG;
-import com.customrpg.utils.CooldownUtil;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
@@ -24,19 +23,20 @@ public class SkillManager {
 
     private final CustomRPG plugin;
     private final Map<String, SkillData> skills;
-    private final CooldownUtil cooldownUtil;
+    private final CooldownService cooldowns;
     private final ConfigManager configManager;
 
     /**
      * Constructor for SkillManager
      * @param plugin Main plugin instance
      * @param configManager Config manager for loading skill configs
+     * @param cooldowns Shared cooldown service (SKILL category)
      */
-    public SkillManager(CustomRPG plugin, ConfigManager configManager) {
+    public SkillManager(CustomRPG plugin, ConfigManager configManager, CooldownService cooldowns) {
         this.plugin = plugin;
         this.configManager = configManager;
         this.skills = new HashMap<>();
-        this.cooldownUtil = new CooldownUtil();
+        this.cooldowns = cooldowns;
         loadSkills();
     }
 
@@ -81,7 +81,7 @@ public class SkillManager {
             return false;
         }
 
-        return cooldownUtil.canUse(player.getUniqueId(), skillKey);
+        return cooldowns.isReady(player, CooldownService.Category.SKILL, skillKey);
     }
 
     /**
@@ -96,11 +96,12 @@ public class SkillManager {
             return false;
         }
 
-        if (!cooldownUtil.canUse(player.getUniqueId(), skillKey)) {
+        int cooldownId = cooldowns.keyId(CooldownService.Category.SKILL, skillKey);
+        if (!cooldowns.isReady(player, cooldownId)) {
             return false;
         }
 
-        cooldownUtil.setCooldown(player.getUniqueId(), skillKey, skill.getCooldown());
+        cooldowns.start(player, cooldownId, skill.getCooldown() * 20L);
         return true;
     }
 
@@ -111,7 +112,8 @@ public class SkillManager {
      * @return Remaining cooldown in seconds, 0 if ready
      */
     public long getRemainingCooldown(Player player, String skillKey) {
-        return cooldownUtil.getRemainingCooldown(player.getUniqueId(), skillKey);
+        long ticks = cooldowns.getRemainingTicks(player, CooldownService.Category.SKILL, skillKey);
+        return (ticks + 19L) / 20L;
     }
 
     /**
@@ -151,7 +153,7 @@ public class SkillManager {
      * Clear all cooldowns for all players
      */
     public void clearAllCooldowns() {
-        cooldownUtil.clearAll();
+        cooldowns.clearCategory(CooldownService.Category.SKILL);
     }
 
     /**
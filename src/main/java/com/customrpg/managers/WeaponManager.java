@@ -1,6 +1,7 @@
 package com.customrpg.managers;
 
 import com.customrpg.CustomRPG;
+import com.customrpg.weapons.WeaponProfile;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
@@ -14,9 +15,14 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * WeaponManager - Manages all custom weapons
@@ -29,11 +35,17 @@ import java.util.Map;
  * - Iron Scythe: Extra damage from behind
  * - Fire Sword: Adds burning effect
  * - Thunder Axe: Lightning strike chance
+ *
+ * The weapon registry is immutable and replaced as a whole on reload (volatile swap),
+ * so lookups from listeners never observe an empty or half-built registry.
+ * Incremental reloads ({@link #reloadWeapons(ConfigManager.ConfigChange)}) only recompile
+ * the weapons defined in changed files or referencing a changed skill template.
  */
 public class WeaponManager {
 
     private final CustomRPG plugin;
-    private final Map<String, WeaponData> weapons;
+    private volatile Registry registry;
+    private volatile int registryVersion;
     private final ConfigManager configManager;
     private final NamespacedKey weaponKeyData;
     private final NamespacedKey attackSpeedModifierKey;
@@ -47,88 +59,144 @@ public class WeaponManager {
     public WeaponManager(CustomRPG plugin, ConfigManager configManager) {
         this.plugin = plugin;
         this.configManager = configManager;
-        this.weapons = new HashMap<>();
         this.weaponKeyData = new NamespacedKey(plugin, "custom_weapon_key");
         this.attackSpeedModifierKey = new NamespacedKey(plugin, "customrpg_attack_speed");
         this.knockbackModifierKey = new NamespacedKey(plugin, "customrpg_attack_knockback");
-        loadWeapons();
+        this.registry = loadWeapons();
+    }
+
+    /**
+     * Immutable weapon registry
+     * @param weapons weapon key -> data
+     * @param sources weapon key -> config file it is defined in
+     * @param displayNames translated display name -> weapon key (舊物品沒有 PDC 時用來辨識)
+     * @param materials every material used by a custom weapon (其他材質直接略過 meta/PDC 讀取)
+     */
+    private record Registry(Map<String, WeaponData> weapons, Map<String, String> sources,
+                            Map<String, String> displayNames, Set<Material> materials) {}
+
+    /**
+     * Build an immutable registry, including the display-name index
+     * @param weapons weapon key -> data
+     * @param sources weapon key -> config file
+     * @return Registry
+     */
+    @SuppressWarnings("deprecation")
+    private Registry buildRegistry(Map<String, WeaponData> weapons, Map<String, String> sources) {
+        // translate color codes once here instead of on every lookup; sorted so duplicates resolve the same way every load
+        Map<String, String> displayNames = new HashMap<>();
+        Set<Material> materials = EnumSet.noneOf(Material.class);
+        for (WeaponData weaponData : new TreeMap<>(weapons).values()) {
+            materials.add(weaponData.getMaterial());
+            if (weaponData.getDisplayName() == null) {
+                continue;
+            }
+            String translated = ChatColor.translateAlternateColorCodes('&', weaponData.getDisplayName());
+            String existing = displayNames.putIfAbsent(translated, weaponData.getKey());
+            if (existing != null) {
+                plugin.getLogger().warning("Weapons '" + existing + "' and '" + weaponData.getKey()
+                        + "' share the display name " + translated + "; legacy items resolve to '" + existing + "'");
+            }
+        }
+        return new Registry(Collections.unmodifiableMap(weapons), Collections.unmodifiableMap(sources),
+                Collections.unmodifiableMap(displayNames), Collections.unmodifiableSet(materials));
     }
 
     /**
      * Load all weapons from config/weapons/types/ folder
+     *
+     * Builds a new registry without touching the published one; safe to call off the main thread.
+     * @return Immutable registry
      */
-    private void loadWeapons() {
+    private Registry loadWeapons() {
+        long mergeStart = System.nanoTime();
         Map<String, Map<String, Object>> allWeapons = configManager.getAllWeapons();
+        long compileStart = System.nanoTime();
 
+        Map<String, WeaponData> weapons = new HashMap<>();
+        Map<String, String> sources = new HashMap<>();
         if (allWeapons.isEmpty()) {
             plugin.getLogger().warning("No weapons found in config/weapons/types/ folder");
-            return;
+            return buildRegistry(weapons, sources);
         }
 
         for (Map.Entry<String, Map<String, Object>> entry : allWeapons.entrySet()) {
-            String weaponKey = entry.getKey();
-            Map<String, Object> weaponConfig = entry.getValue();
-
-            String name = (String) weaponConfig.get("name");
-            String displayName = (String) weaponConfig.get("display-name");
-            if (displayName == null || displayName.isEmpty()) {
-                displayName = name;
-            }
-
-            int customModelData = 0;
-            Object cmdObj = weaponConfig.get("custom-model-data");
-            if (cmdObj instanceof Integer) {
-                customModelData = (Integer) cmdObj;
-            }
+            WeaponData weaponData = compileWeapon(entry.getKey(), entry.getValue());
+            weapons.put(entry.getKey(), weaponData);
+            sources.put(entry.getKey(), String.valueOf(entry.getValue().get("source-file")));
+            plugin.getLogger().info("Loaded weapon: " + weaponData.getDisplayName());
+        }
 
-            boolean enchantedGlow = false;
-            Object glowObj = weaponConfig.get("enchanted-glow");
-            if (glowObj instanceof Boolean) {
-                enchantedGlow = (Boolean) glowObj;
-            }
+        long end = System.nanoTime();
+        plugin.getLogger().info("Compiled " + weapons.size() + " weapon(s) in " + ConfigManager.formatMillis(end - mergeStart)
+                + " (template merge " + ConfigManager.formatMillis(compileStart - mergeStart)
+                + ", compile " + ConfigManager.formatMillis(end - compileStart) + ")");
+        return buildRegistry(weapons, sources);
+    }
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> extra = weaponConfig.get("extra") instanceof Map
-                    ? (Map<String, Object>) weaponConfig.get("extra")
-                    : new HashMap<>();
+    /**
+     * Compile one merged weapon config into WeaponData
+     * @param weaponKey Weapon key
+     * @param weaponConfig Merged config from ConfigManager
+     * @return WeaponData (with its compiled WeaponProfile)
+     */
+    private WeaponData compileWeapon(String weaponKey, Map<String, Object> weaponConfig) {
+        String name = (String) weaponConfig.get("name");
+        String displayName = (String) weaponConfig.get("display-name");
+        if (displayName == null || displayName.isEmpty()) {
+            displayName = name;
+        }
 
-            // stats (新格式) 會放在 extra 裡
-            extra.putIfAbsent("base-damage", weaponConfig.getOrDefault("base-damage", 0.0));
-            extra.putIfAbsent("attack-speed", weaponConfig.getOrDefault("attack-speed", 0.0));
-            extra.putIfAbsent("crit-chance", weaponConfig.getOrDefault("crit-chance", 0.0));
-            extra.putIfAbsent("crit-damage-multiplier", weaponConfig.getOrDefault("crit-damage-multiplier", 0.0));
-            extra.putIfAbsent("knockback", weaponConfig.getOrDefault("knockback", 0.0));
-            extra.putIfAbsent("durability-cost-multiplier", weaponConfig.getOrDefault("durability-cost-multiplier", 1.0));
+        int customModelData = 0;
+        Object cmdObj = weaponConfig.get("custom-model-data");
+        if (cmdObj instanceof Integer) {
+            customModelData = (Integer) cmdObj;
+        }
 
-            int minLevel = weaponConfig.containsKey("min-level") ? (Integer) weaponConfig.get("min-level") : 0;
+        boolean enchantedGlow = false;
+        Object glowObj = weaponConfig.get("enchanted-glow");
+        if (glowObj instanceof Boolean) {
+            enchantedGlow = (Boolean) glowObj;
+        }
 
-            // 安全的取得 lore（避免 ClassCastException）
-            List<String> lore = new ArrayList<>();
-            Object loreObj = weaponConfig.get("lore");
-            if (loreObj instanceof List<?>) {
-                for (Object item : (List<?>) loreObj) {
-                    if (item instanceof String) {
-                        lore.add((String) item);
-                    }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> extra = weaponConfig.get("extra") instanceof Map
+                ? (Map<String, Object>) weaponConfig.get("extra")
+                : new HashMap<>();
+
+        // stats (新格式) 會放在 extra 裡
+        extra.putIfAbsent("base-damage", weaponConfig.getOrDefault("base-damage", 0.0));
+        extra.putIfAbsent("attack-speed", weaponConfig.getOrDefault("attack-speed", 0.0));
+        extra.putIfAbsent("crit-chance", weaponConfig.getOrDefault("crit-chance", 0.0));
+        extra.putIfAbsent("crit-damage-multiplier", weaponConfig.getOrDefault("crit-damage-multiplier", 0.0));
+        extra.putIfAbsent("knockback", weaponConfig.getOrDefault("knockback", 0.0));
+        extra.putIfAbsent("durability-cost-multiplier", weaponConfig.getOrDefault("durability-cost-multiplier", 1.0));
+
+        int minLevel = weaponConfig.containsKey("min-level") ? (Integer) weaponConfig.get("min-level") : 0;
+
+        // 安全的取得 lore（避免 ClassCastException）
+        List<String> lore = new ArrayList<>();
+        Object loreObj = weaponConfig.get("lore");
+        if (loreObj instanceof List<?>) {
+            for (Object item : (List<?>) loreObj) {
+                if (item instanceof String) {
+                    lore.add((String) item);
                 }
             }
-
-            WeaponData weaponData = new WeaponData(
-                    weaponKey,
-                    displayName,
-                    Material.valueOf((String) weaponConfig.get("material")),
-                    weaponConfig.get("damage-multiplier") instanceof Double ? (Double) weaponConfig.get("damage-multiplier") : 1.0,
-                    (String) weaponConfig.get("special-effect"),
-                    lore,
-                    customModelData,
-                    enchantedGlow,
-                    extra,
-                    minLevel
-            );
-
-            weapons.put(weaponKey, weaponData);
-            plugin.getLogger().info("Loaded weapon: " + weaponData.getDisplayName());
         }
+
+        return new WeaponData(
+                weaponKey,
+                displayName,
+                Material.valueOf((String) weaponConfig.get("material")),
+                weaponConfig.get("damage-multiplier") instanceof Double ? (Double) weaponConfig.get("damage-multiplier") : 1.0,
+                (String) weaponConfig.get("special-effect"),
+                lore,
+                customModelData,
+                enchantedGlow,
+                extra,
+                minLevel
+        );
     }
 
     /**
@@ -138,7 +206,7 @@ public class WeaponManager {
      */
     @SuppressWarnings("deprecation")
     public ItemStack createWeapon(String weaponKey) {
-        WeaponData weaponData = weapons.get(weaponKey);
+        WeaponData weaponData = registry.weapons().get(weaponKey);
         if (weaponData == null) {
             return null;
         }
@@ -172,7 +240,7 @@ public class WeaponManager {
 
             // 套用攻擊速度（AttributeModifier）。
             // 注意：這是對「物品」的屬性，不是玩家永久屬性。
-            double attackSpeed = weaponData.getDoubleExtra("attack-speed", 0.0);
+            double attackSpeed = weaponData.getProfile().getAttackSpeed();
             if (attackSpeed != 0.0) {
                 AttributeModifier mod = new AttributeModifier(
                         attackSpeedModifierKey,
@@ -184,7 +252,7 @@ public class WeaponManager {
             }
 
             // 擊退強度（Knockback Resistance 不是擊退，這裡採用 attack knockback add）
-            double knockback = weaponData.getDoubleExtra("knockback", 0.0);
+            double knockback = weaponData.getProfile().getKnockback();
             if (knockback != 0.0) {
                 AttributeModifier mod = new AttributeModifier(
                         knockbackModifierKey,
@@ -208,7 +276,10 @@ public class WeaponManager {
      */
     @SuppressWarnings("deprecation")
     public String getWeaponKey(ItemStack item) {
-        if (item == null || !item.hasItemMeta()) {
+        Registry registry = this.registry;
+
+        // 材質不是任何自訂武器使用的材質：不用複製 meta
+        if (item == null || !registry.materials().contains(item.getType()) || !item.hasItemMeta()) {
             return null;
         }
 
@@ -219,24 +290,16 @@ public class WeaponManager {
 
         // 優先讀 PDC
         String keyFromPdc = meta.getPersistentDataContainer().get(weaponKeyData, PersistentDataType.STRING);
-        if (keyFromPdc != null && weapons.containsKey(keyFromPdc)) {
+        if (keyFromPdc != null && registry.weapons().containsKey(keyFromPdc)) {
             return keyFromPdc;
         }
 
-        // fallback：舊物品用 displayName 比對
+        // fallback：舊物品用 displayName 查表（未命中即代表不是自訂武器）
         if (!meta.hasDisplayName()) {
             return null;
         }
 
-        String displayName = meta.getDisplayName();
-        for (Map.Entry<String, WeaponData> entry : weapons.entrySet()) {
-            String weaponDisplayName = ChatColor.translateAlternateColorCodes('&', entry.getValue().getDisplayName());
-            if (displayName.equals(weaponDisplayName)) {
-                return entry.getKey();
-            }
-        }
-
-        return null;
+        return registry.displayNames().get(meta.getDisplayName());
     }
 
     /**
@@ -245,7 +308,24 @@ public class WeaponManager {
      * @return WeaponData or null if not found
      */
     public WeaponData getWeaponData(String weaponKey) {
-        return weapons.get(weaponKey);
+        return registry.weapons().get(weaponKey);
+    }
+
+    /**
+     * Check whether any custom weapon uses this material
+     * @param material Item material
+     * @return false if an item of this material can never be a custom weapon
+     */
+    public boolean isWeaponMaterial(Material material) {
+        return registry.materials().contains(material);
+    }
+
+    /**
+     * Version of the weapon registry; changes every time weapons are (re)loaded
+     * @return Registry version (for caches holding WeaponData)
+     */
+    public int getRegistryVersion() {
+        return registryVersion;
     }
 
     /**
@@ -253,7 +333,7 @@ public class WeaponManager {
      * @return List of all weapon keys
      */
     public List<String> getWeaponKeys() {
-        return new ArrayList<>(weapons.keySet());
+        return new ArrayList<>(registry.weapons().keySet());
     }
 
     /**
@@ -261,15 +341,74 @@ public class WeaponManager {
      * @return Number of weapons
      */
     public int getWeaponCount() {
-        return weapons.size();
+        return registry.weapons().size();
     }
 
     /**
-     * Reload weapons, clearing the current list and reloading from config
+     * Reload weapons from config
+     *
+     * The new registry is fully built before it replaces the current one, so weapons keep
+     * working during the reload. Safe to call from an async task.
      */
-    public void reloadWeapons() {
-        weapons.clear();
-        loadWeapons();
+    public synchronized void reloadWeapons() {
+        Registry next = loadWeapons();
+        registry = next;
+        registryVersion++;
+    }
+
+    /**
+     * Recompile only the weapons affected by an incremental config reload
+     *
+     * Affected = defined in a changed weapon type file, or referencing a changed skill template.
+     * Every other weapon keeps its existing WeaponData. Safe to call from an async task.
+     * @param change Result of ConfigManager#reloadChangedConfigs
+     */
+    public synchronized void reloadWeapons(ConfigManager.ConfigChange change) {
+        if (!change.touchesWeapons()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        Registry current = registry;
+
+        Set<String> files = new HashSet<>();
+        for (String file : change.files()) {
+            if (file.startsWith("config/weapons/types/")) {
+                files.add(file);
+            }
+        }
+        if (!change.skillTemplates().isEmpty()) {
+            for (WeaponData weaponData : current.weapons().values()) {
+                Object skillName = weaponData.getExtra().get("active-skill-name");
+                if (skillName != null && change.skillTemplates().contains(String.valueOf(skillName))) {
+                    files.add(current.sources().get(weaponData.getKey()));
+                }
+            }
+        }
+        if (files.isEmpty()) {
+            return;
+        }
+
+        Map<String, WeaponData> weapons = new HashMap<>(current.weapons());
+        Map<String, String> sources = new HashMap<>(current.sources());
+        sources.entrySet().removeIf(e -> {
+            if (files.contains(e.getValue())) {
+                weapons.remove(e.getKey());
+                return true;
+            }
+            return false;
+        });
+
+        Map<String, Map<String, Object>> rebuilt = configManager.getWeapons(files);
+        for (Map.Entry<String, Map<String, Object>> entry : rebuilt.entrySet()) {
+            weapons.put(entry.getKey(), compileWeapon(entry.getKey(), entry.getValue()));
+            sources.put(entry.getKey(), String.valueOf(entry.getValue().get("source-file")));
+        }
+
+        registry = buildRegistry(weapons, sources);
+        registryVersion++;
+        plugin.getLogger().info("Recompiled " + rebuilt.size() + " weapon(s) from " + files.size() + " file(s) in "
+                + ConfigManager.formatMillis(System.nanoTime() - start));
     }
 
     /**
@@ -286,6 +425,7 @@ public class WeaponManager {
         private final boolean enchantedGlow;
         private final Map<String, Object> extra;
         private final int minLevel;
+        private final WeaponProfile profile;
 
         public WeaponData(String key, String displayName, Material material, double damageMultiplier,
                           String specialEffect, List<String> lore, int customModelData, boolean enchantedGlow,
@@ -306,6 +446,7 @@ public class WeaponManager {
             this.enchantedGlow = enchantedGlow;
             this.extra = extra;
             this.minLevel = minLevel;
+            this.profile = WeaponProfile.compile(key, minLevel, damageMultiplier, extra);
         }
 
         public String getKey() { return key; }
@@ -319,6 +460,12 @@ public class WeaponManager {
         public Map<String, Object> getExtra() { return extra; }
         public int getMinLevel() { return minLevel; }
 
+        /**
+         * 取得編譯後的戰鬥資料（戰鬥/技能熱路徑請用這個，不要再查 extra）
+         * @return WeaponProfile
+         */
+        public WeaponProfile getProfile() { return profile; }
+
         public double getDoubleExtra(String key, double defaultValue) {
             Object val = extra.get(key);
             if (val instanceof Number) {
@@ -0,0 +1,147 @@
+package com.customrpg.players;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Arrays;
+
+/**
+ * ExperienceCurve - 編譯好的升級經驗表（config.yml 的 leveling 區段）
+ *
+ * 從等級 L 升到 L+1 所需經驗 = base + per-level * L ^ exponent（至少 1），
+ * 載入時一次算好 1 ~ max-level 的累積經驗表。任何經驗量能升幾級都用二分搜尋求出，
+ * 不需要逐級迴圈。
+ *
+ * max-level 是等級上限（預設 1000）：到達後不再升級，也不再累積經驗（剩餘經驗歸 0，顯示為 MAX）。
+ * 被指令設到超過上限的玩家保持原等級。
+ *
+ * 不可變，可跨執行緒共用；重載時整個換掉。
+ */
+public final class ExperienceCurve {
+
+    /**
+     * 套用經驗後的結果
+     * @param level New level
+     * @param exp Exp left over towards the next level
+     */
+    public record Progress(int level, long exp) {}
+
+    private final int maxLevel;
+    private final double base;
+    private final double perLevel;
+    private final double exponent;
+    private final int statPointsPerLevel;
+    private final int statsPerLevel;
+
+    // cumulative[L] = 從等級 1 升到等級 L 所需的總經驗（cumulative[1] = 0）
+    private final long[] cumulative;
+
+    private ExperienceCurve(int maxLevel, double base, double perLevel, double exponent,
+                            int statPointsPerLevel, int statsPerLevel) {
+        this.maxLevel = maxLevel;
+        this.base = base;
+        this.perLevel = perLevel;
+        this.exponent = exponent;
+        this.statPointsPerLevel = statPointsPerLevel;
+        this.statsPerLevel = statsPerLevel;
+
+        this.cumulative = new long[maxLevel + 1];
+        for (int level = 1; level < maxLevel; level++) {
+            long next = cumulative[level] + formula(level);
+            // 溢位時停在 Long.MAX_VALUE，之後的等級實際上達不到
+            cumulative[level + 1] = next < cumulative[level] ? Long.MAX_VALUE : next;
+        }
+    }
+
+    /**
+     * Build the curve from the leveling section (defaults reproduce the old level * 100 rule)
+     * @param section config.yml leveling section, may be null
+     * @return Compiled curve
+     */
+    public static ExperienceCurve fromConfig(ConfigurationSection section) {
+        if (section == null) {
+            return new ExperienceCurve(1000, 0.0, 100.0, 1.0, 10, 1);
+        }
+        return new ExperienceCurve(
+                Math.max(2, section.getInt("max-level", 1000)),
+                section.getDouble("exp-curve.base", 0.0),
+                section.getDouble("exp-curve.per-level", 100.0),
+                section.getDouble("exp-curve.exponent", 1.0),
+                Math.max(0, section.getInt("stat-points-per-level", 10)),
+                Math.max(0, section.getInt("stats-per-level", 1)));
+    }
+
+    private long formula(int level) {
+        double value = base + perLevel * Math.pow(level, exponent);
+        if (value >= Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(1L, Math.round(value));
+    }
+
+    /**
+     * 取得升級所需經驗值
+     * @param level Current level
+     * @return Exp needed to go from level to level + 1
+     */
+    public long getRequiredExp(int level) {
+        if (level >= 1 && level < maxLevel) {
+            return cumulative[level + 1] - cumulative[level];
+        }
+        // 已滿級（或被指令設到超過上限）：只用於顯示
+        return formula(Math.max(1, level));
+    }
+
+    /**
+     * 計算目前的等級與經驗最後會升到幾級
+     * @param level Current level
+     * @param exp Current exp within that level (may exceed the requirement)
+     * @return New level and leftover exp; unchanged if no level is gained
+     */
+    public Progress resolve(int level, long exp) {
+        if (level >= maxLevel) {
+            // 滿級不累積經驗
+            return new Progress(level, 0L);
+        }
+        if (level < 1) {
+            return new Progress(level, exp);
+        }
+
+        long total = cumulative[level] + exp;
+        if (total < cumulative[level]) {
+            total = Long.MAX_VALUE;
+        }
+
+        // 找最大的 L 使 cumulative[L] <= total
+        int index = Arrays.binarySearch(cumulative, level, maxLevel + 1, total);
+        int newLevel;
+        if (index >= 0) {
+            // 溢位飽和時可能有多個相同值，取最後一個
+            newLevel = index;
+            while (newLevel < maxLevel && cumulative[newLevel + 1] == total) {
+                newLevel++;
+            }
+        } else {
+            newLevel = -index - 2;
+        }
+        return new Progress(newLevel, newLevel >= maxLevel ? 0L : total - cumulative[newLevel]);
+    }
+
+    /**
+     * @return true if the level is at (or was set above) the cap and no longer gains exp
+     */
+    public boolean isMaxLevel(int level) {
+        return level >= maxLevel;
+    }
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    public int getStatPointsPerLevel() {
+        return statPointsPerLevel;
+    }
+
+    public int getStatsPerLevel() {
+        return statsPerLevel;
+    }
+}
@@ -0,0 +1,271 @@
+package com.customrpg.players;
+
+import com.customrpg.utils.RankTree;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Leaderboard - 排行榜索引（等級 / 各項屬性）
+ *
+ * 每個類別一棵 {@link RankTree}，玩家數據變動時由 PlayerStatsManager 更新，
+ * 名次與前 K 名查詢都是 O(log n)，不需要掃描玩家檔案。
+ * 索引存成 data/leaderboard.dat，與玩家數據一起定期寫入；檔案遺失或與儲存後端不符時由
+ * PlayerStatsManager 串流重建。
+ *
+ * Main thread only（重建時在背景建立新的實例，完成後在主執行緒換上）。
+ */
+public class Leaderboard {
+
+    private static final int MAGIC = 0x43524c42; // "CRLB"
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * 排行類別
+     */
+    public enum Category {
+        LEVEL("level", "等級"),
+        STRENGTH("strength", "物理攻擊"),
+        MAGIC("magic", "魔法攻擊"),
+        AGILITY("agility", "敏捷"),
+        VITALITY("vitality", "生命力"),
+        DEFENSE("defense", "防禦");
+
+        private final String id;
+        private final String displayName;
+
+        Category(String id, String displayName) {
+            this.id = id;
+            this.displayName = displayName;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * @param name Category id or short alias (lvl, str, mag, agi, vit, def)
+         * @return Category, or null if unknown
+         */
+        public static Category fromName(String name) {
+            return switch (name.toLowerCase()) {
+                case "level", "lvl", "exp" -> LEVEL;
+                case "strength", "str" -> STRENGTH;
+                case "magic", "mag" -> MAGIC;
+                case "agility", "agi" -> AGILITY;
+                case "vitality", "vit" -> VITALITY;
+                case "defense", "def" -> DEFENSE;
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * 一位玩家在排行榜中的數據
+     */
+    public record Entry(UUID uuid, int level, long exp, int strength, int magic, int agility, int vitality, int defense) {
+
+        public static Entry of(UUID uuid, PlayerStats.Snapshot stats) {
+            return new Entry(uuid, stats.level(), stats.exp(), stats.strength(), stats.magic(),
+                    stats.agility(), stats.vitality(), stats.defense());
+        }
+
+        public static Entry of(UUID uuid, Map<String, Object> data) {
+            return of(uuid, PlayerStats.deserialize(data).snapshot());
+        }
+
+        /**
+         * @param category Category
+         * @return Ranked value (LEVEL ranks by level, then exp)
+         */
+        public long score(Category category) {
+            return switch (category) {
+                case LEVEL -> level;
+                case STRENGTH -> strength;
+                case MAGIC -> magic;
+                case AGILITY -> agility;
+                case VITALITY -> vitality;
+                case DEFENSE -> defense;
+            };
+        }
+    }
+
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final Map<Category, RankTree<Entry>> trees = new EnumMap<>(Category.class);
+    private boolean modified;
+
+    public Leaderboard() {
+        for (Category category : Category.values()) {
+            trees.put(category, new RankTree<>(comparator(category)));
+        }
+    }
+
+    // 高分在前；同分時等級榜比經驗，最後以 UUID 決定，保證全序
+    private static Comparator<Entry> comparator(Category category) {
+        Comparator<Entry> order = Comparator.comparingLong((Entry e) -> e.score(category)).reversed();
+        if (category == Category.LEVEL) {
+            order = order.thenComparing(Comparator.comparingLong(Entry::exp).reversed());
+        }
+        return order.thenComparing(Entry::uuid);
+    }
+
+    /**
+     * 更新一位玩家（數據沒變則不動）
+     * @param entry New data
+     */
+    public void update(Entry entry) {
+        Entry previous = entries.put(entry.uuid(), entry);
+        if (entry.equals(previous)) {
+            return;
+        }
+        for (RankTree<Entry> tree : trees.values()) {
+            if (previous != null) {
+                tree.remove(previous);
+            }
+            tree.insert(entry);
+        }
+        modified = true;
+    }
+
+    /**
+     * @param uuid Player UUID
+     * @param category Category
+     * @return 1-based rank, or 0 if the player is not ranked
+     */
+    public int getRank(UUID uuid, Category category) {
+        Entry entry = entries.get(uuid);
+        return entry == null ? 0 : trees.get(category).rankOf(entry) + 1;
+    }
+
+    /**
+     * @param uuid Player UUID
+     * @return Ranked data, or null if the player is not ranked
+     */
+    public Entry getEntry(UUID uuid) {
+        return entries.get(uuid);
+    }
+
+    /**
+     * @param category Category
+     * @param fromRank First rank (1-based)
+     * @param limit Max number of entries
+     * @return Entries in rank order
+     */
+    public List<Entry> getTop(Category category, int fromRank, int limit) {
+        return trees.get(category).range(fromRank - 1, limit);
+    }
+
+    /**
+     * @return Number of ranked players
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 取出要寫入的數據（有變動才回傳），並清除變動標記
+     * @return Copy of all entries, or null if nothing changed since the last call
+     */
+    public List<Entry> takeSnapshotIfModified() {
+        if (!modified) {
+            return null;
+        }
+        modified = false;
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * 標記需要寫入（例如剛重建完）
+     */
+    public void markModified() {
+        modified = true;
+    }
+
+    // ===== 持久化 =====
+
+    /**
+     * Write entries to the index file (temp file + atomic move)
+     * @param file data/leaderboard.dat
+     * @param storageName PlayerStatsStorage#getName() the index was built from
+     * @param entries Output of {@link #takeSnapshotIfModified()}
+     * @throws IOException on write failure
+     */
+    public static void write(File file, String storageName, List<Entry> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entries.size() * 52);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(storageName);
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                out.writeLong(entry.uuid().getMostSignificantBits());
+                out.writeLong(entry.uuid().getLeastSignificantBits());
+                out.writeInt(entry.level());
+                out.writeLong(entry.exp());
+                out.writeInt(entry.strength());
+                out.writeInt(entry.magic());
+                out.writeInt(entry.agility());
+                out.writeInt(entry.vitality());
+                out.writeInt(entry.defense());
+            }
+        }
+
+        Path target = file.toPath();
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(file.getName() + ".tmp");
+        Files.write(tmp, bytes.toByteArray());
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Read the index file
+     * @param file data/leaderboard.dat
+     * @param storageName Current PlayerStatsStorage#getName()
+     * @return Loaded leaderboard
+     * @throws IOException if the file is missing, corrupt, or was built from another storage
+     */
+    public static Leaderboard read(File file, String storageName) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("unsupported leaderboard format");
+            }
+            String builtFrom = in.readUTF();
+            if (!builtFrom.equals(storageName)) {
+                throw new IOException("built from " + builtFrom + " storage");
+            }
+
+            Leaderboard leaderboard = new Leaderboard();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                leaderboard.update(new Entry(uuid, in.readInt(), in.readLong(), in.readInt(), in.readInt(),
+                        in.readInt(), in.readInt(), in.readInt()));
+            }
+            leaderboard.modified = false;
+            return leaderboard;
+        }
+    }
+}
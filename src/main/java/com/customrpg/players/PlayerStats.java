@@ -2,6 +2,8 @@ package com.customrpg.players;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
  * PlayerStats - 玩家數據模型
@@ -12,113 +14,262 @@ import java.util.Map;
  * - Agility (敏捷 - 暴擊/遠程)
  * - Vitality (生命力 - 最大血量)
  * - Defense (防禦)
+ *
+ * 所有數值放在一個不可變的 {@link Snapshot} 裡，每次 setter 都以 CAS 換上一份新的 Snapshot
+ * 並把 version + 1（值沒變則不換）。背景執行緒（存檔、離線查詢）用 {@link #snapshot()} 取得數據，不需要鎖。
+ *
+ * 單一 setter 只改一個欄位；同時改多個欄位（升級、分配點數）必須用 {@link #update(UnaryOperator)}
+ * 一次換上，{@link #snapshot()} 才不會讀到只改了一半的狀態。
+ *
+ * 存檔：PlayerStatsManager 記下最後寫入的 version（{@link #markSaved(long)}），
+ * version 沒變的玩家不會重寫（write-behind）。
  */
 public class PlayerStats {
 
-    private int strength;    // 物理攻擊
-    private int magic;       // 魔法攻擊
-    private int agility;     // 敏捷 (影響暴擊率 & 弓箭傷害)
-    private int vitality;    // 生命力 (影響最大血量)
-    private int defense;     // 防禦 (減免傷害)
+    /**
+     * 某一時間點的完整數據（不可變，可跨執行緒傳遞）
+     *
+     * @param version Incremented on every change; used to skip unchanged saves
+     */
+    public record Snapshot(int strength, int magic, int agility, int vitality, int defense,
+                           int level, long exp, int statPoints, long version) {
+
+        public Snapshot withStrength(int value) {
+            if (value == strength) {
+                return this;
+            }
+            return new Snapshot(value, magic, agility, vitality, defense, level, exp, statPoints, version + 1);
+        }
+
+        public Snapshot withMagic(int value) {
+            if (value == magic) {
+                return this;
+            }
+            return new Snapshot(strength, value, agility, vitality, defense, level, exp, statPoints, version + 1);
+        }
+
+        public Snapshot withAgility(int value) {
+            if (value == agility) {
+                return this;
+            }
+            return new Snapshot(strength, magic, value, vitality, defense, level, exp, statPoints, version + 1);
+        }
+
+        public Snapshot withVitality(int value) {
+            if (value == vitality) {
+                return this;
+            }
+            return new Snapshot(strength, magic, agility, value, defense, level, exp, statPoints, version + 1);
+        }
+
+        public Snapshot withDefense(int value) {
+            if (value == defense) {
+                return this;
+            }
+            return new Snapshot(strength, magic, agility, vitality, value, level, exp, statPoints, version + 1);
+        }
+
+        public Snapshot withLevel(int value) {
+            if (value == level) {
+                return this;
+            }
+            return new Snapshot(strength, magic, agility, vitality, defense, value, exp, statPoints, version + 1);
+        }
+
+        public Snapshot withExp(long value) {
+            if (value == exp) {
+                return this;
+            }
+            return new Snapshot(strength, magic, agility, vitality, defense, level, value, statPoints, version + 1);
+        }
+
+        public Snapshot withStatPoints(int value) {
+            if (value == statPoints) {
+                return this;
+            }
+            return new Snapshot(strength, magic, agility, vitality, defense, level, exp, value, version + 1);
+        }
 
-    private int level;
-    private long exp;
-    private int statPoints;
+        Snapshot touched() {
+            return new Snapshot(strength, magic, agility, vitality, defense, level, exp, statPoints, version + 1);
+        }
+
+        /**
+         * 轉換為 Map (用於儲存)
+         */
+        public Map<String, Object> serialize() {
+            Map<String, Object> data = new HashMap<>();
+            data.put("strength", strength);
+            data.put("magic", magic);
+            data.put("agility", agility);
+            data.put("vitality", vitality);
+            data.put("defense", defense);
+
+            data.put("level", level);
+            data.put("exp", exp);
+            data.put("statPoints", statPoints);
+            return data;
+        }
+    }
+
+    private final AtomicReference<Snapshot> current;
+
+    // 最後一次交給 writer 的 version
+    private volatile long savedVersion;
 
     /**
      * 預設建構子，初始屬性皆為 0
      */
     public PlayerStats() {
-        this.strength = 0;
-        this.magic = 0;
-        this.agility = 0;
-        this.vitality = 0;
-        this.defense = 0;
-
-        this.level = 1;
-        this.exp = 0;
-        this.statPoints = 0;
+        this(0, 0, 0, 0, 0, 1, 0, 0);
     }
 
     /**
      * 完整建構子
      */
     public PlayerStats(int strength, int magic, int agility, int vitality, int defense, int level, long exp, int statPoints) {
-        this.strength = strength;
-        this.magic = magic;
-        this.agility = agility;
-        this.vitality = vitality;
-        this.defense = defense;
-
-        this.level = level;
-        this.exp = exp;
-        this.statPoints = statPoints;
+        this.current = new AtomicReference<>(
+                new Snapshot(strength, magic, agility, vitality, defense, level, exp, statPoints, 0L));
+        this.savedVersion = 0L;
     }
 
     // ===== Getters & Setters =====
 
     public int getStrength() {
-        return strength;
+        return current.get().strength();
     }
 
     public void setStrength(int strength) {
-        this.strength = Math.max(0, strength);
+        int value = Math.max(0, strength);
+        current.updateAndGet(s -> s.withStrength(value));
     }
 
     public int getMagic() {
-        return magic;
+        return current.get().magic();
     }
 
     public void setMagic(int magic) {
-        this.magic = Math.max(0, magic);
+        int value = Math.max(0, magic);
+        current.updateAndGet(s -> s.withMagic(value));
     }
 
     public int getAgility() {
-        return agility;
+        return current.get().agility();
     }
 
     public void setAgility(int agility) {
-        this.agility = Math.max(0, agility);
+        int value = Math.max(0, agility);
+        current.updateAndGet(s -> s.withAgility(value));
     }
 
     public int getVitality() {
-        return vitality;
+        return current.get().vitality();
     }
 
     public void setVitality(int vitality) {
-        this.vitality = Math.max(0, vitality);
+        int value = Math.max(0, vitality);
+        current.updateAndGet(s -> s.withVitality(value));
     }
 
     public int getDefense() {
-        return defense;
+        return current.get().defense();
     }
 
     public void setDefense(int defense) {
-        this.defense = Math.max(0, defense);
+        int value = Math.max(0, defense);
+        current.updateAndGet(s -> s.withDefense(value));
     }
 
     public int getLevel() {
-        return level;
+        return current.get().level();
     }
 
     public void setLevel(int level) {
-        this.level = Math.max(1, level);
+        int value = Math.max(1, level);
+        current.updateAndGet(s -> s.withLevel(value));
     }
 
     public long getExp() {
-        return exp;
+        return current.get().exp();
     }
 
     public void setExp(long exp) {
-        this.exp = Math.max(0, exp);
+        long value = Math.max(0, exp);
+        current.updateAndGet(s -> s.withExp(value));
     }
 
     public int getStatPoints() {
-        return statPoints;
+        return current.get().statPoints();
     }
 
     public void setStatPoints(int statPoints) {
-        this.statPoints = Math.max(0, statPoints);
+        int value = Math.max(0, statPoints);
+        current.updateAndGet(s -> s.withStatPoints(value));
+    }
+
+    // ===== Snapshot / version =====
+
+    /**
+     * 取得目前數據的不可變快照（任何執行緒都可呼叫）
+     */
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * @return Current version (incremented on every change)
+     */
+    public long getVersion() {
+        return current.get().version();
+    }
+
+    /**
+     * 是否有尚未寫入的變動
+     */
+    public boolean isDirty() {
+        return current.get().version() != savedVersion;
+    }
+
+    /**
+     * 一次 CAS 換上多個欄位的變動（fn 可能因競爭被重跑，不可有副作用）
+     * @param fn Returns the new snapshot (built with the with* methods), or the same instance for no change
+     * @return Snapshot after the update
+     */
+    public Snapshot update(UnaryOperator<Snapshot> fn) {
+        return current.updateAndGet(fn);
+    }
+
+    /**
+     * 套用轉換（CAS，與 setter 一樣會讓 version 增加）
+     * @param transform Transform to apply
+     * @return true if the stats changed
+     */
+    public boolean apply(StatsTransform transform) {
+        while (true) {
+            Snapshot before = current.get();
+            Snapshot after = transform.apply(before);
+            if (after == before) {
+                return false;
+            }
+            if (current.compareAndSet(before, after)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 標記為需要寫入（不經 setter 的變動使用）
+     */
+    public void markDirty() {
+        current.updateAndGet(Snapshot::touched);
+    }
+
+    /**
+     * 某個 version 的快照已交給 writer
+     * @param version Snapshot#version() that was queued for saving
+     */
+    public void markSaved(long version) {
+        this.savedVersion = version;
     }
 
     // ===== 序列化/反序列化 =====
@@ -127,17 +278,7 @@ public class PlayerStats {
      * 將 PlayerStats 轉換為 Map (用於儲存到 YAML)
      */
     public Map<String, Object> serialize() {
-        Map<String, Object> data = new HashMap<>();
-        data.put("strength", strength);
-        data.put("magic", magic);
-        data.put("agility", agility);
-        data.put("vitality", vitality);
-        data.put("defense", defense);
-
-        data.put("level", level);
-        data.put("exp", exp);
-        data.put("statPoints", statPoints);
-        return data;
+        return current.get().serialize();
     }
 
     /**
@@ -167,15 +308,17 @@ public class PlayerStats {
 
     @Override
     public String toString() {
+        Snapshot s = current.get();
         return "PlayerStats{" +
-                "Strength=" + strength +
-                ", Magic=" + magic +
-                ", Agility=" + agility +
-                ", Vitality=" + vitality +
-                ", Defense=" + defense +
-                ", Level=" + level +
-                ", Exp=" + exp +
-                ", StatPoints=" + statPoints +
+                "Strength=" + s.strength() +
+                ", Magic=" + s.magic() +
+                ", Agility=" + s.agility() +
+                ", Vitality=" + s.vitality() +
+                ", Defense=" + s.defense() +
+                ", Level=" + s.level() +
+                ", Exp=" + s.exp() +
+                ", StatPoints=" + s.statPoints() +
+                ", Version=" + s.version() +
                 '}';
     }
 }
@@ -0,0 +1,108 @@
+package com.customrpg.players;
+
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+/**
+ * StatsTransform - 套用到一位玩家數據的轉換（/rpg bulk 批次工作使用）
+ *
+ * 可用的轉換：
+ * - reset：全部回到預設值（等級 1）
+ * - respec：依目前的 leveling 設定重算，全屬性 = (等級-1) × stats-per-level，
+ *   屬性點數 = (等級-1) × stat-points-per-level（已分配的點數全部退回）
+ * - set &lt;數據&gt; &lt;數值&gt;：與 /rpg setstat 相同的數據名稱
+ *
+ * 轉換都是冪等的：批次工作從 checkpoint 接續時，checkpoint 之後已處理過的玩家會再套用一次。
+ * 結果沒變時回傳同一個 Snapshot（version 不變，不會寫入）。
+ */
+public final class StatsTransform {
+
+    private final String spec;
+    private final UnaryOperator<PlayerStats.Snapshot> function;
+
+    private StatsTransform(String spec, UnaryOperator<PlayerStats.Snapshot> function) {
+        this.spec = spec;
+        this.function = function;
+    }
+
+    /**
+     * @param stats Current stats
+     * @return Transformed stats, or the same instance if nothing changed
+     */
+    public PlayerStats.Snapshot apply(PlayerStats.Snapshot stats) {
+        return function.apply(stats);
+    }
+
+    /**
+     * @return Arguments that recreate this transform with {@link #parse(String[], ExperienceCurve)}
+     */
+    public String getSpec() {
+        return spec;
+    }
+
+    /**
+     * @param args Operation arguments, e.g. {"reset"}, {"respec"}, {"set", "strength", "10"}
+     * @param curve Current experience curve (used by respec)
+     * @return Transform, or null if the arguments are invalid
+     */
+    public static StatsTransform parse(String[] args, ExperienceCurve curve) {
+        if (args.length == 0) {
+            return null;
+        }
+        return switch (args[0].toLowerCase(Locale.ROOT)) {
+            case "reset" -> args.length == 1 ? reset() : null;
+            case "respec" -> args.length == 1 ? respec(curve) : null;
+            case "set" -> args.length == 3 ? set(args[1], args[2]) : null;
+            default -> null;
+        };
+    }
+
+    private static StatsTransform reset() {
+        return new StatsTransform("reset", s -> s
+                .withStrength(0).withMagic(0).withAgility(0).withVitality(0).withDefense(0)
+                .withLevel(1).withExp(0L).withStatPoints(0));
+    }
+
+    private static StatsTransform respec(ExperienceCurve curve) {
+        int statsPerLevel = curve.getStatsPerLevel();
+        int pointsPerLevel = curve.getStatPointsPerLevel();
+        return new StatsTransform("respec", s -> {
+            long gained = Math.max(0, s.level() - 1);
+            int stat = (int) Math.min(Integer.MAX_VALUE, gained * statsPerLevel);
+            int points = (int) Math.min(Integer.MAX_VALUE, gained * pointsPerLevel);
+            return s.withStrength(stat).withMagic(stat).withAgility(stat).withVitality(stat).withDefense(stat)
+                    .withStatPoints(points);
+        });
+    }
+
+    private static StatsTransform set(String statName, String rawValue) {
+        long parsed;
+        try {
+            parsed = Long.parseLong(rawValue);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        // 與 PlayerStats 的 setter 相同的下限
+        long value = Math.max(0, parsed);
+        int intValue = (int) Math.min(Integer.MAX_VALUE, value);
+
+        String stat = statName.toLowerCase(Locale.ROOT);
+        UnaryOperator<PlayerStats.Snapshot> function = switch (stat) {
+            case "strength", "str" -> s -> s.withStrength(intValue);
+            case "magic", "mag" -> s -> s.withMagic(intValue);
+            case "agility", "agi" -> s -> s.withAgility(intValue);
+            case "vitality", "vit" -> s -> s.withVitality(intValue);
+            case "defense", "def" -> s -> s.withDefense(intValue);
+            case "level", "lvl" -> s -> s.withLevel(Math.max(1, intValue));
+            case "exp" -> s -> s.withExp(value);
+            case "points", "pts" -> s -> s.withStatPoints(intValue);
+            default -> null;
+        };
+        return function == null ? null : new StatsTransform("set " + stat + " " + value, function);
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
@@ -0,0 +1,430 @@
+package com.customrpg.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * MappedPlayerStatsStorage - 所有玩家存在一個 memory-mapped 檔案 (data/players.dat)，每人一筆固定長度紀錄
+ *
+ * 檔案格式（version 3）：
+ * - Header (16 bytes)：magic, format version, record size, reserved
+ * - Record (72 bytes)：used(int), uuid(long, long), strength, magic, agility, vitality, defense, level(int),
+ *   exp(long), statPoints(int), seq(long), crc32(int, uuid..seq), padding
+ *
+ * Shadow slot：已落盤的紀錄不會被原地改寫。更新時寫進空的 slot，force() 之後才釋放舊的 slot，
+ * 所以每位玩家隨時都有一份完整的紀錄在硬碟上。啟動時掃描一次建立 UUID -> slot 索引：
+ * - CRC 不符（寫到一半就斷電）的紀錄丟棄；那是還沒確認的寫入，前一筆紀錄仍在
+ * - 同一玩家有兩筆（新的已落盤、舊的還沒釋放）時保留 seq 較大的
+ * saveBatch 回傳前一定先 force()，呼叫端（journal、批次工作 checkpoint）只會在數據落盤後才往前推。
+ * 預設數據（剛進服的玩家）不佔紀錄，被重設回預設值的玩家會釋放 slot 給別人用。
+ *
+ * 舊格式（version 1：56 bytes、沒有 CRC；version 2：64 bytes、沒有 seq）在開啟時轉換：
+ * 先在旁邊寫好完整的 players.dat.tmp 並 force()，再以 atomic move 換掉原檔；中途當機時原檔不變，下次啟動重新轉換。
+ */
+public class MappedPlayerStatsStorage implements PlayerStatsStorage {
+
+    private static final int MAGIC = 0x43525053; // "CRPS"
+    private static final int FORMAT_VERSION = 3;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 72;
+    private static final int GROW_RECORDS = 1024;
+
+    private static final int V1_FORMAT_VERSION = 1;
+    private static final int V1_RECORD_SIZE = 56;
+    private static final int V2_FORMAT_VERSION = 2;
+    private static final int V2_RECORD_SIZE = 64;
+    private static final int V2_OFF_CRC = 56;
+
+    // record field offsets
+    private static final int OFF_USED = 0;
+    private static final int OFF_UUID_MSB = 4;
+    private static final int OFF_UUID_LSB = 12;
+    private static final int OFF_STRENGTH = 20;
+    private static final int OFF_MAGIC = 24;
+    private static final int OFF_AGILITY = 28;
+    private static final int OFF_VITALITY = 32;
+    private static final int OFF_DEFENSE = 36;
+    private static final int OFF_LEVEL = 40;
+    private static final int OFF_EXP = 44;
+    private static final int OFF_STAT_POINTS = 52;
+    private static final int OFF_SEQ = 56;
+    private static final int OFF_CRC = 64;
+
+    private final FileChannel channel;
+    private final Map<UUID, Integer> index = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    // 被取代的舊 slot：新紀錄 force() 之後才釋放
+    private final List<Integer> pendingRelease = new ArrayList<>();
+    private final CRC32 crc = new CRC32();
+    private long nextSeq = 1;
+
+    private MappedByteBuffer buffer;
+    private int capacity;      // records the current mapping can hold
+    private int nextSlot;      // first never-used slot
+    private int corruptRecords;
+
+    /**
+     * @param file Data file (created if missing)
+     * @throws IOException if the file cannot be mapped or is not a stats file
+     */
+    public MappedPlayerStatsStorage(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+
+        if (file.exists()) {
+            Map<UUID, Map<String, Object>> legacy = readLegacy(file);
+            if (legacy != null) {
+                convert(file, legacy);
+            }
+        }
+
+        channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long size = channel.size();
+        if (size == 0) {
+            initialize();
+            return;
+        }
+
+        map((int) Math.max(0, (size - HEADER_SIZE) / RECORD_SIZE));
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(8) != RECORD_SIZE) {
+            channel.close();
+            throw new IOException(file.getName() + " is not a CustomRPG stats file (or has an unsupported format)");
+        }
+        rebuildIndex();
+    }
+
+    private void initialize() throws IOException {
+        map(GROW_RECORDS);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT_VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        buffer.force();
+    }
+
+    /**
+     * Read every record of an older format file
+     * @return uuid -> serialized stats, or null if the file is not in an older format
+     */
+    private static Map<UUID, Map<String, Object>> readLegacy(File file) throws IOException {
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size < HEADER_SIZE) {
+                return null;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            in.read(header, 0);
+            int recordSize;
+            if (header.getInt(0) != MAGIC) {
+                return null;
+            } else if (header.getInt(4) == V1_FORMAT_VERSION && header.getInt(8) == V1_RECORD_SIZE) {
+                recordSize = V1_RECORD_SIZE;
+            } else if (header.getInt(4) == V2_FORMAT_VERSION && header.getInt(8) == V2_RECORD_SIZE) {
+                recordSize = V2_RECORD_SIZE;
+            } else {
+                return null;
+            }
+
+            ByteBuffer old = ByteBuffer.allocate((int) size);
+            while (old.hasRemaining() && in.read(old, old.position()) >= 0) {
+                // read until full
+            }
+            Map<UUID, Map<String, Object>> records = new HashMap<>();
+            CRC32 crc = new CRC32();
+            long count = (size - HEADER_SIZE) / recordSize;
+            for (long slot = 0; slot < count; slot++) {
+                int base = (int) (HEADER_SIZE + slot * recordSize);
+                if (old.getInt(base + OFF_USED) == 0) {
+                    continue;
+                }
+                if (recordSize == V2_RECORD_SIZE) {
+                    crc.reset();
+                    crc.update(old.slice(base + OFF_UUID_MSB, V2_OFF_CRC - OFF_UUID_MSB));
+                    if (old.getInt(base + V2_OFF_CRC) != (int) crc.getValue()) {
+                        continue; // 寫到一半的紀錄（version 2 會原地改寫）
+                    }
+                }
+                UUID uuid = new UUID(old.getLong(base + OFF_UUID_MSB), old.getLong(base + OFF_UUID_LSB));
+                records.put(uuid, readFields(old, base));
+            }
+            return records;
+        }
+    }
+
+    /**
+     * 在旁邊寫好目前格式的完整檔案並 force()，再 atomic move 換掉原檔（不經 mmap，搬移時沒有映射中的檔案）
+     */
+    private static void convert(File file, Map<UUID, Map<String, Object>> records) throws IOException {
+        List<Map.Entry<UUID, Map<String, Object>>> entries = new ArrayList<>();
+        for (Map.Entry<UUID, Map<String, Object>> entry : records.entrySet()) {
+            if (!isDefault(entry.getValue())) {
+                entries.add(entry);
+            }
+        }
+        int slots = Math.max(GROW_RECORDS, entries.size());
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + slots * RECORD_SIZE);
+        out.putInt(0, MAGIC);
+        out.putInt(4, FORMAT_VERSION);
+        out.putInt(8, RECORD_SIZE);
+        CRC32 crc = new CRC32();
+        for (int slot = 0; slot < entries.size(); slot++) {
+            putRecord(out, offset(slot), entries.get(slot).getKey(), entries.get(slot).getValue(), slot + 1L, crc);
+        }
+
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (FileChannel tmpChannel = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                tmpChannel.write(out);
+            }
+            tmpChannel.force(true);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Scan every slot once to rebuild the UUID -> slot index and the free list
+     */
+    private void rebuildIndex() {
+        for (int slot = 0; slot < capacity; slot++) {
+            int base = offset(slot);
+            if (buffer.getInt(base + OFF_USED) == 0) {
+                continue;
+            }
+            if (buffer.getInt(base + OFF_CRC) != checksum(buffer, base, crc)) {
+                // 寫到一半就斷電：還沒確認的寫入，丟棄（這位玩家前一筆紀錄還在）
+                buffer.putInt(base + OFF_USED, 0);
+                corruptRecords++;
+                continue;
+            }
+            nextSlot = slot + 1;
+            long seq = buffer.getLong(base + OFF_SEQ);
+            nextSeq = Math.max(nextSeq, seq + 1);
+
+            UUID uuid = new UUID(buffer.getLong(base + OFF_UUID_MSB), buffer.getLong(base + OFF_UUID_LSB));
+            Integer previous = index.get(uuid);
+            if (previous == null) {
+                index.put(uuid, slot);
+            } else if (seq > buffer.getLong(offset(previous) + OFF_SEQ)) {
+                // 新紀錄已落盤、舊 slot 還沒釋放就當機：保留較新的
+                buffer.putInt(offset(previous) + OFF_USED, 0);
+                index.put(uuid, slot);
+            } else {
+                buffer.putInt(base + OFF_USED, 0);
+            }
+        }
+        buffer.force();
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (buffer.getInt(offset(slot) + OFF_USED) == 0) {
+                freeSlots.add(slot);
+            }
+        }
+    }
+
+    @Override
+    public synchronized Map<String, Object> load(UUID uuid) {
+        Integer slot = index.get(uuid);
+        return slot == null ? null : readRecord(slot);
+    }
+
+    @Override
+    public void forEach(UUID after, BiConsumer<UUID, Map<String, Object>> consumer) {
+        // 只在取 key 與讀單筆紀錄時持鎖，consumer 阻塞時不會擋住 load / saveBatch
+        String from = after == null ? null : after.toString();
+        List<String> keys = new ArrayList<>();
+        synchronized (this) {
+            for (UUID uuid : index.keySet()) {
+                String key = uuid.toString();
+                if (from == null || key.compareTo(from) > 0) {
+                    keys.add(key);
+                }
+            }
+        }
+        keys.sort(null);
+
+        for (String key : keys) {
+            UUID uuid = UUID.fromString(key);
+            Map<String, Object> data;
+            synchronized (this) {
+                Integer slot = index.get(uuid);
+                if (slot == null) {
+                    continue; // 掃描期間被重設回預設值
+                }
+                data = readRecord(slot);
+            }
+            consumer.accept(uuid, data);
+        }
+    }
+
+    private Map<String, Object> readRecord(int slot) {
+        return readFields(buffer, offset(slot));
+    }
+
+    private static Map<String, Object> readFields(ByteBuffer buffer, int base) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("strength", buffer.getInt(base + OFF_STRENGTH));
+        data.put("magic", buffer.getInt(base + OFF_MAGIC));
+        data.put("agility", buffer.getInt(base + OFF_AGILITY));
+        data.put("vitality", buffer.getInt(base + OFF_VITALITY));
+        data.put("defense", buffer.getInt(base + OFF_DEFENSE));
+        data.put("level", buffer.getInt(base + OFF_LEVEL));
+        data.put("exp", buffer.getLong(base + OFF_EXP));
+        data.put("statPoints", buffer.getInt(base + OFF_STAT_POINTS));
+        return data;
+    }
+
+    @Override
+    public synchronized void saveBatch(Map<UUID, Map<String, Object>> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<UUID, Map<String, Object>> entry : batch.entrySet()) {
+            write(entry.getKey(), entry.getValue());
+        }
+        // 回傳後呼叫端會刪掉 journal / 推進 checkpoint，所以一定要先落盤（writer 已把變動合併成批，每批一次）
+        buffer.force();
+
+        // 新紀錄已落盤，才釋放被取代的舊 slot；再 force 一次，重設回預設值的玩家不會在當機後復原成舊數據
+        if (!pendingRelease.isEmpty()) {
+            for (int slot : pendingRelease) {
+                buffer.putInt(offset(slot) + OFF_USED, 0);
+                freeSlots.add(slot);
+            }
+            pendingRelease.clear();
+            buffer.force();
+        }
+    }
+
+    private void write(UUID uuid, Map<String, Object> data) throws IOException {
+        Integer previous = index.get(uuid);
+        if (isDefault(data)) {
+            // 預設數據不需要紀錄
+            if (previous != null) {
+                index.remove(uuid);
+                pendingRelease.add(previous);
+            }
+            return;
+        }
+
+        // 不原地改寫：寫進空的 slot，舊的在 force() 之後才釋放
+        int slot = allocate();
+        putRecord(buffer, offset(slot), uuid, data, nextSeq++, crc);
+        index.put(uuid, slot);
+        if (previous != null) {
+            pendingRelease.add(previous);
+        }
+    }
+
+    private static boolean isDefault(Map<String, Object> data) {
+        return intValue(data, "strength", 0) == 0 && intValue(data, "magic", 0) == 0
+                && intValue(data, "agility", 0) == 0 && intValue(data, "vitality", 0) == 0
+                && intValue(data, "defense", 0) == 0 && intValue(data, "level", 1) == 1
+                && !(data.get("exp") instanceof Number n && n.longValue() != 0L)
+                && intValue(data, "statPoints", 0) == 0;
+    }
+
+    /**
+     * Encode one record (fields, checksum, then the used flag)
+     */
+    private static void putRecord(ByteBuffer buffer, int base, UUID uuid, Map<String, Object> data, long seq,
+                                  CRC32 crc) {
+        buffer.putLong(base + OFF_UUID_MSB, uuid.getMostSignificantBits());
+        buffer.putLong(base + OFF_UUID_LSB, uuid.getLeastSignificantBits());
+        buffer.putInt(base + OFF_STRENGTH, intValue(data, "strength", 0));
+        buffer.putInt(base + OFF_MAGIC, intValue(data, "magic", 0));
+        buffer.putInt(base + OFF_AGILITY, intValue(data, "agility", 0));
+        buffer.putInt(base + OFF_VITALITY, intValue(data, "vitality", 0));
+        buffer.putInt(base + OFF_DEFENSE, intValue(data, "defense", 0));
+        buffer.putInt(base + OFF_LEVEL, intValue(data, "level", 1));
+        buffer.putLong(base + OFF_EXP, data.get("exp") instanceof Number n ? n.longValue() : 0L);
+        buffer.putInt(base + OFF_STAT_POINTS, intValue(data, "statPoints", 0));
+        buffer.putLong(base + OFF_SEQ, seq);
+        buffer.putInt(base + OFF_CRC, checksum(buffer, base, crc));
+        buffer.putInt(base + OFF_USED, 1);
+    }
+
+    /**
+     * CRC32 of uuid..seq of the record at base
+     */
+    private static int checksum(ByteBuffer buffer, int base, CRC32 crc) {
+        crc.reset();
+        crc.update(buffer.slice(base + OFF_UUID_MSB, OFF_CRC - OFF_UUID_MSB));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @return Records dropped at startup because their checksum did not match
+     */
+    public int getCorruptRecordCount() {
+        return corruptRecords;
+    }
+
+    private int allocate() throws IOException {
+        Integer free = freeSlots.poll();
+        if (free != null) {
+            return free;
+        }
+        if (nextSlot >= capacity) {
+            map(capacity + GROW_RECORDS);
+        }
+        return nextSlot++;
+    }
+
+    /**
+     * (Re)map the file for the given number of records; growing the mapping extends the file
+     */
+    private void map(int records) throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) records * RECORD_SIZE);
+        capacity = records;
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException ignored) {
+            // shutting down
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "mapped";
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private static int intValue(Map<String, Object> data, String key, int defaultValue) {
+        Object value = data.get(key);
+        return value instanceof Number n ? n.intValue() : defaultValue;
+    }
+}
@@ -0,0 +1,282 @@
+package com.customrpg.storage;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * PlayerStatsJournal - 玩家數據變動的 append-only 紀錄 (data/journal/stats-&lt;seq&gt;.wal)
+ *
+ * 每筆紀錄是某位玩家「變動後」的完整數據（固定 RECORD_SIZE bytes + CRC32），重播時同一玩家後者覆蓋前者，
+ * 重播幾次結果都一樣。
+ *
+ * - 主執行緒：{@link #append} 只放進記憶體（同一玩家只留最新一筆），{@link #drain} 取出要寫入的 bytes
+ * - writer 執行緒：{@link #write} 一次 append + force（group commit），{@link #rotate} 換新檔，
+ *   對應的數據確定寫進存檔後再 {@link #deleteThrough} 刪掉舊檔
+ * - 啟動時 {@link #replay} 讀回還沒刪掉的舊檔；尾端被截斷或 CRC 不符的紀錄直接忽略
+ */
+public class PlayerStatsJournal {
+
+    private static final int MAGIC = 0x43524a4c; // "CRJL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    // uuid(16) + strength, magic, agility, vitality, defense, level(24) + exp(8) + statPoints(4) + crc(4)
+    private static final int RECORD_SIZE = 56;
+    private static final String PREFIX = "stats-";
+    private static final String SUFFIX = ".wal";
+
+    private final File folder;
+    private final Logger logger;
+    // uuid -> 最新一筆尚未 drain 的數據（主執行緒）
+    private final Map<UUID, Map<String, Object>> buffered = new LinkedHashMap<>();
+
+    private FileChannel channel;
+    private long segment;
+
+    /**
+     * Open the journal and start a new segment after the existing ones
+     * @param folder data/journal (created if missing)
+     * @param logger Plugin logger (replay warnings)
+     * @throws IOException if the segment cannot be created
+     */
+    public PlayerStatsJournal(File folder, Logger logger) throws IOException {
+        this.folder = folder;
+        this.logger = logger;
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+
+        long last = 0;
+        for (long seq : listSegments()) {
+            last = Math.max(last, seq);
+        }
+        openSegment(last + 1);
+    }
+
+    // ===== 主執行緒 =====
+
+    /**
+     * 記錄一位玩家變動後的數據（只放進記憶體，下一次 group commit 才寫檔）
+     * @param uuid Player UUID
+     * @param data PlayerStats#serialize()
+     */
+    public void append(UUID uuid, Map<String, Object> data) {
+        buffered.put(uuid, data);
+    }
+
+    /**
+     * 取出目前累積的紀錄
+     * @return Encoded records, or null if nothing was appended since the last drain
+     */
+    public byte[] drain() {
+        if (buffered.isEmpty()) {
+            return null;
+        }
+        ByteBuffer out = ByteBuffer.allocate(buffered.size() * RECORD_SIZE);
+        CRC32 crc = new CRC32();
+        for (Map.Entry<UUID, Map<String, Object>> entry : buffered.entrySet()) {
+            int start = out.position();
+            Map<String, Object> data = entry.getValue();
+            out.putLong(entry.getKey().getMostSignificantBits());
+            out.putLong(entry.getKey().getLeastSignificantBits());
+            out.putInt(intValue(data, "strength", 0));
+            out.putInt(intValue(data, "magic", 0));
+            out.putInt(intValue(data, "agility", 0));
+            out.putInt(intValue(data, "vitality", 0));
+            out.putInt(intValue(data, "defense", 0));
+            out.putInt(intValue(data, "level", 1));
+            out.putLong(data.get("exp") instanceof Number n ? n.longValue() : 0L);
+            out.putInt(intValue(data, "statPoints", 0));
+
+            crc.reset();
+            crc.update(out.array(), start, RECORD_SIZE - 4);
+            out.putInt((int) crc.getValue());
+        }
+        buffered.clear();
+        return out.array();
+    }
+
+    // ===== writer 執行緒 =====
+
+    /**
+     * Append drained records to the current segment and force them to disk
+     * @param records Output of {@link #drain()}
+     * @throws IOException on write failure
+     */
+    public void write(byte[] records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(records);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Close the current segment and start a new one
+     * @return Sequence number of the closed segment
+     * @throws IOException if the new segment cannot be created
+     */
+    public long rotate() throws IOException {
+        long closed = segment;
+        channel.close();
+        openSegment(closed + 1);
+        return closed;
+    }
+
+    /**
+     * Delete closed segments up to and including the given sequence number
+     * @param seq Last segment whose records are now in the storage
+     */
+    public void deleteThrough(long seq) {
+        for (long existing : listSegments()) {
+            if (existing <= seq && existing != segment) {
+                File file = segmentFile(existing);
+                if (!file.delete() && file.exists()) {
+                    logger.warning("無法刪除 journal 檔: " + file.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Read every segment before the current one
+     * @return uuid -> latest logged stats (empty if nothing to replay)
+     */
+    public Map<UUID, Map<String, Object>> replay() {
+        List<Long> segments = listSegments();
+        segments.sort(null);
+
+        Map<UUID, Map<String, Object>> result = new HashMap<>();
+        for (long seq : segments) {
+            if (seq == segment) {
+                continue;
+            }
+            File file = segmentFile(seq);
+            try {
+                readSegment(file, result);
+            } catch (IOException e) {
+                logger.warning("無法讀取 journal 檔 " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Sequence number of the segment currently being written
+     */
+    public long getCurrentSegment() {
+        return segment;
+    }
+
+    /**
+     * 關閉目前的檔案（關服時，writer 結束後呼叫）
+     * @param discard true if every logged change is in the storage, so all segments can be deleted
+     */
+    public void close(boolean discard) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // shutting down
+        }
+        if (discard) {
+            for (long seq : listSegments()) {
+                segmentFile(seq).delete();
+            }
+        }
+    }
+
+    // ===== 內部 =====
+
+    private void readSegment(File file, Map<UUID, Map<String, Object>> result) throws IOException {
+        try (InputStream stream = Files.newInputStream(file.toPath());
+             DataInputStream in = new DataInputStream(stream)) {
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                    logger.warning("略過格式不符的 journal 檔: " + file.getName());
+                    return;
+                }
+            } catch (EOFException e) {
+                return; // 建立後還沒寫入
+            }
+
+            byte[] record = new byte[RECORD_SIZE];
+            CRC32 crc = new CRC32();
+            while (true) {
+                try {
+                    in.readFully(record);
+                } catch (EOFException e) {
+                    return; // 正常結尾，或最後一筆寫到一半
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                crc.reset();
+                crc.update(record, 0, RECORD_SIZE - 4);
+                if (buffer.getInt(RECORD_SIZE - 4) != (int) crc.getValue()) {
+                    logger.warning("journal 檔 " + file.getName() + " 有損毀的紀錄，之後的內容略過");
+                    return;
+                }
+
+                UUID uuid = new UUID(buffer.getLong(), buffer.getLong());
+                Map<String, Object> data = new HashMap<>();
+                data.put("strength", buffer.getInt());
+                data.put("magic", buffer.getInt());
+                data.put("agility", buffer.getInt());
+                data.put("vitality", buffer.getInt());
+                data.put("defense", buffer.getInt());
+                data.put("level", buffer.getInt());
+                data.put("exp", buffer.getLong());
+                data.put("statPoints", buffer.getInt());
+                result.put(uuid, data);
+            }
+        }
+    }
+
+    private void openSegment(long seq) throws IOException {
+        channel = FileChannel.open(segmentFile(seq).toPath(),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        segment = seq;
+    }
+
+    private List<Long> listSegments() {
+        List<Long> segments = new ArrayList<>();
+        String[] names = folder.list((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+        if (names == null) {
+            return segments;
+        }
+        for (String name : names) {
+            try {
+                segments.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+            } catch (NumberFormatException ignored) {
+                // not a segment
+            }
+        }
+        return segments;
+    }
+
+    private File segmentFile(long seq) {
+        return new File(folder, PREFIX + seq + SUFFIX);
+    }
+
+    private static int intValue(Map<String, Object> data, String key, int defaultValue) {
+        Object value = data.get(key);
+        return value instanceof Number n ? n.intValue() : defaultValue;
+    }
+}
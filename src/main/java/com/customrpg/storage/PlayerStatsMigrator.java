@@ -0,0 +1,110 @@
+package com.customrpg.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * PlayerStatsMigrator - 把 data/players/*.yml 一次性搬到另一個儲存後端（sqlite / mapped）
+ *
+ * 以 DirectoryStream 逐檔讀取、每 BATCH_SIZE 筆寫入一次，記憶體用量與玩家數無關。
+ *
+ * 標記檔（放在 YAML 資料夾，原檔保留作為備份）：
+ * - 開始寫入前建立 .migrating，整批完成後換成 .migrated；之後啟動不會重複遷移。
+ * - 仍有 .migrating = 上次遷移中斷。中斷後伺服器改用 YAML 運作，YAML 才是最新數據，所以整個重做（覆寫）。
+ * - 兩個標記都沒有但目標已有數據（舊版中斷的遷移沒有留下標記）：只補目標裡還沒有的玩家，不覆寫。
+ */
+public final class PlayerStatsMigrator {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String MARKER_FILE = ".migrated";
+    private static final String IN_PROGRESS_FILE = ".migrating";
+
+    private PlayerStatsMigrator() {
+    }
+
+    /**
+     * @param yamlFolder data/players
+     * @return true if the folder has YAML files and no completed migration
+     */
+    public static boolean needsMigration(File yamlFolder) {
+        if (new File(yamlFolder, MARKER_FILE).exists()) {
+            return false;
+        }
+        String[] files = yamlFolder.list((dir, name) -> name.endsWith(".yml"));
+        return files != null && files.length > 0;
+    }
+
+    /**
+     * @param yamlFolder data/players
+     * @return true if a previous migration started but never finished
+     */
+    public static boolean wasInterrupted(File yamlFolder) {
+        return new File(yamlFolder, IN_PROGRESS_FILE).exists();
+    }
+
+    /**
+     * Copy every YAML player file into the target storage
+     *
+     * The .migrating marker is written before the first batch and replaced by .migrated only after the last
+     * batch was accepted, so a failure anywhere leaves the migration marked as interrupted.
+     * @param yamlFolder data/players
+     * @param target Destination storage
+     * @param overwrite true to overwrite players the target already has, false to only add missing players
+     * @param logger Plugin logger (progress and skipped files)
+     * @return Number of migrated players
+     * @throws IOException if the folder cannot be read or the target rejects a batch
+     */
+    public static int migrate(File yamlFolder, PlayerStatsStorage target, boolean overwrite, Logger logger)
+            throws IOException {
+        Path inProgress = new File(yamlFolder, IN_PROGRESS_FILE).toPath();
+        if (!Files.exists(inProgress)) {
+            Files.createFile(inProgress);
+        }
+
+        int migrated = 0;
+        int skipped = 0;
+        Map<UUID, Map<String, Object>> batch = new HashMap<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(yamlFolder.toPath(), "*.yml")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                UUID uuid;
+                try {
+                    uuid = UUID.fromString(name.substring(0, name.length() - ".yml".length()));
+                } catch (IllegalArgumentException e) {
+                    logger.warning("略過非玩家數據檔: " + name);
+                    continue;
+                }
+
+                if (!overwrite && target.load(uuid) != null) {
+                    skipped++;
+                    continue;
+                }
+                batch.put(uuid, YamlPlayerStatsStorage.read(file.toFile()));
+                if (batch.size() >= BATCH_SIZE) {
+                    target.saveBatch(batch);
+                    migrated += batch.size();
+                    batch.clear();
+                    logger.info("已遷移 " + migrated + " 位玩家數據...");
+                }
+            }
+        }
+
+        target.saveBatch(batch);
+        migrated += batch.size();
+        if (skipped > 0) {
+            logger.info("略過 " + skipped + " 位目標儲存已有數據的玩家");
+        }
+
+        Files.move(inProgress, new File(yamlFolder, MARKER_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return migrated;
+    }
+}
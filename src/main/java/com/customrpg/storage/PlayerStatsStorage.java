@@ -0,0 +1,69 @@
+package com.customrpg.storage;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * PlayerStatsStorage - 玩家數據的儲存後端
+ *
+ * 數據以 PlayerStats#serialize() 的 Map 形式傳遞（strength, magic, agility, vitality,
+ * defense, level, exp, statPoints）。
+ *
+ * Threading: load 可能同時被多個背景執行緒呼叫；saveBatch 只會由 PlayerStatsManager 的
+ * 單一 writer 執行緒呼叫。
+ */
+public interface PlayerStatsStorage {
+
+    /**
+     * 讀取一位玩家的數據
+     * @param uuid Player UUID
+     * @return Serialized stats, or null if the player has no saved data
+     * @throws IOException on read failure
+     */
+    Map<String, Object> load(UUID uuid) throws IOException;
+
+    /**
+     * 寫入一批玩家數據（同一批盡量在一次交易/一次 I/O 中完成）
+     * @param batch uuid -> serialized stats
+     * @throws IOException if any entry could not be written (the whole batch is treated as not saved)
+     */
+    void saveBatch(Map<UUID, Map<String, Object>> batch) throws IOException;
+
+    /**
+     * 逐筆讀取所有玩家數據（串流，不會一次全部載入記憶體；排行榜重建等離線工作使用）
+     * @param consumer Called once per player with the uuid and serialized stats
+     * @throws IOException on read failure
+     */
+    default void forEach(BiConsumer<UUID, Map<String, Object>> consumer) throws IOException {
+        forEach(null, consumer);
+    }
+
+    /**
+     * 依 UUID 字串（{@link UUID#toString()}）遞增順序串流讀取，從 after 之後開始（批次工作的 checkpoint 接續用）
+     *
+     * consumer 可以阻塞（背壓），實作不可在呼叫 consumer 時持有會擋住 load / saveBatch 的鎖。
+     * 掃描期間寫入的數據不保證看得到。
+     * @param after Last uuid already processed, or null to start from the beginning
+     * @param consumer Called once per player with the uuid and serialized stats
+     * @throws IOException on read failure
+     */
+    void forEach(UUID after, BiConsumer<UUID, Map<String, Object>> consumer) throws IOException;
+
+    /**
+     * @return true if no player has saved data yet (a migration without markers then overwrites freely)
+     * @throws IOException on read failure
+     */
+    boolean isEmpty() throws IOException;
+
+    /**
+     * 釋放資源（關服時，所有寫入完成後呼叫）
+     */
+    void close();
+
+    /**
+     * @return Short name for logs (e.g. "yaml", "sqlite")
+     */
+    String getName();
+}
@@ -0,0 +1,206 @@
+package com.customrpg.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * SqlitePlayerStatsStorage - 所有玩家數據存在單一 SQLite 檔案 (data/players.db)
+ *
+ * - 使用伺服器內建的 sqlite-jdbc 驅動，不需要外部服務
+ * - WAL 模式：讀取不會被寫入擋住
+ * - writer 專用連線：只給 PlayerStatsManager 的 writer 執行緒用，一批資料一個交易 + batch upsert
+ * - reader 連線：背景讀取共用（synchronized）
+ */
+public class SqlitePlayerStatsStorage implements PlayerStatsStorage {
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS player_stats ("
+            + "uuid TEXT PRIMARY KEY, "
+            + "strength INTEGER NOT NULL, "
+            + "magic INTEGER NOT NULL, "
+            + "agility INTEGER NOT NULL, "
+            + "vitality INTEGER NOT NULL, "
+            + "defense INTEGER NOT NULL, "
+            + "level INTEGER NOT NULL, "
+            + "exp INTEGER NOT NULL, "
+            + "stat_points INTEGER NOT NULL)";
+
+    private static final String SELECT = "SELECT strength, magic, agility, vitality, defense, level, exp, stat_points "
+            + "FROM player_stats WHERE uuid = ?";
+
+    private static final String SELECT_AFTER = "SELECT uuid, strength, magic, agility, vitality, defense, level, exp, stat_points "
+            + "FROM player_stats WHERE uuid > ? ORDER BY uuid";
+
+    private static final String UPSERT = "INSERT INTO player_stats "
+            + "(uuid, strength, magic, agility, vitality, defense, level, exp, stat_points) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT(uuid) DO UPDATE SET "
+            + "strength = excluded.strength, magic = excluded.magic, agility = excluded.agility, "
+            + "vitality = excluded.vitality, defense = excluded.defense, level = excluded.level, "
+            + "exp = excluded.exp, stat_points = excluded.stat_points";
+
+    private final String url;
+    private final Connection writeConnection;
+    private final Connection readConnection;
+    private final PreparedStatement upsert;
+    private final PreparedStatement select;
+
+    /**
+     * @param databaseFile SQLite file (created if missing)
+     * @throws IOException if the database cannot be opened
+     */
+    public SqlitePlayerStatsStorage(File databaseFile) throws IOException {
+        File dir = databaseFile.getParentFile();
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+
+        this.url = "jdbc:sqlite:" + databaseFile.getAbsolutePath();
+        try {
+            writeConnection = DriverManager.getConnection(url);
+            try (Statement statement = writeConnection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute(CREATE_TABLE);
+            }
+            writeConnection.setAutoCommit(false);
+            upsert = writeConnection.prepareStatement(UPSERT);
+
+            readConnection = DriverManager.getConnection(url);
+            select = readConnection.prepareStatement(SELECT);
+        } catch (SQLException e) {
+            throw new IOException("Failed to open " + databaseFile.getName(), e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> load(UUID uuid) throws IOException {
+        synchronized (select) {
+            try {
+                select.setString(1, uuid.toString());
+                try (ResultSet rs = select.executeQuery()) {
+                    return rs.next() ? readRow(rs, 1) : null;
+                }
+            } catch (SQLException e) {
+                throw new IOException("Failed to load stats of " + uuid, e);
+            }
+        }
+    }
+
+    @Override
+    public void saveBatch(Map<UUID, Map<String, Object>> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            for (Map.Entry<UUID, Map<String, Object>> entry : batch.entrySet()) {
+                Map<String, Object> data = entry.getValue();
+                upsert.setString(1, entry.getKey().toString());
+                upsert.setInt(2, intValue(data, "strength", 0));
+                upsert.setInt(3, intValue(data, "magic", 0));
+                upsert.setInt(4, intValue(data, "agility", 0));
+                upsert.setInt(5, intValue(data, "vitality", 0));
+                upsert.setInt(6, intValue(data, "defense", 0));
+                upsert.setInt(7, intValue(data, "level", 1));
+                upsert.setLong(8, data.get("exp") instanceof Number n ? n.longValue() : 0L);
+                upsert.setInt(9, intValue(data, "statPoints", 0));
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+            writeConnection.commit();
+        } catch (SQLException e) {
+            try {
+                upsert.clearBatch();
+                writeConnection.rollback();
+            } catch (SQLException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            throw new IOException("Failed to save " + batch.size() + " player(s)", e);
+        }
+    }
+
+    @Override
+    public void forEach(UUID after, BiConsumer<UUID, Map<String, Object>> consumer) throws IOException {
+        // 獨立連線：長時間的掃描不會擋住玩家進服時的讀取；uuid 是 PRIMARY KEY，ORDER BY 直接走索引
+        try (Connection connection = DriverManager.getConnection(url);
+             PreparedStatement statement = connection.prepareStatement(SELECT_AFTER)) {
+            statement.setFetchSize(500);
+            statement.setString(1, after == null ? "" : after.toString());
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    UUID uuid;
+                    try {
+                        uuid = UUID.fromString(rs.getString(1));
+                    } catch (IllegalArgumentException e) {
+                        continue;
+                    }
+                    consumer.accept(uuid, readRow(rs, 2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to scan player_stats", e);
+        }
+    }
+
+    private static Map<String, Object> readRow(ResultSet rs, int first) throws SQLException {
+        Map<String, Object> data = new HashMap<>();
+        data.put("strength", rs.getInt(first));
+        data.put("magic", rs.getInt(first + 1));
+        data.put("agility", rs.getInt(first + 2));
+        data.put("vitality", rs.getInt(first + 3));
+        data.put("defense", rs.getInt(first + 4));
+        data.put("level", rs.getInt(first + 5));
+        data.put("exp", rs.getLong(first + 6));
+        data.put("statPoints", rs.getInt(first + 7));
+        return data;
+    }
+
+    @Override
+    public boolean isEmpty() throws IOException {
+        synchronized (select) {
+            try (Statement statement = readConnection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT 1 FROM player_stats LIMIT 1")) {
+                return !rs.next();
+            } catch (SQLException e) {
+                throw new IOException("Failed to query player_stats", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(upsert);
+        closeQuietly(writeConnection);
+        synchronized (select) {
+            closeQuietly(select);
+            closeQuietly(readConnection);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "sqlite";
+    }
+
+    private static int intValue(Map<String, Object> data, String key, int defaultValue) {
+        Object value = data.get(key);
+        return value instanceof Number n ? n.intValue() : defaultValue;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            // shutting down
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.customrpg.storage;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * YamlPlayerStatsStorage - 每位玩家一個 data/players/&lt;uuid&gt;.yml（原本的儲存格式）
+ *
+ * 先寫到 &lt;uuid&gt;.yml.tmp 並 force 到硬碟，再 atomic rename 蓋掉正式檔，
+ * 寫到一半當機也只會留下舊檔或新檔，不會是被截斷的檔案。
+ */
+public class YamlPlayerStatsStorage implements PlayerStatsStorage {
+
+    private final File playerDataFolder;
+
+    public YamlPlayerStatsStorage(File playerDataFolder) {
+        this.playerDataFolder = playerDataFolder;
+
+        // 確保資料夾存在
+        if (!playerDataFolder.exists()) {
+            playerDataFolder.mkdirs();
+        }
+    }
+
+    @Override
+    public Map<String, Object> load(UUID uuid) {
+        File file = new File(playerDataFolder, uuid.toString() + ".yml");
+        if (!file.exists()) {
+            return null;
+        }
+        return read(file);
+    }
+
+    /**
+     * 讀取單一玩家檔案（遷移工具也會用到）
+     * @param file data/players/&lt;uuid&gt;.yml
+     * @return Serialized stats
+     */
+    public static Map<String, Object> read(File file) {
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+
+        // 讀取數據
+        Map<String, Object> data = new HashMap<>();
+        data.put("strength", config.getInt("stats.strength", 0));
+        data.put("magic", config.getInt("stats.magic", 0));
+        data.put("agility", config.getInt("stats.agility", 0));
+        data.put("vitality", config.getInt("stats.vitality", 0));
+        data.put("defense", config.getInt("stats.defense", 0));
+
+        data.put("level", config.getInt("stats.level", 1));
+        data.put("exp", config.getLong("stats.exp", 0L));
+        data.put("statPoints", config.getInt("stats.statPoints", 0));
+        return data;
+    }
+
+    @Override
+    public void saveBatch(Map<UUID, Map<String, Object>> batch) throws IOException {
+        IOException failure = null;
+        for (Map.Entry<UUID, Map<String, Object>> entry : batch.entrySet()) {
+            try {
+                write(entry.getKey(), entry.getValue());
+            } catch (IOException e) {
+                // 其他玩家照樣寫入，最後再回報
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void write(UUID uuid, Map<String, Object> data) throws IOException {
+        File file = new File(playerDataFolder, uuid.toString() + ".yml");
+        YamlConfiguration config = new YamlConfiguration();
+
+        config.set("stats.strength", data.get("strength"));
+        config.set("stats.magic", data.get("magic"));
+        config.set("stats.agility", data.get("agility"));
+        config.set("stats.vitality", data.get("vitality"));
+        config.set("stats.defense", data.get("defense"));
+
+        config.set("stats.level", data.get("level"));
+        config.set("stats.exp", data.get("exp"));
+        config.set("stats.statPoints", data.get("statPoints"));
+
+        writeAtomically(file.toPath(), config.saveToString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public void forEach(UUID after, BiConsumer<UUID, Map<String, Object>> consumer) throws IOException {
+        // 只先列出檔名（排序用），內容逐檔讀取
+        String from = after == null ? null : after.toString();
+        List<String> keys = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(playerDataFolder.toPath(), "*.yml")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String key = name.substring(0, name.length() - ".yml".length());
+                try {
+                    if (!UUID.fromString(key).toString().equals(key)) {
+                        continue;
+                    }
+                } catch (IllegalArgumentException e) {
+                    continue; // 不是玩家數據檔
+                }
+                if (from == null || key.compareTo(from) > 0) {
+                    keys.add(key);
+                }
+            }
+        }
+        keys.sort(null);
+
+        for (String key : keys) {
+            File file = new File(playerDataFolder, key + ".yml");
+            if (file.exists()) {
+                consumer.accept(UUID.fromString(key), read(file));
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        String[] files = playerDataFolder.list((dir, name) -> name.endsWith(".yml"));
+        return files == null || files.length == 0;
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+
+    @Override
+    public String getName() {
+        return "yaml";
+    }
+}
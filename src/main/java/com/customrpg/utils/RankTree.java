@@ -0,0 +1,237 @@
+package com.customrpg.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RankTree - Order-statistic tree (treap with subtree sizes)
+ *
+ * Keeps elements sorted by the given comparator and supports, all in O(log n) expected:
+ * - insert / remove
+ * - rank of an element (how many elements sort before it)
+ * - element at a given rank, and in-order iteration from any rank (top-K / paging)
+ *
+ * The comparator must be a total order (no two distinct elements may compare equal).
+ * Not thread-safe.
+ *
+ * @param <T> Element type
+ */
+public class RankTree<T> {
+
+    private static final class Node<T> {
+        private final T value;
+        private final int priority;
+        private Node<T> left;
+        private Node<T> right;
+        private int size = 1;
+
+        Node(T value) {
+            this.value = value;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private final Comparator<? super T> comparator;
+    private Node<T> root;
+
+    /**
+     * @param comparator Total order of the elements (rank 0 = smallest)
+     */
+    public RankTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * @return Number of elements
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Insert an element (ignored if an equal element is already present)
+     * @param value Element
+     */
+    public void insert(T value) {
+        root = insert(root, value);
+    }
+
+    /**
+     * Remove an element
+     * @param value Element (compared with the comparator)
+     * @return true if it was present
+     */
+    public boolean remove(T value) {
+        int before = size(root);
+        root = remove(root, value);
+        return size(root) != before;
+    }
+
+    /**
+     * @param value Element
+     * @return 0-based rank, or -1 if the element is not present
+     */
+    public int rankOf(T value) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param rank 0-based rank
+     * @return Element at that rank, or null if out of range
+     */
+    public T get(int rank) {
+        if (rank < 0 || rank >= size(root)) {
+            return null;
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (rank < leftSize) {
+                node = node.left;
+            } else if (rank > leftSize) {
+                rank -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    /**
+     * In-order elements starting at a rank
+     * @param fromRank First rank (0-based)
+     * @param limit Max number of elements
+     * @return Elements in order
+     */
+    public List<T> range(int fromRank, int limit) {
+        List<T> result = new ArrayList<>(Math.max(0, Math.min(limit, size(root) - fromRank)));
+        if (limit <= 0 || fromRank < 0) {
+            return result;
+        }
+        collect(root, fromRank, limit, result);
+        return result;
+    }
+
+    /**
+     * Remove every element
+     */
+    public void clear() {
+        root = null;
+    }
+
+    // ===== internal =====
+
+    private void collect(Node<T> node, int skip, int limit, List<T> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (skip < leftSize) {
+            collect(node.left, skip, limit, out);
+        }
+        if (out.size() >= limit) {
+            return;
+        }
+        if (skip <= leftSize) {
+            out.add(node.value);
+        }
+        collect(node.right, Math.max(0, skip - leftSize - 1), limit, out);
+    }
+
+    private Node<T> insert(Node<T> node, T value) {
+        if (node == null) {
+            return new Node<>(value);
+        }
+        int cmp = comparator.compare(value, node.value);
+        if (cmp == 0) {
+            return node;
+        }
+        if (cmp < 0) {
+            node.left = insert(node.left, value);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, value);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> remove(Node<T> node, T value) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = comparator.compare(value, node.value);
+        if (cmp < 0) {
+            node.left = remove(node.left, value);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, value);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node<?> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
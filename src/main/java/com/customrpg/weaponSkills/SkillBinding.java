@@ -0,0 +1,22 @@
+package com.customrpg.weaponSkills;
+
+import com.customrpg.weapons.WeaponProfile;
+
+/**
+ * SkillBinding
+ *
+ * A weapon's active skill, resolved once per compiled weapon profile so dispatch does no lookups or parsing.
+ *
+ * @param skill Registered skill
+ * @param settings Compiled active-skill settings of the weapon (may be null for code bindings)
+ * @param triggerMask Bit per {@link SkillTriggerType#ordinal()}: supported by the skill and allowed by the weapon
+ * @param cooldownId Interned cooldown id (per weapon + skill)
+ * @param cooldownTicks Cooldown from the weapon config, or -1 to ask {@link Skill#getCooldownMillis} after each cast
+ */
+public record SkillBinding(Skill skill, WeaponProfile.ActiveSkill settings, int triggerMask, int cooldownId,
+                           long cooldownTicks) {
+
+    public boolean accepts(SkillTriggerType trigger) {
+        return (triggerMask & (1 << trigger.ordinal())) != 0;
+    }
+}
@@ -1,6 +1,7 @@
 package com.customrpg.weaponSkills;
 
 import com.customrpg.managers.WeaponManager;
+import com.customrpg.weapons.WeaponProfile;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -47,6 +48,9 @@ public class SkillContext {
 
     public WeaponManager.WeaponData weaponData() { return weaponData; }
 
+    /** Compiled combat profile of the weapon, or null when there is no weapon. */
+    public WeaponProfile weaponProfile() { return weaponData == null ? null : weaponData.getProfile(); }
+
     public Entity explicitTarget() { return explicitTarget; }
 
     public SkillServices services() { return services; }
@@ -1,8 +1,9 @@
 package com.customrpg.weaponSkills;
 
+import com.customrpg.managers.CooldownService;
 import com.customrpg.weaponSkills.managers.BuffManager;
-import com.customrpg.weaponSkills.managers.CooldownManager;
 import com.customrpg.weaponSkills.managers.DamageManager;
+import com.customrpg.weaponSkills.managers.DotManager;
 import com.customrpg.weaponSkills.util.AoEUtil;
 import com.customrpg.weaponSkills.util.ParticleUtil;
 import com.customrpg.weaponSkills.util.SoundUtil;
@@ -14,9 +15,10 @@ import com.customrpg.weaponSkills.util.SoundUtil;
  * Keeps skills loosely coupled from the plugin class.
  */
 public record SkillServices(
-        CooldownManager cooldowns,
+        CooldownService cooldowns,
         DamageManager damage,
         BuffManager buffs,
+        DotManager dots,
         AoEUtil aoe,
         ParticleUtil particles,
         SoundUtil sounds
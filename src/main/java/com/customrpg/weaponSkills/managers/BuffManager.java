@@ -1,66 +1,554 @@
 package com.customrpg.weaponSkills.managers;
 
-import org.bukkit.entity.Player;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * BuffManager (minimal skeleton)
+ * BuffManager
  *
- * Tracks temporary buffs/debuffs with duration.
- * We keep the API simple now; extend with tick updates when needed.
+ * Buffs / debuffs on any LivingEntity.
+ *
+ * - Each {@link BuffType} has a {@link Stacking} rule (overridable in config.yml {@code buffs.<type>}),
+ *   an optional {@link Stat} it modifies and an optional period for {@link TickHandler} callbacks.
+ * - Stat modifiers are summed per entity as buffs change, so combat reads them with one map lookup
+ *   ({@link #getStat(LivingEntity, Stat)}).
+ * - Expiry and periodic ticks are driven by a hierarchical timing wheel advanced once per server tick;
+ *   entities with no buffs left are dropped right away, and buffs are cleared on death / quit.
+ *
+ * Main thread only.
  */
-public class BuffManager {
+public class BuffManager implements Listener {
+
+    /**
+     * Stat modified by a buff (magnitude × stacks is added to the entity's total)
+     */
+    public enum Stat {
+        // 暴擊率（百分比，50.0 = +50%）
+        CRIT_CHANCE,
+        // 造成的傷害（百分比）
+        DAMAGE_PERCENT,
+        // 受到的傷害（百分比）
+        DAMAGE_TAKEN_PERCENT
+    }
+
+    /**
+     * How re-applying a buff the entity already has is handled
+     */
+    public enum Stacking {
+        // 只保留一個，以新的數值與時間為準
+        REFRESH,
+        // 只保留一個，取較大的數值與較晚的結束時間
+        MAX,
+        // 只保留一個，層數 +1（最多 max-stacks）並刷新時間
+        ADDITIVE,
+        // 每個來源各自一個（各自 REFRESH），數值相加
+        PER_SOURCE
+    }
 
     public enum BuffType {
-        BURN
+        CRIT_BOOST("crit_boost", Stat.CRIT_CHANCE, Stacking.MAX, 1, 0),
+        DAMAGE_BOOST("damage_boost", Stat.DAMAGE_PERCENT, Stacking.REFRESH, 1, 0),
+        // 中毒的裝甲減少（每級 +10%），重複命中只取較強的一次
+        VULNERABLE("vulnerable", Stat.DAMAGE_TAKEN_PERCENT, Stacking.MAX, 1, 0);
+
+        private final String id;
+        private final Stat stat;
+        private final Stacking defaultStacking;
+        private final int defaultMaxStacks;
+        private final int periodTicks;
+
+        BuffType(String id, Stat stat, Stacking defaultStacking, int defaultMaxStacks, int periodTicks) {
+            this.id = id;
+            this.stat = stat;
+            this.defaultStacking = defaultStacking;
+            this.defaultMaxStacks = defaultMaxStacks;
+            this.periodTicks = periodTicks;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * @return Modified stat, or null if the buff only has tick effects
+         */
+        public Stat getStat() {
+            return stat;
+        }
+
+        /**
+         * @return Ticks between {@link TickHandler} calls, 0 if not periodic
+         */
+        public int getPeriodTicks() {
+            return periodTicks;
+        }
+    }
+
+    /**
+     * Periodic effect of a buff type, called every {@link BuffType#getPeriodTicks()} while it is active
+     */
+    @FunctionalInterface
+    public interface TickHandler {
+        void onTick(LivingEntity target, ActiveBuff buff);
     }
 
-    private static class BuffState {
+    /**
+     * One active buff instance
+     */
+    public static final class ActiveBuff {
+        private final Holder holder;
         private final BuffType type;
-        private final long expireAtMillis;
+        private final UUID source;
+        private double magnitude;
+        private int stacks = 1;
+        private long expireTick;
+        private long nextPulseTick;
+        // 在 wheel 中排定的 tick；不相符的 wheel 紀錄是舊的
+        private long scheduledTick;
+        private boolean removed;
 
-        private BuffState(BuffType type, long expireAtMillis) {
+        private ActiveBuff(Holder holder, BuffType type, UUID source) {
+            this.holder = holder;
             this.type = type;
-            this.expireAtMillis = expireAtMillis;
+            this.source = source;
+        }
+
+        public BuffType getType() {
+            return type;
+        }
+
+        /**
+         * @return Source (e.g. caster) UUID, or null
+         */
+        public UUID getSource() {
+            return source;
+        }
+
+        public double getMagnitude() {
+            return magnitude;
+        }
+
+        public int getStacks() {
+            return stacks;
+        }
+
+        public long getExpireTick() {
+            return expireTick;
+        }
+
+        private double contribution() {
+            return type.stat == null ? 0.0 : magnitude * stacks;
         }
     }
 
-    private final Map<UUID, Map<BuffType, BuffState>> buffs = new ConcurrentHashMap<>();
+    /**
+     * Buffs of one entity
+     */
+    private static final class Holder {
+        private final UUID uuid;
+        private final LivingEntity entity;
+        private final List<ActiveBuff> buffs = new ArrayList<>(2);
+        private final double[] stats = new double[Stat.values().length];
 
-    public void apply(Player player, BuffType type, long durationMillis) {
-        if (player == null || type == null || durationMillis <= 0) {
-            return;
+        private Holder(LivingEntity entity) {
+            this.uuid = entity.getUniqueId();
+            this.entity = entity;
+        }
+    }
+
+    private final Map<UUID, Holder> holders = new HashMap<>();
+    private final Stacking[] stacking = new Stacking[BuffType.values().length];
+    private final int[] maxStacks = new int[BuffType.values().length];
+    private final TickHandler[] tickHandlers = new TickHandler[BuffType.values().length];
+
+    private final Plugin plugin;
+    private final TimingWheel wheel = new TimingWheel();
+    private final BukkitTask tickTask;
+
+    /**
+     * @param plugin Plugin (for the tick task)
+     * @param settings config.yml {@code buffs} section, or null for defaults
+     */
+    public BuffManager(Plugin plugin, ConfigurationSection settings) {
+        this.plugin = plugin;
+        reloadSettings(settings);
+        this.tickTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * 套用 config.yml {@code buffs} 區段（熱重載時在主執行緒呼叫）；只影響之後的套用，已有的 buff 維持到到期
+     * @param settings buffs section, or null for defaults
+     */
+    public void reloadSettings(ConfigurationSection settings) {
+        for (BuffType type : BuffType.values()) {
+            ConfigurationSection section = settings == null ? null : settings.getConfigurationSection(type.id);
+            stacking[type.ordinal()] = parseStacking(plugin, type, section);
+            maxStacks[type.ordinal()] = section == null
+                    ? type.defaultMaxStacks
+                    : Math.max(1, section.getInt("max-stacks", type.defaultMaxStacks));
+        }
+    }
+
+    private static Stacking parseStacking(Plugin plugin, BuffType type, ConfigurationSection section) {
+        String raw = section == null ? null : section.getString("stacking");
+        if (raw == null || raw.isBlank()) {
+            return type.defaultStacking;
+        }
+        try {
+            return Stacking.valueOf(raw.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("buffs." + type.id + ".stacking 無效: " + raw + "，使用 "
+                    + type.defaultStacking.name().toLowerCase(Locale.ROOT));
+            return type.defaultStacking;
+        }
+    }
+
+    /**
+     * 替換某種 buff 的週期效果
+     */
+    public void setTickHandler(BuffType type, TickHandler handler) {
+        tickHandlers[type.ordinal()] = handler;
+    }
+
+    /**
+     * Apply a buff without magnitude or source (tick-only effects)
+     */
+    public ActiveBuff apply(LivingEntity target, BuffType type, int durationTicks) {
+        return apply(target, type, 0.0, durationTicks, null);
+    }
+
+    /**
+     * Apply (or stack) a buff
+     * @param target Any living entity
+     * @param type Buff type
+     * @param magnitude Stat amount per stack (ignored by types without a stat)
+     * @param durationTicks Duration in ticks
+     * @param source Source UUID (used by PER_SOURCE stacking), may be null
+     * @return The affected buff instance, or null if nothing was applied
+     */
+    public ActiveBuff apply(LivingEntity target, BuffType type, double magnitude, int durationTicks, UUID source) {
+        if (target == null || type == null || durationTicks <= 0 || !target.isValid()) {
+            return null;
+        }
+        long now = wheel.currentTick;
+        long expireAt = now + durationTicks;
+        Stacking rule = stacking[type.ordinal()];
+
+        Holder holder = holders.get(target.getUniqueId());
+        if (holder == null) {
+            holder = new Holder(target);
+            holders.put(holder.uuid, holder);
         }
-        long expireAt = System.currentTimeMillis() + durationMillis;
-        buffs.compute(player.getUniqueId(), (uuid, map) -> {
-            if (map == null) {
-                map = new ConcurrentHashMap<>();
+
+        ActiveBuff buff = find(holder, type, rule == Stacking.PER_SOURCE ? source : null, rule == Stacking.PER_SOURCE);
+        if (buff == null) {
+            buff = new ActiveBuff(holder, type, source);
+            buff.magnitude = magnitude;
+            buff.expireTick = expireAt;
+            // 週期效果在下一個 tick 先觸發一次，之後每 periodTicks 一次
+            buff.nextPulseTick = type.periodTicks > 0 ? now + 1 : Long.MAX_VALUE;
+            holder.buffs.add(buff);
+            addStat(holder, type, buff.contribution());
+            buff.scheduledTick = nextEventTick(buff);
+            wheel.schedule(buff);
+            return buff;
+        }
+
+        double before = buff.contribution();
+        switch (rule) {
+            case REFRESH, PER_SOURCE -> {
+                buff.magnitude = magnitude;
+                buff.expireTick = expireAt;
+            }
+            case MAX -> {
+                buff.magnitude = Math.max(buff.magnitude, magnitude);
+                buff.expireTick = Math.max(buff.expireTick, expireAt);
             }
-            map.put(type, new BuffState(type, expireAt));
-            return map;
-        });
+            case ADDITIVE -> {
+                buff.magnitude = magnitude;
+                buff.stacks = Math.min(buff.stacks + 1, maxStacks[type.ordinal()]);
+                buff.expireTick = expireAt;
+            }
+        }
+        addStat(holder, type, buff.contribution() - before);
+
+        // 延長不用重排（原本的紀錄到期時會依新時間重排）；提早則另排一筆
+        long next = nextEventTick(buff);
+        if (next < buff.scheduledTick) {
+            buff.scheduledTick = next;
+            wheel.schedule(buff);
+        }
+        return buff;
     }
 
-    public boolean has(Player player, BuffType type) {
-        if (player == null || type == null) {
-            return false;
+    private static ActiveBuff find(Holder holder, BuffType type, UUID source, boolean matchSource) {
+        for (ActiveBuff buff : holder.buffs) {
+            if (buff.type == type && (!matchSource || Objects.equals(buff.source, source))) {
+                return buff;
+            }
         }
-        Map<BuffType, BuffState> map = buffs.get(player.getUniqueId());
-        if (map == null) {
-            return false;
+        return null;
+    }
+
+    private static long nextEventTick(ActiveBuff buff) {
+        return Math.min(buff.expireTick, buff.nextPulseTick);
+    }
+
+    private static void addStat(Holder holder, BuffType type, double delta) {
+        if (type.stat != null && delta != 0.0) {
+            holder.stats[type.stat.ordinal()] += delta;
         }
-        BuffState state = map.get(type);
-        if (state == null) {
-            return false;
+    }
+
+    // ===== 查詢 =====
+
+    /**
+     * 目前所有 buff 對某項數據的加總（O(1)）
+     */
+    public double getStat(LivingEntity entity, Stat stat) {
+        if (entity == null) {
+            return 0.0;
         }
-        if (state.expireAtMillis <= System.currentTimeMillis()) {
-            map.remove(type);
+        Holder holder = holders.get(entity.getUniqueId());
+        return holder == null ? 0.0 : holder.stats[stat.ordinal()];
+    }
+
+    public boolean has(LivingEntity entity, BuffType type) {
+        if (entity == null || type == null) {
             return false;
         }
-        return true;
+        Holder holder = holders.get(entity.getUniqueId());
+        return holder != null && find(holder, type, null, false) != null;
     }
-}
 
+    /**
+     * @return Remaining ticks of the longest instance of the type, 0 if not active
+     */
+    public long getRemainingTicks(LivingEntity entity, BuffType type) {
+        if (entity == null || type == null) {
+            return 0L;
+        }
+        Holder holder = holders.get(entity.getUniqueId());
+        if (holder == null) {
+            return 0L;
+        }
+        long remaining = 0L;
+        for (ActiveBuff buff : holder.buffs) {
+            if (buff.type == type) {
+                remaining = Math.max(remaining, buff.expireTick - wheel.currentTick);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * @return Copy of the entity's active buffs
+     */
+    public List<ActiveBuff> getBuffs(LivingEntity entity) {
+        Holder holder = entity == null ? null : holders.get(entity.getUniqueId());
+        return holder == null ? List.of() : List.copyOf(holder.buffs);
+    }
+
+    /**
+     * @return Number of entities with at least one buff
+     */
+    public int getTrackedEntityCount() {
+        return holders.size();
+    }
+
+    // ===== 移除 =====
+
+    /**
+     * 移除某種 buff（所有來源）
+     */
+    public void remove(LivingEntity entity, BuffType type) {
+        Holder holder = entity == null ? null : holders.get(entity.getUniqueId());
+        if (holder == null) {
+            return;
+        }
+        for (ActiveBuff buff : List.copyOf(holder.buffs)) {
+            if (buff.type == type) {
+                removeBuff(buff);
+            }
+        }
+    }
+
+    public void clear(UUID uuid) {
+        Holder holder = holders.remove(uuid);
+        if (holder == null) {
+            return;
+        }
+        for (ActiveBuff buff : holder.buffs) {
+            buff.removed = true;
+        }
+        holder.buffs.clear();
+    }
+
+    private void removeBuff(ActiveBuff buff) {
+        if (buff.removed) {
+            return;
+        }
+        buff.removed = true;
+        Holder holder = buff.holder;
+        holder.buffs.remove(buff);
+        if (holder.buffs.isEmpty()) {
+            holders.remove(holder.uuid, holder);
+        } else {
+            addStat(holder, buff.type, -buff.contribution());
+        }
+    }
+
+    /**
+     * 關服時呼叫
+     */
+    public void shutdown() {
+        tickTask.cancel();
+        for (UUID uuid : List.copyOf(holders.keySet())) {
+            clear(uuid);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(EntityDeathEvent event) {
+        clear(event.getEntity().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        clear(event.getPlayer().getUniqueId());
+    }
+
+    // ===== tick =====
+
+    private void tick() {
+        wheel.advance(this::fire);
+    }
+
+    private void fire(ActiveBuff buff, long now) {
+        if (buff.removed || buff.scheduledTick != now) {
+            return;
+        }
+        Holder holder = buff.holder;
+        if (!holder.entity.isValid()) {
+            clear(holder.uuid);
+            return;
+        }
+
+        if (buff.nextPulseTick <= now) {
+            buff.nextPulseTick += buff.type.periodTicks;
+            TickHandler handler = tickHandlers[buff.type.ordinal()];
+            if (handler != null) {
+                handler.onTick(holder.entity, buff);
+            }
+            // handler 可能移除了 buff 或殺死目標
+            if (buff.removed) {
+                return;
+            }
+        }
+
+        if (buff.expireTick <= now) {
+            removeBuff(buff);
+            return;
+        }
+        buff.scheduledTick = nextEventTick(buff);
+        wheel.schedule(buff);
+    }
+
+    /**
+     * Hierarchical timing wheel: 256 one-tick slots, 64 slots of 256 ticks (~13.6 min), then an overflow list
+     * that is redistributed every 64 × 256 ticks. Each tick only the current slot is processed.
+     */
+    private static final class TimingWheel {
+        private static final int L0_BITS = 8;
+        private static final int L0_SIZE = 1 << L0_BITS;
+        private static final int L0_MASK = L0_SIZE - 1;
+        private static final int L1_SIZE = 64;
+        private static final int L1_MASK = L1_SIZE - 1;
+
+        private final List<List<ActiveBuff>> level0 = new ArrayList<>(L0_SIZE);
+        private final List<List<ActiveBuff>> level1 = new ArrayList<>(L1_SIZE);
+        private List<ActiveBuff> overflow = new ArrayList<>();
+        private List<ActiveBuff> spare = new ArrayList<>();
+        // 最後處理完的 tick（wheel 自己的時鐘，每次 advance +1，不會跳過槽位）
+        private long currentTick;
+
+        private TimingWheel() {
+            for (int i = 0; i < L0_SIZE; i++) {
+                level0.add(new ArrayList<>());
+            }
+            for (int i = 0; i < L1_SIZE; i++) {
+                level1.add(new ArrayList<>());
+            }
+        }
+
+        private void schedule(ActiveBuff buff) {
+            long tick = buff.scheduledTick;
+            if (tick < currentTick) {
+                tick = currentTick + 1;
+                buff.scheduledTick = tick;
+            }
+            if (tick - currentTick < L0_SIZE) {
+                level0.get((int) (tick & L0_MASK)).add(buff);
+            } else if ((tick >> L0_BITS) - (currentTick >> L0_BITS) < L1_SIZE) {
+                level1.get((int) ((tick >> L0_BITS) & L1_MASK)).add(buff);
+            } else {
+                overflow.add(buff);
+            }
+        }
+
+        private void advance(FireCallback callback) {
+            long now = ++currentTick;
+            if ((now & L0_MASK) == 0) {
+                long block = now >> L0_BITS;
+                if ((block & L1_MASK) == 0) {
+                    List<ActiveBuff> pending = overflow;
+                    overflow = new ArrayList<>();
+                    reschedule(pending);
+                }
+                int slot = (int) (block & L1_MASK);
+                List<ActiveBuff> pending = level1.get(slot);
+                level1.set(slot, spare);
+                spare = pending;
+                reschedule(pending);
+                pending.clear();
+            }
+
+            int slot = (int) (now & L0_MASK);
+            List<ActiveBuff> due = level0.get(slot);
+            level0.set(slot, spare);
+            for (ActiveBuff buff : due) {
+                callback.fire(buff, now);
+            }
+            due.clear();
+            spare = due;
+        }
+
+        private void reschedule(List<ActiveBuff> pending) {
+            for (ActiveBuff buff : pending) {
+                if (!buff.removed) {
+                    schedule(buff);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface FireCallback {
+        void fire(ActiveBuff buff, long now);
+    }
+}
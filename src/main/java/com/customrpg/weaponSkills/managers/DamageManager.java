@@ -1,6 +1,7 @@
 package com.customrpg.weaponSkills.managers;
 
 import com.customrpg.managers.WeaponManager;
+import com.customrpg.weapons.WeaponProfile;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 
@@ -10,11 +11,20 @@ import java.util.Random;
  * DamageManager
  *
  * Central place to apply skill damage with optional weapon stat integration.
+ *
+ * Skill damage is fully resolved here. While it is being applied, {@link #isApplyingSkillDamage()}
+ * returns true so the melee pipeline (WeaponListener) can skip the nested EntityDamageByEntityEvent
+ * instead of scaling the hit a second time.
  */
 public class DamageManager {
 
+    // target.damage() fires EntityDamageByEntityEvent synchronously on the main thread,
+    // so a simple depth counter around the call identifies skill-originated damage.
+    private static int skillDamageDepth;
+
     private final Random random = new Random();
     private com.customrpg.managers.PlayerStatsManager statsManager;
+    private BuffManager buffs;
 
     /**
      * 設定 PlayerStatsManager (由 CustomRPG 在初始化後呼叫)
@@ -23,6 +33,13 @@ public class DamageManager {
         this.statsManager = statsManager;
     }
 
+    /**
+     * 設定 BuffManager (增益的傷害 / 暴擊加成)
+     */
+    public void setBuffManager(BuffManager buffs) {
+        this.buffs = buffs;
+    }
+
     /**
      * Deal skill damage without weapon stat bonuses (legacy behavior)
      */
@@ -33,7 +50,7 @@ public class DamageManager {
         if (amount <= 0) {
             return;
         }
-        target.damage(amount, caster);
+        applySkillDamage(caster, target, amount);
     }
 
     /**
@@ -49,6 +66,23 @@ public class DamageManager {
     public void dealSkillDamageWithWeaponStats(Player caster, LivingEntity target, double baseDamage,
                                                WeaponManager.WeaponData weaponData,
                                                boolean applyWeaponMultiplier, boolean canCrit) {
+        dealSkillDamageWithWeaponStats(caster, target, baseDamage,
+                weaponData == null ? null : weaponData.getProfile(), applyWeaponMultiplier, canCrit);
+    }
+
+    /**
+     * Deal skill damage with compiled weapon stats (damage-multiplier and crit)
+     *
+     * @param caster The player casting the skill
+     * @param target The target entity
+     * @param baseDamage Base skill damage
+     * @param profile Compiled weapon profile for stat bonuses (can be null)
+     * @param applyWeaponMultiplier Whether to apply weapon damage-multiplier
+     * @param canCrit Whether this skill can crit
+     */
+    public void dealSkillDamageWithWeaponStats(Player caster, LivingEntity target, double baseDamage,
+                                               WeaponProfile profile,
+                                               boolean applyWeaponMultiplier, boolean canCrit) {
         if (caster == null || target == null) {
             return;
         }
@@ -66,14 +100,24 @@ public class DamageManager {
         }
 
         // Apply weapon damage multiplier
-        if (applyWeaponMultiplier && weaponData != null) {
-            finalDamage *= weaponData.getDamageMultiplier();
+        if (applyWeaponMultiplier && profile != null) {
+            finalDamage *= profile.getDamageMultiplier();
+        }
+
+        // Apply buff modifiers (caster damage + target damage taken)
+        if (buffs != null) {
+            double percent = buffs.getStat(caster, BuffManager.Stat.DAMAGE_PERCENT)
+                    + buffs.getStat(target, BuffManager.Stat.DAMAGE_TAKEN_PERCENT);
+            finalDamage *= Math.max(0.0, 1.0 + percent / 100.0);
         }
 
         // Apply crit chance and multiplier
-        if (canCrit && weaponData != null) {
-            double critChance = weaponData.getDoubleExtra("crit-chance", 0.0);
-            double critMultiplier = weaponData.getDoubleExtra("crit-damage-multiplier", 0.0);
+        if (canCrit && profile != null) {
+            double critChance = profile.getCritChance();
+            if (buffs != null) {
+                critChance += buffs.getStat(caster, BuffManager.Stat.CRIT_CHANCE);
+            }
+            double critMultiplier = profile.getCritDamageMultiplier();
 
             // Clamp crit chance to 0-100%
             critChance = Math.max(0.0, Math.min(100.0, critChance));
@@ -87,6 +131,23 @@ public class DamageManager {
             }
         }
 
-        target.damage(finalDamage, caster);
+        applySkillDamage(caster, target, finalDamage);
+    }
+
+    /**
+     * Whether the damage event currently being handled was caused by a skill
+     * @return true while DamageManager is applying skill damage
+     */
+    public static boolean isApplyingSkillDamage() {
+        return skillDamageDepth > 0;
+    }
+
+    private static void applySkillDamage(Player caster, LivingEntity target, double amount) {
+        skillDamageDepth++;
+        try {
+            target.damage(amount, caster);
+        } finally {
+            skillDamageDepth--;
+        }
     }
 }
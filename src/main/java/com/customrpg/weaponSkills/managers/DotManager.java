@@ -0,0 +1,386 @@
+package com.customrpg.weaponSkills.managers;
+
+import com.customrpg.managers.PlayerStatsManager;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * DotManager
+ *
+ * Damage over time (burn / poison / bleed) on any LivingEntity, independent of vanilla fire ticks
+ * and potion effects, so damage scales with the source's stats and is tuned per weapon.
+ *
+ * - Struct-of-arrays table: one row per afflicted entity (looked up by entity id), one column set
+ *   (damage per second, start / end tick, source) per {@link DotType}. Re-applying a type keeps the stronger
+ *   damage and the later end tick.
+ * - Every entity pulses on its own cadence ({@code dot.interval-ticks}); all of its DoTs are summed
+ *   into a single damage application per pulse. The whole table is resolved in one pass per tick.
+ * - Damage goes through {@link DamageManager#dealSkillDamage} with the strongest source player, so it
+ *   gets kill credit / XP and skips the melee pipeline. The target's damage-taken buffs (e.g. VULNERABLE)
+ *   apply when the damage lands.
+ * - Settings can be reloaded; each pulse covers the ticks since the row's previous pulse, so changing the
+ *   interval neither drops nor double-counts damage.
+ *
+ * Main thread only.
+ */
+public class DotManager implements Listener {
+
+    public enum DotType {
+        BURN,
+        POISON,
+        BLEED
+    }
+
+    private static final int TYPES = DotType.values().length;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final DamageManager damage;
+    private final PlayerStatsManager statsManager;
+    private final BuffManager buffs;
+    private int intervalTicks;
+    private double magicScaling;
+
+    // ===== table (rows 0..size-1) =====
+    private int size;
+    private int[] entityIds = new int[INITIAL_CAPACITY];
+    private LivingEntity[] entities = new LivingEntity[INITIAL_CAPACITY];
+    private long[] nextPulse = new long[INITIAL_CAPACITY];
+    private long[] lastPulse = new long[INITIAL_CAPACITY];
+    // [type][row]；endTick 0 = 沒有這種 DoT
+    private double[][] damagePerSecond = new double[TYPES][INITIAL_CAPACITY];
+    private long[][] startTick = new long[TYPES][INITIAL_CAPACITY];
+    private long[][] endTick = new long[TYPES][INITIAL_CAPACITY];
+    private UUID[][] sources = new UUID[TYPES][INITIAL_CAPACITY];
+    // 重新施加前已累積、下次 pulse 才造成的傷害
+    private double[][] owed = new double[TYPES][INITIAL_CAPACITY];
+    // entity id -> row
+    private final Map<Integer, Integer> rows = new HashMap<>();
+
+    // 本 tick 要套用的傷害（先算完整張表，再統一造成傷害；傷害可能觸發死亡事件而改動表）
+    private LivingEntity[] dueTargets = new LivingEntity[INITIAL_CAPACITY];
+    private double[] dueDamage = new double[INITIAL_CAPACITY];
+    private UUID[] dueSources = new UUID[INITIAL_CAPACITY];
+
+    private long currentTick;
+    private final BukkitTask tickTask;
+
+    /**
+     * @param plugin Plugin (for the tick task)
+     * @param damage Damage manager used to apply (and attribute) the damage
+     * @param statsManager Stats manager for Magic scaling
+     * @param buffs Buff manager for the target's damage-taken modifier, may be null
+     * @param settings config.yml {@code dot} section, or null for defaults
+     */
+    public DotManager(Plugin plugin, DamageManager damage, PlayerStatsManager statsManager, BuffManager buffs,
+                      ConfigurationSection settings) {
+        this.damage = damage;
+        this.statsManager = statsManager;
+        this.buffs = buffs;
+        reloadSettings(settings);
+        this.tickTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * 套用 config.yml {@code dot} 區段（熱重載時在主執行緒呼叫）；新的間隔從各目標下一次 pulse 之後生效
+     * @param settings dot section, or null for defaults
+     */
+    public void reloadSettings(ConfigurationSection settings) {
+        this.intervalTicks = settings == null ? 20 : Math.max(1, settings.getInt("interval-ticks", 20));
+        this.magicScaling = settings == null ? 0.05 : Math.max(0.0, settings.getDouble("magic-scaling", 0.05));
+    }
+
+    /**
+     * Apply a DoT scaled by the source's Magic (+magic-scaling per point per second)
+     * @param source Player responsible for the damage (kill credit), may be null
+     * @param target Any living entity
+     * @param type DoT type
+     * @param baseDamagePerSecond Damage per second before scaling
+     * @param durationTicks Duration in ticks
+     */
+    public void apply(Player source, LivingEntity target, DotType type, double baseDamagePerSecond, int durationTicks) {
+        double dps = baseDamagePerSecond;
+        if (source != null && statsManager != null) {
+            dps += statsManager.getStats(source).getMagic() * magicScaling;
+        }
+        applyRaw(source == null ? null : source.getUniqueId(), target, type, dps, durationTicks);
+    }
+
+    /**
+     * Apply a DoT without scaling
+     */
+    public void applyRaw(UUID source, LivingEntity target, DotType type, double dps, int durationTicks) {
+        if (target == null || type == null || dps <= 0 || durationTicks <= 0 || !target.isValid()) {
+            return;
+        }
+        int t = type.ordinal();
+        long end = currentTick + durationTicks;
+
+        Integer existing = rows.get(target.getEntityId());
+        int row = existing == null ? addRow(target) : existing;
+
+        // 同類型：取較強的傷害（來源跟著換）與較晚的結束時間
+        // 換掉之前先按舊的傷害結算到現在：已過期但還沒 pulse 的尾段不會遺失，新的傷害也不會往回算
+        if (endTick[t][row] <= currentTick) {
+            settle(t, row);
+            endTick[t][row] = end;
+            damagePerSecond[t][row] = dps;
+            sources[t][row] = source;
+        } else {
+            if (dps >= damagePerSecond[t][row]) {
+                settle(t, row);
+                damagePerSecond[t][row] = dps;
+                sources[t][row] = source;
+            }
+            endTick[t][row] = Math.max(endTick[t][row], end);
+        }
+
+        if (type == DotType.BURN) {
+            target.setVisualFire(true);
+        }
+    }
+
+    /**
+     * 把 (上次 pulse, 現在] 按目前的傷害記到 owed，之後從現在開始計算
+     */
+    private void settle(int t, int row) {
+        long covered = Math.min(endTick[t][row], currentTick) - Math.max(startTick[t][row], lastPulse[row]);
+        if (covered > 0) {
+            owed[t][row] += damagePerSecond[t][row] * covered / 20.0;
+        }
+        startTick[t][row] = currentTick;
+    }
+
+    /**
+     * @return true if the entity has an active DoT of the type
+     */
+    public boolean has(LivingEntity target, DotType type) {
+        Integer row = target == null ? null : rows.get(target.getEntityId());
+        return row != null && endTick[type.ordinal()][row] > currentTick;
+    }
+
+    /**
+     * 移除目標的所有 DoT
+     */
+    public void clear(LivingEntity target) {
+        Integer row = target == null ? null : rows.get(target.getEntityId());
+        if (row != null) {
+            if (endTick[DotType.BURN.ordinal()][row] > currentTick) {
+                target.setVisualFire(false);
+            }
+            removeRow(row);
+        }
+    }
+
+    /**
+     * @return Number of afflicted entities
+     */
+    public int getAfflictedCount() {
+        return size;
+    }
+
+    /**
+     * 關服時呼叫
+     */
+    public void shutdown() {
+        tickTask.cancel();
+        for (int row = size - 1; row >= 0; row--) {
+            if (endTick[DotType.BURN.ordinal()][row] > currentTick && entities[row].isValid()) {
+                entities[row].setVisualFire(false);
+            }
+            removeRow(row);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(EntityDeathEvent event) {
+        Integer row = rows.get(event.getEntity().getEntityId());
+        if (row != null) {
+            removeRow(row);
+        }
+    }
+
+    // ===== tick =====
+
+    private void tick() {
+        long now = ++currentTick;
+        int due = 0;
+
+        // 由後往前：移除時把最後一列搬過來，不影響還沒走到的列
+        for (int row = size - 1; row >= 0; row--) {
+            if (nextPulse[row] > now) {
+                continue;
+            }
+            LivingEntity target = entities[row];
+            if (!target.isValid()) {
+                removeRow(row);
+                continue;
+            }
+
+            double total = 0.0;
+            double strongest = 0.0;
+            UUID source = null;
+            boolean active = false;
+            for (int t = 0; t < TYPES; t++) {
+                long end = endTick[t][row];
+                if (end == 0L) {
+                    continue;
+                }
+                // 這次 pulse 涵蓋 (上次 pulse, now]，第一段 / 最後一段按比例
+                long covered = Math.min(end, now) - Math.max(startTick[t][row], lastPulse[row]);
+                double amount = owed[t][row];
+                owed[t][row] = 0.0;
+                if (covered > 0) {
+                    amount += damagePerSecond[t][row] * covered / 20.0;
+                }
+                if (amount > 0.0) {
+                    total += amount;
+                    if (amount > strongest) {
+                        strongest = amount;
+                        source = sources[t][row];
+                    }
+                }
+                if (end > now) {
+                    active = true;
+                } else {
+                    clearColumn(t, row);
+                    if (t == DotType.BURN.ordinal()) {
+                        target.setVisualFire(false);
+                    }
+                }
+            }
+
+            if (total > 0.0) {
+                if (due == dueTargets.length) {
+                    growDue();
+                }
+                dueTargets[due] = target;
+                dueDamage[due] = total;
+                dueSources[due] = source;
+                due++;
+            }
+
+            lastPulse[row] = now;
+            if (active) {
+                nextPulse[row] = now + intervalTicks;
+            } else {
+                removeRow(row);
+            }
+        }
+
+        for (int i = 0; i < due; i++) {
+            applyDamage(dueTargets[i], dueDamage[i], dueSources[i]);
+            dueTargets[i] = null;
+            dueSources[i] = null;
+        }
+    }
+
+    private void applyDamage(LivingEntity target, double amount, UUID sourceId) {
+        if (!target.isValid()) {
+            return;
+        }
+        Player source = sourceId == null ? null : Bukkit.getPlayer(sourceId);
+        if (buffs != null) {
+            // 目標的受傷加成（VULNERABLE 等）；dealSkillDamage 不會套用
+            amount *= Math.max(0.0, 1.0 + buffs.getStat(target, BuffManager.Stat.DAMAGE_TAKEN_PERCENT) / 100.0);
+            if (amount <= 0.0) {
+                return;
+            }
+        }
+
+        // DoT 不受受傷無敵時間影響，也不延長近戰的無敵時間
+        int noDamageTicks = target.getNoDamageTicks();
+        target.setNoDamageTicks(0);
+        if (source != null && source.isOnline()) {
+            damage.dealSkillDamage(source, target, amount);
+        } else {
+            target.damage(amount);
+        }
+        if (target.isValid()) {
+            target.setNoDamageTicks(noDamageTicks);
+        }
+    }
+
+    // ===== table maintenance =====
+
+    private int addRow(LivingEntity target) {
+        if (size == entityIds.length) {
+            grow();
+        }
+        int row = size++;
+        entityIds[row] = target.getEntityId();
+        entities[row] = target;
+        nextPulse[row] = currentTick + intervalTicks;
+        lastPulse[row] = currentTick;
+        for (int t = 0; t < TYPES; t++) {
+            clearColumn(t, row);
+        }
+        rows.put(target.getEntityId(), row);
+        return row;
+    }
+
+    private void clearColumn(int type, int row) {
+        damagePerSecond[type][row] = 0.0;
+        startTick[type][row] = 0L;
+        endTick[type][row] = 0L;
+        sources[type][row] = null;
+        owed[type][row] = 0.0;
+    }
+
+    private void removeRow(int row) {
+        int last = --size;
+        rows.remove(entityIds[row]);
+        if (row != last) {
+            entityIds[row] = entityIds[last];
+            entities[row] = entities[last];
+            nextPulse[row] = nextPulse[last];
+            lastPulse[row] = lastPulse[last];
+            for (int t = 0; t < TYPES; t++) {
+                damagePerSecond[t][row] = damagePerSecond[t][last];
+                startTick[t][row] = startTick[t][last];
+                endTick[t][row] = endTick[t][last];
+                sources[t][row] = sources[t][last];
+                owed[t][row] = owed[t][last];
+            }
+            rows.put(entityIds[row], row);
+        }
+        entities[last] = null;
+        for (int t = 0; t < TYPES; t++) {
+            sources[t][last] = null;
+        }
+    }
+
+    private void grow() {
+        int capacity = entityIds.length * 2;
+        entityIds = Arrays.copyOf(entityIds, capacity);
+        entities = Arrays.copyOf(entities, capacity);
+        nextPulse = Arrays.copyOf(nextPulse, capacity);
+        lastPulse = Arrays.copyOf(lastPulse, capacity);
+        for (int t = 0; t < TYPES; t++) {
+            damagePerSecond[t] = Arrays.copyOf(damagePerSecond[t], capacity);
+            startTick[t] = Arrays.copyOf(startTick[t], capacity);
+            endTick[t] = Arrays.copyOf(endTick[t], capacity);
+            sources[t] = Arrays.copyOf(sources[t], capacity);
+            owed[t] = Arrays.copyOf(owed[t], capacity);
+        }
+    }
+
+    private void growDue() {
+        int capacity = dueTargets.length * 2;
+        dueTargets = Arrays.copyOf(dueTargets, capacity);
+        dueDamage = Arrays.copyOf(dueDamage, capacity);
+        dueSources = Arrays.copyOf(dueSources, capacity);
+    }
+}
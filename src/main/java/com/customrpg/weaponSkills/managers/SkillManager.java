@@ -1,8 +1,10 @@
 package com.customrpg.weaponSkills.managers;
 
+import com.customrpg.managers.CooldownService;
 import com.customrpg.managers.WeaponManager;
 import com.customrpg.weaponSkills.*;
 import com.customrpg.weaponSkills.skills.ConfigDrivenWeaponSkill;
+import com.customrpg.weapons.WeaponProfile;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -11,43 +13,48 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 /**
  * SkillManager
  *
  * Dispatch system: listener events -> manager -> skills.
  *
+ * Each compiled weapon profile is resolved once into a {@link SkillBinding} per trigger, so a click is one
+ * array index plus one cooldown check; all casts share one {@link SkillServices}.
+ *
  * This is a new skill system (separate from legacy com.customrpg.managers.SkillManager).
  */
 public class SkillManager {
 
+    private static final SkillTriggerType[] TRIGGERS = SkillTriggerType.values();
+    private static final SkillBinding[] NO_BINDINGS = new SkillBinding[TRIGGERS.length];
+
     private final WeaponManager weaponManager;
-    private final CooldownManager cooldowns;
-    private final DamageManager damage;
-    private final BuffManager buffs;
-    private final com.customrpg.weaponSkills.util.AoEUtil aoe;
-    private final com.customrpg.weaponSkills.util.ParticleUtil particles;
-    private final com.customrpg.weaponSkills.util.SoundUtil sounds;
+    private final CooldownService cooldowns;
+    // shared by every cast
+    private final SkillServices services;
 
     private final Map<String, Skill> registry = new HashMap<>();
 
     // weaponKey -> skillId binding (optional override)
     private final Map<String, String> weaponActiveSkill = new HashMap<>();
 
+    // compiled weapon profile -> binding per trigger ordinal; cleared when skills or bindings change,
+    // reloaded weapons get new profiles (old ones are dropped with the weapon data)
+    private final Map<WeaponProfile, SkillBinding[]> bindings = new WeakHashMap<>();
+
     public SkillManager(WeaponManager weaponManager,
-                        CooldownManager cooldowns,
+                        CooldownService cooldowns,
                         DamageManager damage,
                         BuffManager buffs,
+                        DotManager dots,
                         com.customrpg.weaponSkills.util.AoEUtil aoe,
                         com.customrpg.weaponSkills.util.ParticleUtil particles,
                         com.customrpg.weaponSkills.util.SoundUtil sounds) {
         this.weaponManager = weaponManager;
         this.cooldowns = cooldowns;
-        this.damage = damage;
-        this.buffs = buffs;
-        this.aoe = aoe;
-        this.particles = particles;
-        this.sounds = sounds;
+        this.services = new SkillServices(cooldowns, damage, buffs, dots, aoe, particles, sounds);
     }
 
     public void registerSkill(Skill skill) {
@@ -55,6 +62,15 @@ public class SkillManager {
             return;
         }
         registry.put(skill.getId().trim().toLowerCase(), skill);
+        bindings.clear();
+    }
+
+    public void unregisterSkill(String id) {
+        if (id == null) {
+            return;
+        }
+        registry.remove(id.trim().toLowerCase());
+        bindings.clear();
     }
 
     public void bindWeaponSkill(String weaponKey, String skillId) {
@@ -62,6 +78,7 @@ public class SkillManager {
             return;
         }
         weaponActiveSkill.put(weaponKey.trim().toLowerCase(), skillId.trim().toLowerCase());
+        bindings.clear();
     }
 
     public boolean tryCastWeaponSkill(Player player, SkillTriggerType triggerType, ItemStack itemInHand) {
@@ -74,65 +91,104 @@ public class SkillManager {
             return false;
         }
 
-        WeaponManager.WeaponData weaponData = weaponManager.getWeaponData(weaponKey);
-        if (weaponData == null) {
+        return tryCastWeaponSkill(player, triggerType, itemInHand, weaponManager.getWeaponData(weaponKey));
+    }
+
+    /**
+     * Cast with an already resolved weapon (listeners pass the cached main-hand weapon)
+     */
+    public boolean tryCastWeaponSkill(Player player, SkillTriggerType triggerType, ItemStack itemInHand,
+                                      WeaponManager.WeaponData weaponData) {
+        if (player == null || triggerType == null || itemInHand == null || weaponData == null) {
             return false;
         }
 
-        // 1) skill id resolve priority:
+        SkillBinding binding = getBindings(weaponData)[triggerType.ordinal()];
+        if (binding == null) {
+            return false;
+        }
+
+        int cooldownId = binding.cooldownId();
+        if (!cooldowns.isReady(player, cooldownId)) {
+            long rem = cooldowns.getRemainingTicks(player, cooldownId);
+            player.sendMessage("技能冷卻中：" + Math.max(1, (rem + 19) / 20) + "秒");
+            return true;
+        }
+
+        Skill skill = binding.skill();
+        SkillContext ctx = new SkillContext(player, triggerType, itemInHand, weaponData.getKey(), weaponData, null, services);
+
+        boolean executed = skill.cast(ctx);
+        if (executed) {
+            long cd = binding.cooldownTicks() >= 0
+                    ? binding.cooldownTicks()
+                    : CooldownService.toTicks(skill.getCooldownMillis(ctx));
+            if (cd > 0) {
+                cooldowns.start(player, cooldownId, cd);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return Binding per trigger ordinal for the weapon (resolved on first use per compiled profile)
+     */
+    private SkillBinding[] getBindings(WeaponManager.WeaponData weaponData) {
+        WeaponProfile profile = weaponData.getProfile();
+        SkillBinding[] byTrigger = bindings.get(profile);
+        if (byTrigger == null) {
+            byTrigger = resolve(weaponData);
+            bindings.put(profile, byTrigger);
+        }
+        return byTrigger;
+    }
+
+    private SkillBinding[] resolve(WeaponManager.WeaponData weaponData) {
+        String weaponKey = weaponData.getKey();
+        WeaponProfile.ActiveSkill settings = weaponData.getProfile().getActiveSkill();
+
+        // skill id resolve priority:
         // - explicit binding (code)
-        // - weapon active-skill-name (from ConfigManager)
+        // - weapon active-skill-name (compiled into the profile)
         String skillId = weaponActiveSkill.get(weaponKey.trim().toLowerCase());
-        if (skillId == null || skillId.isBlank()) {
-            skillId = String.valueOf(weaponData.getExtra().getOrDefault("active-skill-name", ""));
+        if ((skillId == null || skillId.isBlank()) && settings != null) {
+            skillId = settings.getSkillId();
         }
         if (skillId == null || skillId.isBlank()) {
-            return false;
-        }
-        skillId = skillId.trim().toLowerCase();
-
-        // 2) trigger check (weapon config stores string like RIGHT_CLICK)
-        String expectedTrigger = String.valueOf(weaponData.getExtra().getOrDefault("active-skill-trigger", ""));
-        if (expectedTrigger != null && !expectedTrigger.isBlank()) {
-            try {
-                SkillTriggerType expected = SkillTriggerType.valueOf(expectedTrigger.trim().toUpperCase());
-                if (expected != triggerType) {
-                    return false;
-                }
-            } catch (Exception ignored) {
-                // if invalid, ignore trigger restriction
-            }
+            return NO_BINDINGS;
         }
 
         Skill skill = registry.get(skillId);
         if (skill == null) {
-            return false;
+            return NO_BINDINGS;
         }
 
-        if (!skill.getSupportedTriggers().contains(triggerType)) {
-            return false;
+        // triggers the skill supports, narrowed by the weapon's active-skill-trigger
+        int mask = 0;
+        for (SkillTriggerType trigger : skill.getSupportedTriggers()) {
+            mask |= 1 << trigger.ordinal();
         }
-
-        SkillServices services = new SkillServices(cooldowns, damage, buffs, aoe, particles, sounds);
-        SkillContext ctx = new SkillContext(player, triggerType, itemInHand, weaponKey, weaponData, null, services);
-
-        // Cooldown key per-player + weapon + skill
-        String cooldownKey = "weapon_skill:" + weaponKey.toLowerCase() + ":" + skill.getId() + ":" + player.getUniqueId();
-        if (!cooldowns.canCast(player, cooldownKey)) {
-            long rem = cooldowns.getRemainingCooldown(player, cooldownKey);
-            player.sendMessage("技能冷卻中：" + Math.max(1, (rem + 999) / 1000) + "秒");
-            return true;
+        if (settings != null && settings.getTrigger() != null) {
+            mask &= 1 << settings.getTrigger().ordinal();
+        }
+        if (mask == 0) {
+            return NO_BINDINGS;
         }
 
-        boolean executed = skill.cast(ctx);
-        if (executed) {
-            long cd = Math.max(0L, skill.getCooldownMillis(ctx));
-            if (cd > 0) {
-                cooldowns.applyCooldown(player, cooldownKey, cd);
+        long cooldownTicks = settings != null && settings.getCooldownMillis() > 0
+                ? CooldownService.toTicks(settings.getCooldownMillis())
+                : -1L;
+        SkillBinding binding = new SkillBinding(skill, settings, mask,
+                cooldowns.weaponSkillId(weaponKey, skill.getId()), cooldownTicks);
+
+        SkillBinding[] byTrigger = new SkillBinding[TRIGGERS.length];
+        for (SkillTriggerType trigger : TRIGGERS) {
+            if (binding.accepts(trigger)) {
+                byTrigger[trigger.ordinal()] = binding;
             }
         }
-
-        return true;
+        return byTrigger;
     }
 
     public Skill getSkill(String id) {
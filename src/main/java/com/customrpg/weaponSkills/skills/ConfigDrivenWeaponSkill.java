@@ -3,6 +3,7 @@ package com.customrpg.weaponSkills.skills;
 import com.customrpg.weaponSkills.BaseSkill;
 import com.customrpg.weaponSkills.SkillContext;
 import com.customrpg.weaponSkills.SkillTriggerType;
+import com.customrpg.weapons.WeaponProfile;
 import org.bukkit.Location;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
@@ -36,56 +37,42 @@ public class ConfigDrivenWeaponSkill extends BaseSkill {
 
     @Override
     public long getCooldownMillis(SkillContext context) {
-        // cooldown is expected to already be merged into weaponData.extra by ConfigManager
-        if (context.weaponData() == null) {
+        // cooldown is merged by ConfigManager and compiled into the weapon profile
+        WeaponProfile profile = context.weaponProfile();
+        if (profile == null || profile.getActiveSkill() == null) {
             return 0L;
         }
-        int sec = context.weaponData().getIntExtra("active-skill-cooldown", 0);
-        return Math.max(0L, sec) * 1000L;
+        return profile.getActiveSkill().getCooldownMillis();
     }
 
-    private String resolveType(SkillContext context) {
-        if (context == null || context.weaponData() == null) {
+    private String resolveType(WeaponProfile.ActiveSkill skill) {
+        if (skill == null || skill.getType().isEmpty()) {
             return defaultType;
         }
-        Object t = context.weaponData().getExtra().get("active-skill-type");
-        String type = t == null ? "" : String.valueOf(t).trim().toLowerCase(Locale.ROOT);
-        if (type.isBlank()) {
-            return defaultType;
-        }
-        return type;
+        return skill.getType();
     }
 
     @Override
     public boolean cast(SkillContext context) {
-        if (context.weaponData() == null) {
+        WeaponProfile profile = context.weaponProfile();
+        if (profile == null) {
             return false;
         }
 
-        String type = resolveType(context);
+        WeaponProfile.ActiveSkill skill = profile.getActiveSkill();
+        String type = resolveType(skill);
 
-        double damage = context.weaponData().getDoubleExtra("active-skill-damage", 0.0);
-        double range = context.weaponData().getDoubleExtra("active-skill-range", 0.0);
-        double width = context.weaponData().getDoubleExtra("active-skill-aoe-width", 0.0);
+        double damage = skill == null ? 0.0 : skill.getDamage();
+        double range = skill == null ? 0.0 : skill.getRange();
+        double width = skill == null ? 0.0 : skill.getAoeWidth();
 
         // Fallback single values
-        String particle = String.valueOf(context.weaponData().getExtra().getOrDefault("active-skill-particle", ""));
-        String sound = String.valueOf(context.weaponData().getExtra().getOrDefault("active-skill-sound", ""));
+        String particle = skill == null ? "" : skill.getParticle();
+        String sound = skill == null ? "" : skill.getSound();
 
         // Preferred complex visuals
-        Object visualsObj = context.weaponData().getExtra().get("active-skill-visuals");
-        @SuppressWarnings("unchecked")
-        Map<String, Object> visuals = visualsObj instanceof Map ? (Map<String, Object>) visualsObj : null;
-
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> particleList = visuals != null && visuals.get("particles") instanceof List
-                ? (List<Map<String, Object>>) visuals.get("particles")
-                : null;
-
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> soundList = visuals != null && visuals.get("sounds") instanceof List
-                ? (List<Map<String, Object>>) visuals.get("sounds")
-                : null;
+        List<Map<String, Object>> particleList = skill == null ? null : skill.getParticleList();
+        List<Map<String, Object>> soundList = skill == null ? null : skill.getSoundList();
 
         Location origin = context.caster().getLocation();
 
@@ -125,8 +112,7 @@ public class ConfigDrivenWeaponSkill extends BaseSkill {
                 for (LivingEntity t : context.services().aoe().getRadiusTargets(context.caster(), origin, Math.max(0.5, range))) {
                     // Apply weapon stats to skill damage (multiplier + crit)
                     context.services().damage().dealSkillDamageWithWeaponStats(
-                            context.caster(), t, Math.max(0.0, damage),
-                            context.weaponData(), true, true);
+                            context.caster(), t, damage, profile, true, true);
                 }
                 return true;
             }
@@ -150,8 +136,7 @@ public class ConfigDrivenWeaponSkill extends BaseSkill {
                 for (LivingEntity t : context.services().aoe().getBoxTargets(context.caster(), center, half, 1.5, half)) {
                     // Apply weapon stats to skill damage (multiplier + crit)
                     context.services().damage().dealSkillDamageWithWeaponStats(
-                            context.caster(), t, Math.max(0.0, damage),
-                            context.weaponData(), true, true);
+                            context.caster(), t, damage, profile, true, true);
                 }
                 return true;
             }
@@ -162,7 +147,7 @@ public class ConfigDrivenWeaponSkill extends BaseSkill {
                     return false;
                 }
 
-                double healPlayer = context.weaponData().getDoubleExtra("active-skill-heal-player", 0.0);
+                double healPlayer = skill == null ? 0.0 : skill.getHealPlayer();
 
                 Location from = origin.clone().add(0, 1.3, 0);
                 Location to = target.getLocation().clone().add(0, Math.max(0.8, target.getHeight() * 0.6), 0);
@@ -194,8 +179,7 @@ public class ConfigDrivenWeaponSkill extends BaseSkill {
                 // damage + heal
                 // Apply weapon stats to skill damage (multiplier + crit)
                 context.services().damage().dealSkillDamageWithWeaponStats(
-                        context.caster(), target, Math.max(0.0, damage),
-                        context.weaponData(), true, true);
+                        context.caster(), target, damage, profile, true, true);
 
                 if (healPlayer > 0) {
                     @SuppressWarnings("deprecation")
@@ -54,11 +54,9 @@ public class FireNovaSkill extends BaseSkill {
             context.services().damage().dealSkillDamageWithWeaponStats(
                     context.caster(), t, Math.max(0.0, damage),
                     context.weaponData(), true, true);
-            // burn debuff example (placeholder): apply to player targets only for now
-            if (t instanceof org.bukkit.entity.Player p) {
-                context.services().buffs().apply(p, com.customrpg.weaponSkills.managers.BuffManager.BuffType.BURN, 3000);
-            }
-            t.setFireTicks(Math.max(t.getFireTicks(), 60));
+            // burn DoT (3s)
+            context.services().dots().apply(context.caster(), t,
+                    com.customrpg.weaponSkills.managers.DotManager.DotType.BURN, 1.0, 60);
         }
 
         return true;
@@ -0,0 +1,38 @@
+package com.customrpg.weapons;
+
+import java.util.Locale;
+
+/**
+ * WeaponElement - 武器元素類型
+ *
+ * 在載入武器時由 extra 的 element-type 字串解析一次，
+ * 戰鬥時直接用 enum switch，不再每次 toUpperCase 比對字串。
+ */
+public enum WeaponElement {
+    NONE,
+    BURN,
+    LIGHTNING,
+    ICE,
+    WATER,
+    POISON;
+
+    /**
+     * 解析元素字串（支援 listener 舊有的別名：FIRE / THUNDER / FREEZE）
+     * @param raw element-type 原始值
+     * @return 對應的元素，無法辨識時回傳 NONE
+     */
+    public static WeaponElement parse(Object raw) {
+        if (raw == null) {
+            return NONE;
+        }
+        String value = String.valueOf(raw).trim().toUpperCase(Locale.ROOT);
+        return switch (value) {
+            case "FIRE", "BURN" -> BURN;
+            case "LIGHTNING", "THUNDER" -> LIGHTNING;
+            case "ICE", "FREEZE" -> ICE;
+            case "WATER" -> WATER;
+            case "POISON" -> POISON;
+            default -> NONE;
+        };
+    }
+}
@@ -0,0 +1,340 @@
+package com.customrpg.weapons;
+
+import com.customrpg.weaponSkills.SkillTriggerType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * WeaponProfile - 編譯後的武器戰鬥資料
+ *
+ * WeaponManager 載入武器時，把 extra Map 中的戰鬥參數一次解析成 primitive 欄位。
+ * 每次攻擊、技能施放只讀取這些欄位，不再做 HashMap 查詢、boxing 或字串處理。
+ *
+ * 物件建立後不可變，可安全地在任何執行緒讀取。
+ */
+public final class WeaponProfile {
+
+    private final String key;
+    private final int minLevel;
+    private final double damageMultiplier;
+
+    // 基礎戰鬥屬性
+    private final double baseDamage;
+    private final double attackSpeed;
+    private final double critChance;
+    private final double critDamageMultiplier;
+    private final double knockback;
+    private final double durabilityCostMultiplier;
+
+    // 特殊機制
+    private final boolean backstabEnabled;
+    private final double backstabMultiplier;
+    private final boolean backstabEnchantedHit;
+    private final String backstabSound;
+    private final double armorPierce;
+    private final double lifeSteal;
+    private final double bleedChance;
+    private final double bleedDamagePerSecond;
+    private final int bleedDurationTicks;
+
+    // 元素
+    private final WeaponElement element;
+    private final int burnDurationTicks;
+    private final double burnDamagePerSecond;
+    private final double lightningChance;
+    private final double iceChance;
+    private final int iceDurationTicks;
+    private final int waterDurationTicks;
+    private final int waterSlownessLevel;
+    private final int poisonDurationTicks;
+    private final int poisonLevel;
+    private final int poisonArmorReductionLevel;
+    private final double poisonDamagePerSecond;
+
+    private final ActiveSkill activeSkill;
+    private final Passive passive;
+
+    private WeaponProfile(String key, int minLevel, double damageMultiplier, Map<String, Object> extra) {
+        this.key = key;
+        this.minLevel = minLevel;
+        this.damageMultiplier = damageMultiplier;
+
+        this.baseDamage = readDouble(extra, "base-damage", 0.0);
+        this.attackSpeed = readDouble(extra, "attack-speed", 0.0);
+        this.critChance = readDouble(extra, "crit-chance", 0.0);
+        this.critDamageMultiplier = readDouble(extra, "crit-damage-multiplier", 0.0);
+        this.knockback = readDouble(extra, "knockback", 0.0);
+        this.durabilityCostMultiplier = readDouble(extra, "durability-cost-multiplier", 1.0);
+
+        this.backstabEnabled = readBoolean(extra, "backstab-enabled", false);
+        this.backstabMultiplier = readDouble(extra, "backstab-multiplier", 1.0);
+        this.backstabEnchantedHit = readString(extra, "backstab-particle").equalsIgnoreCase("enchanted_hit");
+        String sound = readString(extra, "backstab-sound").trim().toLowerCase();
+        this.backstabSound = sound.isEmpty() ? null : sound;
+        this.armorPierce = Math.min(100.0, readDouble(extra, "armor-pierce", 0.0));
+        this.lifeSteal = readDouble(extra, "life-steal", 0.0);
+        this.bleedChance = Math.max(0.0, readDouble(extra, "bleed-chance", 0.0));
+        this.bleedDamagePerSecond = Math.max(0.0, readDouble(extra, "bleed-damage-per-second", 1.0));
+        this.bleedDurationTicks = Math.max(0, readInt(extra, "bleed-duration-ticks", 60));
+
+        this.element = WeaponElement.parse(extra.get("element-type"));
+        this.burnDurationTicks = Math.max(0, readInt(extra, "burn-duration-ticks", 100));
+        this.burnDamagePerSecond = Math.max(0.0, readDouble(extra, "burn-damage-per-second", 1.0));
+        this.lightningChance = readDouble(extra, "lightning-chance", 0.3);
+        this.iceChance = readDouble(extra, "ice-chance", 0.3);
+        this.iceDurationTicks = readInt(extra, "ice-duration-ticks", 40);
+        this.waterDurationTicks = readInt(extra, "water-duration-ticks", 60);
+        this.waterSlownessLevel = readInt(extra, "water-slowness-level", 1);
+        this.poisonDurationTicks = readInt(extra, "poison-duration-ticks", 100);
+        this.poisonLevel = readInt(extra, "poison-level", 1);
+        this.poisonArmorReductionLevel = readInt(extra, "poison-armor-reduction-level", 0);
+        // 預設與同等級原版中毒相同（每 25 >> level ticks 1 點）
+        double vanillaPoison = 20.0 / Math.max(1, 25 >> Math.min(5, Math.max(0, poisonLevel)));
+        this.poisonDamagePerSecond = Math.max(0.0, readDouble(extra, "poison-damage-per-second", vanillaPoison));
+
+        this.activeSkill = ActiveSkill.compile(extra);
+        this.passive = Passive.compile(key, extra);
+    }
+
+    /**
+     * 從武器的 extra Map 編譯出 profile
+     * @param key 武器 key
+     * @param minLevel 等級需求
+     * @param damageMultiplier 傷害倍率
+     * @param extra WeaponData 的 extra 資料
+     * @return 不可變的 WeaponProfile
+     */
+    public static WeaponProfile compile(String key, int minLevel, double damageMultiplier, Map<String, Object> extra) {
+        return new WeaponProfile(key, minLevel, damageMultiplier, extra == null ? Collections.emptyMap() : extra);
+    }
+
+    public String getKey() { return key; }
+    public int getMinLevel() { return minLevel; }
+    public double getDamageMultiplier() { return damageMultiplier; }
+
+    public double getBaseDamage() { return baseDamage; }
+    public double getAttackSpeed() { return attackSpeed; }
+    public double getCritChance() { return critChance; }
+    public double getCritDamageMultiplier() { return critDamageMultiplier; }
+    public double getKnockback() { return knockback; }
+    public double getDurabilityCostMultiplier() { return durabilityCostMultiplier; }
+
+    public boolean isBackstabEnabled() { return backstabEnabled; }
+    public double getBackstabMultiplier() { return backstabMultiplier; }
+    public boolean isBackstabEnchantedHit() { return backstabEnchantedHit; }
+    /** 背刺音效 key（已 trim + 小寫），未設定時為 null */
+    public String getBackstabSound() { return backstabSound; }
+    public double getArmorPierce() { return armorPierce; }
+    public double getLifeSteal() { return lifeSteal; }
+    /** 流血觸發機率（0~1） */
+    public double getBleedChance() { return bleedChance; }
+    public double getBleedDamagePerSecond() { return bleedDamagePerSecond; }
+    public int getBleedDurationTicks() { return bleedDurationTicks; }
+
+    public WeaponElement getElement() { return element; }
+    public int getBurnDurationTicks() { return burnDurationTicks; }
+    public double getBurnDamagePerSecond() { return burnDamagePerSecond; }
+    public double getLightningChance() { return lightningChance; }
+    public double getIceChance() { return iceChance; }
+    public int getIceDurationTicks() { return iceDurationTicks; }
+    public int getWaterDurationTicks() { return waterDurationTicks; }
+    public int getWaterSlownessLevel() { return waterSlownessLevel; }
+    public int getPoisonDurationTicks() { return poisonDurationTicks; }
+    public int getPoisonLevel() { return poisonLevel; }
+    public int getPoisonArmorReductionLevel() { return poisonArmorReductionLevel; }
+    public double getPoisonDamagePerSecond() { return poisonDamagePerSecond; }
+
+    /** 主動技能設定，未設定技能時為 null */
+    public ActiveSkill getActiveSkill() { return activeSkill; }
+
+    /** 被動效果設定，未設定被動時為 null */
+    public Passive getPassive() { return passive; }
+
+    /**
+     * 主動技能（已合併模板與武器覆寫值）
+     */
+    public static final class ActiveSkill {
+        private final String skillId;
+        private final SkillTriggerType trigger;
+        private final long cooldownMillis;
+        private final String description;
+        private final String type;
+        private final double damage;
+        private final double range;
+        private final double aoeWidth;
+        private final double healPlayer;
+        private final String particle;
+        private final String sound;
+        private final List<Map<String, Object>> particleList;
+        private final List<Map<String, Object>> soundList;
+
+        private ActiveSkill(Map<String, Object> extra) {
+            this.skillId = readString(extra, "active-skill-name").trim().toLowerCase(Locale.ROOT);
+            this.trigger = parseTrigger(readString(extra, "active-skill-trigger"));
+            this.cooldownMillis = Math.max(0L, readInt(extra, "active-skill-cooldown", 0)) * 1000L;
+            this.description = readString(extra, "active-skill-description");
+            this.type = readString(extra, "active-skill-type").trim().toLowerCase(Locale.ROOT);
+            this.damage = Math.max(0.0, readDouble(extra, "active-skill-damage", 0.0));
+            this.range = readDouble(extra, "active-skill-range", 0.0);
+            this.aoeWidth = readDouble(extra, "active-skill-aoe-width", 0.0);
+            this.healPlayer = readDouble(extra, "active-skill-heal-player", 0.0);
+            this.particle = readString(extra, "active-skill-particle");
+            this.sound = readString(extra, "active-skill-sound");
+
+            Object visualsObj = extra.get("active-skill-visuals");
+            Map<?, ?> visuals = visualsObj instanceof Map<?, ?> m ? m : null;
+            this.particleList = visuals == null ? null : readMapList(visuals.get("particles"));
+            this.soundList = visuals == null ? null : readMapList(visuals.get("sounds"));
+        }
+
+        private static ActiveSkill compile(Map<String, Object> extra) {
+            boolean hasName = !readString(extra, "active-skill-name").isBlank();
+            boolean hasType = !readString(extra, "active-skill-type").isBlank();
+            if (!hasName && !hasType) {
+                return null;
+            }
+            return new ActiveSkill(extra);
+        }
+
+        /** 技能 ID（小寫），可能為空字串 */
+        public String getSkillId() { return skillId; }
+        /** 限定觸發方式，null 代表不限制 */
+        public SkillTriggerType getTrigger() { return trigger; }
+        public long getCooldownMillis() { return cooldownMillis; }
+        public String getDescription() { return description; }
+        /** 技能類型（小寫），可能為空字串 */
+        public String getType() { return type; }
+        public double getDamage() { return damage; }
+        public double getRange() { return range; }
+        public double getAoeWidth() { return aoeWidth; }
+        public double getHealPlayer() { return healPlayer; }
+        public String getParticle() { return particle; }
+        public String getSound() { return sound; }
+        /** visuals.particles，未設定或為空時為 null */
+        public List<Map<String, Object>> getParticleList() { return particleList; }
+        /** visuals.sounds，未設定或為空時為 null */
+        public List<Map<String, Object>> getSoundList() { return soundList; }
+
+        private static SkillTriggerType parseTrigger(String raw) {
+            if (raw == null || raw.isBlank()) {
+                return null;
+            }
+            try {
+                return SkillTriggerType.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ignored) {
+                // if invalid, ignore trigger restriction
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 被動效果
+     */
+    public static final class Passive {
+
+        public enum Effect {
+            KILL_CRIT_BOOST,
+            UNKNOWN
+        }
+
+        private final Effect effect;
+        private final String name;
+        private final double value;
+        private final int durationTicks;
+        private final double chance;
+        private final int cooldownTicks;
+        private final String cooldownKey;
+
+        private Passive(String weaponKey, String effectName, Map<String, Object> extra) {
+            this.effect = effectName.equalsIgnoreCase("kill_crit_boost") ? Effect.KILL_CRIT_BOOST : Effect.UNKNOWN;
+
+            String passiveName = readString(extra, "passive-name");
+            this.name = passiveName.isBlank() ? effectName : passiveName;
+
+            this.value = readDouble(extra, "passive-value", 0.0);
+            this.durationTicks = readInt(extra, "passive-duration-ticks", 200);
+
+            // chance：支援 0~1 或 0~100
+            double c = readDouble(extra, "passive-chance", 1.0);
+            if (c > 1.0) {
+                c = c / 100.0;
+            }
+            this.chance = Math.max(0.0, Math.min(1.0, c));
+
+            this.cooldownTicks = readInt(extra, "passive-cooldown-ticks", 0);
+
+            // 不同武器/不同被動各自獨立冷卻
+            String w = weaponKey == null ? "" : weaponKey.trim().toLowerCase();
+            String p = effectName.trim().toLowerCase();
+            this.cooldownKey = w.isEmpty() ? p : (p.isEmpty() ? w : w + ":" + p);
+        }
+
+        private static Passive compile(String weaponKey, Map<String, Object> extra) {
+            String effectName = readString(extra, "passive-effect");
+            if (effectName.isBlank()) {
+                return null;
+            }
+            return new Passive(weaponKey, effectName, extra);
+        }
+
+        public Effect getEffect() { return effect; }
+        public String getName() { return name; }
+        public double getValue() { return value; }
+        public int getDurationTicks() { return durationTicks; }
+        /** 觸發機率（已正規化為 0~1） */
+        public double getChance() { return chance; }
+        public int getCooldownTicks() { return cooldownTicks; }
+        /** 冷卻 key（weaponKey:effect，已小寫） */
+        public String getCooldownKey() { return cooldownKey; }
+    }
+
+    // ===== 載入時使用的解析工具 =====
+
+    private static double readDouble(Map<?, ?> map, String key, double defaultValue) {
+        Object val = map.get(key);
+        if (val instanceof Number) {
+            return ((Number) val).doubleValue();
+        }
+        return defaultValue;
+    }
+
+    private static int readInt(Map<?, ?> map, String key, int defaultValue) {
+        Object val = map.get(key);
+        if (val instanceof Number) {
+            return ((Number) val).intValue();
+        }
+        return defaultValue;
+    }
+
+    private static boolean readBoolean(Map<?, ?> map, String key, boolean defaultValue) {
+        Object val = map.get(key);
+        if (val instanceof Boolean) {
+            return (Boolean) val;
+        }
+        return defaultValue;
+    }
+
+    private static String readString(Map<?, ?> map, String key) {
+        Object val = map.get(key);
+        return val == null ? "" : String.valueOf(val);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> readMapList(Object obj) {
+        if (!(obj instanceof List<?> list) || list.isEmpty()) {
+            return null;
+        }
+        List<Map<String, Object>> out = new ArrayList<>(list.size());
+        for (Object item : list) {
+            if (item instanceof Map) {
+                out.add((Map<String, Object>) item);
+            }
+        }
+        return out.isEmpty() ? null : Collections.unmodifiableList(out);
+    }
+}